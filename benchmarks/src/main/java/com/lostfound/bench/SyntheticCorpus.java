@@ -0,0 +1,104 @@
+package com.lostfound.bench;
+
+import com.lostfound.model.FoundItem;
+import com.lostfound.model.LostItem;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic synthetic lost/found items with a realistic skew: a few
+ * very common item names and colors, many locations, and descriptions drawn
+ * from a vocabulary that includes stop words.
+ */
+public final class SyntheticCorpus {
+
+    private static final String[] COMMON_NAMES = {
+            "Wallet", "Keys", "Phone", "Backpack", "Water Bottle", "Umbrella", "Laptop", "Headphones"
+    };
+    private static final String[] COLORS = {
+            "Black", "Blue", "Red", "White", "Silver", "Brown", "Green", "Grey", "Pink", "Yellow", "Purple", "Gold"
+    };
+    private static final String[] WORDS = {
+            "the", "with", "a", "and", "of", "in", "leather", "cracked", "screen", "sticker", "zipper", "strap",
+            "keychain", "case", "logo", "scratch", "charger", "card", "student", "id", "cash", "photo", "pocket",
+            "small", "large", "new", "old", "brand", "apple", "samsung", "nike", "adidas", "dell", "hp", "sony"
+    };
+
+    private SyntheticCorpus() {
+    }
+
+    public static List<LostItem> lostItems(int count, long seed) {
+        Random random = new Random(seed);
+        List<LostItem> items = new ArrayList<>(count);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 1; i <= count; i++) {
+            items.add(new LostItem(i, name(random), color(random), location(random), description(random),
+                    "owner" + i + "@example.edu", now.minusMinutes(i)));
+        }
+        return items;
+    }
+
+    public static List<FoundItem> foundItems(int count, long seed) {
+        Random random = new Random(seed);
+        List<FoundItem> items = new ArrayList<>(count);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 1; i <= count; i++) {
+            items.add(new FoundItem(i, name(random), color(random), location(random), description(random),
+                    "finder" + i + "@example.edu", now.minusMinutes(i)));
+        }
+        return items;
+    }
+
+    /**
+     * Query item with ID 0, so the engine does not add it to its index.
+     */
+    public static FoundItem foundQuery(long seed) {
+        Random random = new Random(seed);
+        return new FoundItem(0, name(random), color(random), location(random), description(random),
+                "desk@example.edu", LocalDateTime.now());
+    }
+
+    public static LostItem lostQuery(long seed) {
+        Random random = new Random(seed);
+        return new LostItem(0, name(random), color(random), location(random), description(random),
+                "owner@example.edu", LocalDateTime.now());
+    }
+
+    public static String description(Random random) {
+        int words = 3 + random.nextInt(12);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                sb.append(random.nextInt(6) == 0 ? ", " : " ");
+            }
+            sb.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Silences the application's console logging inside the benchmark JVM.
+     */
+    public static void silenceConsole() {
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    private static String name(Random random) {
+        // 70% from a handful of common names, the rest from a long tail
+        return random.nextInt(10) < 7 ? COMMON_NAMES[random.nextInt(COMMON_NAMES.length)]
+                : "Item " + random.nextInt(5000);
+    }
+
+    private static String color(Random random) {
+        return COLORS[random.nextInt(COLORS.length)];
+    }
+
+    private static String location(Random random) {
+        return "Building " + random.nextInt(200);
+    }
+}
@@ -0,0 +1,102 @@
+package com.lostfound.dao;
+
+import com.lostfound.bench.SyntheticCorpus;
+import com.lostfound.model.FoundItem;
+import com.lostfound.model.LostItem;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.*;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Row-to-object mapping in the DAOs, reading from an in-memory H2 database
+ * that stands in for MySQL. The result set is scrollable and rewound before
+ * each operation, so the query itself is not part of the measurement.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResultSetMappingBenchmark {
+
+    @Param({"1000", "10000"})
+    public int rows;
+
+    private Connection conn;
+    private ResultSet lostRows;
+    private ResultSet foundRows;
+    private final JdbcLostItemDAO lostItemDAO = new JdbcLostItemDAO();
+    private final JdbcFoundItemDAO foundItemDAO = new JdbcFoundItemDAO();
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        SyntheticCorpus.silenceConsole();
+        conn = DriverManager.getConnection("jdbc:h2:mem:mapping;DB_CLOSE_DELAY=-1");
+
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE LOST_ITEMS (id INT PRIMARY KEY, item_name VARCHAR(100), color VARCHAR(50), " +
+                    "location VARCHAR(200), description CLOB, contact_info VARCHAR(200), reported_date TIMESTAMP)");
+            stmt.execute("CREATE TABLE FOUND_ITEMS (id INT PRIMARY KEY, item_name VARCHAR(100), color VARCHAR(50), " +
+                    "location VARCHAR(200), description CLOB, finder_info VARCHAR(200), found_date TIMESTAMP)");
+        }
+
+        try (PreparedStatement insert = conn.prepareStatement("INSERT INTO LOST_ITEMS VALUES (?, ?, ?, ?, ?, ?, ?)")) {
+            for (LostItem item : SyntheticCorpus.lostItems(rows, 1)) {
+                insert.setInt(1, item.getId());
+                insert.setString(2, item.getItemName());
+                insert.setString(3, item.getColor());
+                insert.setString(4, item.getLocation());
+                insert.setString(5, item.getDescription());
+                insert.setString(6, item.getContactInfo());
+                insert.setTimestamp(7, Timestamp.valueOf(item.getReportedDate()));
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+
+        try (PreparedStatement insert = conn.prepareStatement("INSERT INTO FOUND_ITEMS VALUES (?, ?, ?, ?, ?, ?, ?)")) {
+            List<FoundItem> items = SyntheticCorpus.foundItems(rows, 2);
+            for (FoundItem item : items) {
+                insert.setInt(1, item.getId());
+                insert.setString(2, item.getItemName());
+                insert.setString(3, item.getColor());
+                insert.setString(4, item.getLocation());
+                insert.setString(5, item.getDescription());
+                insert.setString(6, item.getFinderInfo());
+                insert.setTimestamp(7, Timestamp.valueOf(item.getFoundDate()));
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+
+        lostRows = conn.createStatement(ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY)
+                .executeQuery("SELECT * FROM LOST_ITEMS");
+        foundRows = conn.createStatement(ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY)
+                .executeQuery("SELECT * FROM FOUND_ITEMS");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        conn.close();
+    }
+
+    @Benchmark
+    public void extractLostItems(Blackhole blackhole) throws SQLException {
+        lostRows.beforeFirst();
+        while (lostRows.next()) {
+            blackhole.consume(lostItemDAO.extractLostItemFromResultSet(lostRows));
+        }
+    }
+
+    @Benchmark
+    public void extractFoundItems(Blackhole blackhole) throws SQLException {
+        foundRows.beforeFirst();
+        while (foundRows.next()) {
+            blackhole.consume(foundItemDAO.extractFoundItemFromResultSet(foundRows));
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.lostfound.matching;
+
+import com.lostfound.bench.SyntheticCorpus;
+import com.lostfound.dao.JdbcFoundItemDAO;
+import com.lostfound.dao.JdbcLostItemDAO;
+import com.lostfound.model.FoundItem;
+import com.lostfound.model.LostItem;
+import com.lostfound.model.Match;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pair scoring, description tokenization and end-to-end candidate search
+ * over synthetic corpora.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class MatchingBenchmark {
+
+    private static final int PAIRS = 4096;
+
+    @Param({"10000", "100000", "1000000"})
+    public int corpusSize;
+
+    private MatchingEngine engine;
+    private LostItem[] lostSample;
+    private FoundItem[] foundSample;
+    private String[] descriptions;
+    private FoundItem foundQuery;
+    private LostItem lostQuery;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SyntheticCorpus.silenceConsole();
+
+        List<LostItem> lostItems = SyntheticCorpus.lostItems(corpusSize, 1);
+        List<FoundItem> foundItems = SyntheticCorpus.foundItems(corpusSize, 2);
+
+        engine = new MatchingEngine(70, new JdbcLostItemDAO() {
+            @Override
+            public List<LostItem> getAllLostItems() {
+                return lostItems;
+            }
+        }, new JdbcFoundItemDAO() {
+            @Override
+            public List<FoundItem> getAllFoundItems() {
+                return foundItems;
+            }
+        });
+
+        lostSample = lostItems.subList(0, PAIRS).toArray(new LostItem[0]);
+        foundSample = foundItems.subList(0, PAIRS).toArray(new FoundItem[0]);
+        Random random = new Random(3);
+        descriptions = new String[PAIRS];
+        for (int i = 0; i < PAIRS; i++) {
+            descriptions[i] = SyntheticCorpus.description(random);
+            lostSample[i].getFeatures();
+            foundSample[i].getFeatures();
+        }
+
+        foundQuery = SyntheticCorpus.foundQuery(4);
+        lostQuery = SyntheticCorpus.lostQuery(5);
+
+        // Build the candidate indexes outside the measured region
+        engine.findMatchesForFoundItem(foundQuery);
+    }
+
+    private int next() {
+        cursor = (cursor + 1) & (PAIRS - 1);
+        return cursor;
+    }
+
+    @Benchmark
+    public int calculateMatchScore() {
+        int i = next();
+        return engine.calculateMatchScore(lostSample[i], foundSample[(i * 31) & (PAIRS - 1)]);
+    }
+
+    @Benchmark
+    public int[] tokenizeDescription() {
+        return ItemFeatures.tokenize(descriptions[next()]);
+    }
+
+    @Benchmark
+    public ItemFeatures computeFeatures() {
+        LostItem item = lostSample[next()];
+        return ItemFeatures.of(item.getItemName(), item.getColor(), item.getLocation(), item.getDescription());
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<Match> findMatchesForFoundItem() {
+        return engine.findMatchesForFoundItem(foundQuery);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<Match> findMatchesForLostItem() {
+        return engine.findMatchesForLostItem(lostQuery);
+    }
+}
@@ -19,7 +19,7 @@ CREATE TABLE LOST_ITEMS (
     reported_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     INDEX idx_item_name (item_name),
     INDEX idx_location (location),
-    INDEX idx_reported_date (reported_date)
+    INDEX idx_reported_date (reported_date, id)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
 
 -- Create FOUND_ITEMS table
@@ -33,7 +33,7 @@ CREATE TABLE FOUND_ITEMS (
     found_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     INDEX idx_item_name (item_name),
     INDEX idx_location (location),
-    INDEX idx_found_date (found_date)
+    INDEX idx_found_date (found_date, id)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
 
 -- Create MATCHES table
@@ -46,10 +46,12 @@ CREATE TABLE MATCHES (
     status ENUM('PENDING', 'CONFIRMED', 'REJECTED') DEFAULT 'PENDING',
     FOREIGN KEY (lost_item_id) REFERENCES LOST_ITEMS(id) ON DELETE CASCADE,
     FOREIGN KEY (found_item_id) REFERENCES FOUND_ITEMS(id) ON DELETE CASCADE,
+    UNIQUE KEY uk_lost_found (lost_item_id, found_item_id),
     INDEX idx_lost_item (lost_item_id),
     INDEX idx_found_item (found_item_id),
     INDEX idx_status (status),
-    INDEX idx_score (score)
+    INDEX idx_score (score),
+    INDEX idx_match_date_id (match_date, match_id)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
 
 SELECT 'Database created successfully!' AS Status;
\ No newline at end of file
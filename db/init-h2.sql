@@ -0,0 +1,58 @@
+-- Schema for the embedded H2 backend (db.backend=h2).
+-- Applied automatically on startup; every statement is idempotent.
+-- Index names are unique per schema in H2, unlike MySQL where they are per table.
+-- The list screens page newest first, and H2 only reads an index backwards
+-- for ORDER BY if it is declared descending.
+
+CREATE TABLE IF NOT EXISTS LOST_ITEMS (
+    id INT AUTO_INCREMENT PRIMARY KEY,
+    item_name VARCHAR(100) NOT NULL,
+    color VARCHAR(50),
+    location VARCHAR(200),
+    description TEXT,
+    contact_info VARCHAR(200) NOT NULL,
+    reported_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_lost_item_name ON LOST_ITEMS (item_name);
+CREATE INDEX IF NOT EXISTS idx_lost_location ON LOST_ITEMS (location);
+DROP INDEX IF EXISTS idx_lost_reported_date;
+CREATE INDEX IF NOT EXISTS idx_lost_reported_date_id ON LOST_ITEMS (reported_date DESC, id DESC);
+
+CREATE TABLE IF NOT EXISTS FOUND_ITEMS (
+    id INT AUTO_INCREMENT PRIMARY KEY,
+    item_name VARCHAR(100) NOT NULL,
+    color VARCHAR(50),
+    location VARCHAR(200),
+    description TEXT,
+    finder_info VARCHAR(200) NOT NULL,
+    found_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_found_item_name ON FOUND_ITEMS (item_name);
+CREATE INDEX IF NOT EXISTS idx_found_location ON FOUND_ITEMS (location);
+DROP INDEX IF EXISTS idx_found_found_date;
+CREATE INDEX IF NOT EXISTS idx_found_found_date_id ON FOUND_ITEMS (found_date DESC, id DESC);
+
+CREATE TABLE IF NOT EXISTS MATCHES (
+    match_id INT AUTO_INCREMENT PRIMARY KEY,
+    lost_item_id INT NOT NULL,
+    found_item_id INT NOT NULL,
+    score INT NOT NULL CHECK (score >= 0 AND score <= 100),
+    match_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    status ENUM('PENDING', 'CONFIRMED', 'REJECTED') DEFAULT 'PENDING',
+    FOREIGN KEY (lost_item_id) REFERENCES LOST_ITEMS(id) ON DELETE CASCADE,
+    FOREIGN KEY (found_item_id) REFERENCES FOUND_ITEMS(id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_match_lost_item ON MATCHES (lost_item_id);
+CREATE INDEX IF NOT EXISTS idx_match_found_item ON MATCHES (found_item_id);
+CREATE INDEX IF NOT EXISTS idx_match_status ON MATCHES (status);
+CREATE INDEX IF NOT EXISTS idx_match_score ON MATCHES (score);
+-- Older databases named this index idx_match_date, without the DESC order
+DROP INDEX IF EXISTS idx_match_date;
+CREATE INDEX IF NOT EXISTS idx_match_date_id ON MATCHES (match_date DESC, match_id DESC);
+
+-- One row per (lost, found) pair. Databases created before this index first
+-- get their duplicates removed by migrate-unique-matches-h2.sql.
+CREATE UNIQUE INDEX IF NOT EXISTS uk_lost_found ON MATCHES (lost_item_id, found_item_id);
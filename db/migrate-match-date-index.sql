@@ -0,0 +1,22 @@
+-- Migration: the (match_date, match_id) index the match list pages along
+-- Run once on databases created with an older init-db.sql. Adds
+-- idx_match_date_id, or renames it from idx_match_date where an earlier
+-- version created it under that name; does nothing if it already exists.
+USE lostfound_db;
+
+SET @has_index = (SELECT COUNT(*) FROM information_schema.STATISTICS
+                  WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'MATCHES'
+                    AND INDEX_NAME = 'idx_match_date_id');
+SET @has_old_name = (SELECT COUNT(*) FROM information_schema.STATISTICS
+                     WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'MATCHES'
+                       AND INDEX_NAME = 'idx_match_date');
+SET @ddl = CASE
+    WHEN @has_index > 0 THEN 'SELECT ''idx_match_date_id already present'' AS Status'
+    WHEN @has_old_name > 0 THEN 'ALTER TABLE MATCHES RENAME INDEX idx_match_date TO idx_match_date_id'
+    ELSE 'ALTER TABLE MATCHES ADD INDEX idx_match_date_id (match_date, match_id)'
+END;
+PREPARE migration FROM @ddl;
+EXECUTE migration;
+DEALLOCATE PREPARE migration;
+
+SELECT 'MATCHES match list index ready' AS Status;
@@ -0,0 +1,12 @@
+-- Migration: one MATCHES row per (lost_item_id, found_item_id) pair
+-- Applied once by DbConnection to embedded databases whose MATCHES table
+-- predates uk_lost_found, before init-h2.sql.
+
+-- Remove duplicate pairs, keeping the highest score (then the oldest row)
+DELETE FROM MATCHES m WHERE EXISTS (
+    SELECT 1 FROM MATCHES d
+    WHERE d.lost_item_id = m.lost_item_id AND d.found_item_id = m.found_item_id
+      AND (d.score > m.score OR (d.score = m.score AND d.match_id < m.match_id))
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_lost_found ON MATCHES (lost_item_id, found_item_id);
@@ -0,0 +1,14 @@
+-- Migration: one MATCHES row per (lost_item_id, found_item_id) pair
+-- Run once on databases created with an older init-db.sql.
+USE lostfound_db;
+
+-- Remove duplicate pairs, keeping the highest score (then the oldest row)
+DELETE m FROM MATCHES m
+JOIN MATCHES d
+  ON d.lost_item_id = m.lost_item_id
+ AND d.found_item_id = m.found_item_id
+ AND (d.score > m.score OR (d.score = m.score AND d.match_id < m.match_id));
+
+ALTER TABLE MATCHES ADD UNIQUE KEY uk_lost_found (lost_item_id, found_item_id);
+
+SELECT 'MATCHES deduplicated' AS Status;
@@ -1,33 +1,70 @@
 package com.lostfound;
 
 import com.lostfound.dao.*;
+import com.lostfound.db.DbConnection;
+import com.lostfound.db.PoolStats;
+import com.lostfound.importer.BulkImporter;
 import com.lostfound.matching.MatchingEngine;
+import com.lostfound.matching.RematchJob;
+import com.lostfound.metrics.LatencyHistogram;
+import com.lostfound.metrics.Metrics;
+import com.lostfound.metrics.MetricsReporter;
 import com.lostfound.model.*;
 import com.lostfound.notification.ConsoleNotificationService;
+import com.lostfound.notification.DigestNotificationService;
 import com.lostfound.notification.NotificationService;
+import com.lostfound.notification.QueuedNotificationDispatcher;
+import com.lostfound.notification.SmtpMessageSender;
+import com.lostfound.stats.StatisticsService;
 import com.lostfound.util.CsvExporter;
 import com.lostfound.util.SimpleLogger;
 
+import java.io.IOException;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
+import java.util.stream.Collectors;
 
 /**
  * Main application class for the Digital Lost & Found System.
  * Provides an interactive console menu for all system operations.
  */
 public class Main {
-    private static final LostItemDAO lostItemDAO = new LostItemDAO();
-    private static final FoundItemDAO foundItemDAO = new FoundItemDAO();
-    private static MatchDAO matchDAO = new MatchDAO();
+    private static final LostItemDAO lostItemDAO = DaoFactory.lostItemDAO();
+    private static final FoundItemDAO foundItemDAO = DaoFactory.foundItemDAO();
+    private static MatchDAO matchDAO = DaoFactory.matchDAO();
     private static MatchingEngine matchingEngine = new MatchingEngine();
-    private static NotificationService notificationService = new ConsoleNotificationService();
+    private static NotificationService notificationService = createNotificationService();
+    private static final StatisticsService statisticsService = new StatisticsService(
+            new StatisticsDAO(), DbConnection.getLongProperty("stats.cache.ttl.ms", 10_000));
+    private static final RematchJob rematchJob = new RematchJob(matchingEngine);
     private static final Scanner scanner = new Scanner(System.in);
+    private static final LatencyHistogram notifyTimer = Metrics.timer("notification_notify_match");
+    private static MetricsReporter metricsReporter;
 
     public static void main(String[] args) {
         System.out.println("\n" + "=".repeat(70));
         System.out.println("         DIGITAL LOST & FOUND SYSTEM");
         System.out.println("=".repeat(70));
+        if (DbConnection.getBooleanProperty("log.async", false)) {
+            String overflow = DbConnection.getProperty("log.async.overflow");
+            SimpleLogger.startAsync(DbConnection.getIntProperty("log.async.buffer.size", 8192),
+                    (overflow != null) ? SimpleLogger.OverflowPolicy.valueOf(overflow.trim().toUpperCase())
+                            : SimpleLogger.OverflowPolicy.DROP);
+        }
         SimpleLogger.log("Application started");
+        metricsReporter = MetricsReporter.fromConfig();
+
+        if (rematchJob.isRematchNeeded(matchingEngine.getThreshold())) {
+            rematchJob.start(matchingEngine.getThreshold());
+            System.out.println("Re-matching existing items in the background (threshold "
+                    + matchingEngine.getThreshold() + ")...");
+        }
 
         boolean running = true;
         while (running) {
@@ -45,10 +82,21 @@ public class Main {
                 case 8: updateMatchStatus(); break;
                 case 9: exportDataMenu(); break;
                 case 10: viewStatistics(); break;
+                case 11: rematchMenu(); break;
+                case 12: viewPerformanceMetrics(); break;
+                case 13: importItemsMenu(); break;
                 case 0:
                     running = false;
                     System.out.println("\nThank you for using the Lost & Found System!");
                     SimpleLogger.log("Application terminated");
+                    rematchJob.cancel();
+                    notificationService.shutdown();
+                    matchingEngine.shutdown();
+                    if (metricsReporter != null) {
+                        metricsReporter.shutdown();
+                    }
+                    DbConnection.shutdown();
+                    SimpleLogger.shutdown();
                     break;
                 default:
                     System.out.println("Invalid choice. Please try again.");
@@ -71,6 +119,9 @@ public class Main {
         System.out.println("8.  Update Match Status");
         System.out.println("9.  Export Data (CSV)");
         System.out.println("10. View Statistics");
+        System.out.println("11. Re-match Existing Items");
+        System.out.println("12. View Performance Metrics");
+        System.out.println("13. Import Items (CSV/JSONL)");
         System.out.println("0.  Exit");
         System.out.println("=".repeat(70));
     }
@@ -88,6 +139,7 @@ public class Main {
         int id = lostItemDAO.addLostItem(item);
 
         if (id > 0) {
+            statisticsService.invalidate();
             System.out.println("\n✓ Lost item reported successfully! ID: " + id);
 
             System.out.println("\nSearching for potential matches...");
@@ -99,11 +151,33 @@ public class Main {
             } else {
                 System.out.println("\n" + matches.size() + " potential match(es) found!");
 
+                // Persist and hydrate the matches in one transaction, skipping pairs already stored
+                List<Match> toSave = matchingEngine.filterKnownPairs(matches);
+                Map<Integer, FoundItem> foundItems = new HashMap<>();
+                if (!toSave.isEmpty()) {
+                    try (Connection conn = DbConnection.getConnection()) {
+                        conn.setAutoCommit(false);
+                        try {
+                            matchDAO.addMatches(conn, toSave);
+                            foundItems = foundItemDAO.getFoundItemsByIds(conn,
+                                    toSave.stream().map(Match::getFoundItemId).collect(Collectors.toSet()));
+                            conn.commit();
+                        } catch (SQLException e) {
+                            conn.rollback();
+                            throw e;
+                        }
+                    } catch (SQLException e) {
+                        SimpleLogger.error("Error saving matches: " + e.getMessage());
+                        System.out.println("\n✗ Failed to save matches.");
+                        return;
+                    }
+                    matchingEngine.recordPairs(toSave);
+                }
+
                 for (Match match : matches) {
-                    int matchId = matchDAO.addMatch(match);
-                    if (matchId > 0) {
-                        FoundItem foundItem = foundItemDAO.getFoundItemById(match.getFoundItemId());
-                        notificationService.notifyMatch(match, item, foundItem);
+                    FoundItem foundItem = foundItems.get(match.getFoundItemId());
+                    if (match.getMatchId() > 0 && foundItem != null) {
+                        notifyMatch(match, item, foundItem);
                     }
                 }
             }
@@ -125,6 +199,7 @@ public class Main {
         int id = foundItemDAO.addFoundItem(item);
 
         if (id > 0) {
+            statisticsService.invalidate();
             System.out.println("\n✓ Found item reported successfully! ID: " + id);
 
             System.out.println("\nSearching for potential matches...");
@@ -136,11 +211,33 @@ public class Main {
             } else {
                 System.out.println("\n" + matches.size() + " potential match(es) found!");
 
+                // Persist and hydrate the matches in one transaction, skipping pairs already stored
+                List<Match> toSave = matchingEngine.filterKnownPairs(matches);
+                Map<Integer, LostItem> lostItems = new HashMap<>();
+                if (!toSave.isEmpty()) {
+                    try (Connection conn = DbConnection.getConnection()) {
+                        conn.setAutoCommit(false);
+                        try {
+                            matchDAO.addMatches(conn, toSave);
+                            lostItems = lostItemDAO.getLostItemsByIds(conn,
+                                    toSave.stream().map(Match::getLostItemId).collect(Collectors.toSet()));
+                            conn.commit();
+                        } catch (SQLException e) {
+                            conn.rollback();
+                            throw e;
+                        }
+                    } catch (SQLException e) {
+                        SimpleLogger.error("Error saving matches: " + e.getMessage());
+                        System.out.println("\n✗ Failed to save matches.");
+                        return;
+                    }
+                    matchingEngine.recordPairs(toSave);
+                }
+
                 for (Match match : matches) {
-                    int matchId = matchDAO.addMatch(match);
-                    if (matchId > 0) {
-                        LostItem lostItem = lostItemDAO.getLostItemById(match.getLostItemId());
-                        notificationService.notifyMatch(match, lostItem, item);
+                    LostItem lostItem = lostItems.get(match.getLostItemId());
+                    if (match.getMatchId() > 0 && lostItem != null) {
+                        notifyMatch(match, lostItem, item);
                     }
                 }
             }
@@ -151,54 +248,107 @@ public class Main {
 
     private static void viewAllLostItems() {
         System.out.println("\n--- ALL LOST ITEMS ---");
-        List<LostItem> items = lostItemDAO.getAllLostItems();
+        int pageSize = DbConnection.getIntProperty("view.page.size", 20);
+        int shown = 0;
 
-        if (items.isEmpty()) {
-            System.out.println("No lost items found in the system.");
-        } else {
-            System.out.println("Total: " + items.size() + " item(s)\n");
-            for (LostItem item : items) {
+        KeysetCursor cursor = null;
+        while (true) {
+            List<LostItem> page = lostItemDAO.getLostItemsPage(cursor, pageSize, false);
+            if (page == null) {
+                System.out.println("✗ Failed to load lost items.");
+                return;
+            }
+            for (LostItem item : page) {
                 System.out.println(item);
                 System.out.println("-".repeat(70));
             }
+            shown += page.size();
+
+            if (page.size() < pageSize) {
+                break;
+            }
+            LostItem last = page.get(page.size() - 1);
+            cursor = new KeysetCursor(last.getReportedDate(), last.getId());
+
+            String more = getStringInput("Showing " + shown + " item(s). Press Enter for more, or 'q' to stop: ");
+            if (more.equalsIgnoreCase("q")) {
+                return;
+            }
+        }
+
+        if (shown == 0) {
+            System.out.println("No lost items found in the system.");
+        } else {
+            System.out.println("Total: " + shown + " item(s); search by ID for descriptions");
         }
     }
 
     private static void viewAllFoundItems() {
         System.out.println("\n--- ALL FOUND ITEMS ---");
-        List<FoundItem> items = foundItemDAO.getAllFoundItems();
+        int pageSize = DbConnection.getIntProperty("view.page.size", 20);
+        int shown = 0;
 
-        if (items.isEmpty()) {
-            System.out.println("No found items in the system.");
-        } else {
-            System.out.println("Total: " + items.size() + " item(s)\n");
-            for (FoundItem item : items) {
+        KeysetCursor cursor = null;
+        while (true) {
+            List<FoundItem> page = foundItemDAO.getFoundItemsPage(cursor, pageSize, false);
+            if (page == null) {
+                System.out.println("✗ Failed to load found items.");
+                return;
+            }
+            for (FoundItem item : page) {
                 System.out.println(item);
                 System.out.println("-".repeat(70));
             }
+            shown += page.size();
+
+            if (page.size() < pageSize) {
+                break;
+            }
+            FoundItem last = page.get(page.size() - 1);
+            cursor = new KeysetCursor(last.getFoundDate(), last.getId());
+
+            String more = getStringInput("Showing " + shown + " item(s). Press Enter for more, or 'q' to stop: ");
+            if (more.equalsIgnoreCase("q")) {
+                return;
+            }
+        }
+
+        if (shown == 0) {
+            System.out.println("No found items in the system.");
+        } else {
+            System.out.println("Total: " + shown + " item(s); search by ID for descriptions");
         }
     }
 
     private static void viewAllMatches() {
         System.out.println("\n--- ALL MATCHES ---");
-        List<Match> matches = matchDAO.getAllMatches();
-
-        if (matches.isEmpty()) {
-            System.out.println("No matches found in the system.");
-        } else {
-            System.out.println("Total: " + matches.size() + " match(es)\n");
+        int pageSize = DbConnection.getIntProperty("view.page.size", 20);
+        int[] shown = {0};
 
-            for (Match match : matches) {
-                System.out.println(match);
+        KeysetCursor cursor = null;
+        while (true) {
+            int before = shown[0];
+            cursor = matchDAO.streamMatchDetails(cursor, pageSize, detail -> {
+                System.out.println(detail);
+                System.out.println("-".repeat(70));
+                shown[0]++;
+            });
 
-                LostItem lostItem = lostItemDAO.getLostItemById(match.getLostItemId());
-                FoundItem foundItem = foundItemDAO.getFoundItemById(match.getFoundItemId());
+            if (cursor == null || shown[0] - before < pageSize) {
+                break;
+            }
 
-                System.out.println("\nLost Item: " + lostItem.getItemName() + " (" + lostItem.getColor() + ")");
-                System.out.println("Found Item: " + foundItem.getItemName() + " (" + foundItem.getColor() + ")");
-                System.out.println("-".repeat(70));
+            String more = getStringInput("Showing " + shown[0] + " match(es). Press Enter for more, or 'q' to stop: ");
+            if (more.equalsIgnoreCase("q")) {
+                return;
             }
         }
+
+        if (shown[0] == 0) {
+            System.out.println("No matches found in the system.");
+        } else {
+            System.out.println("Total: " + shown[0] + " match(es)");
+        }
     }
 
     private static void searchLostItemById() {
@@ -263,6 +413,7 @@ public class Main {
 
         boolean success = matchDAO.updateMatchStatus(matchId, newStatus);
         if (success) {
+            statisticsService.invalidate();
             System.out.println("\n✓ Match status updated to: " + newStatus);
         } else {
             System.out.println("\n✗ Failed to update match status.");
@@ -280,21 +431,21 @@ public class Main {
 
         switch (choice) {
             case 1:
-                CsvExporter.exportLostItems(lostItemDAO.getAllLostItems(), "lost_items.csv");
+                CsvExporter.streamLostItems("lost_items.csv");
                 System.out.println("✓ Exported to lost_items.csv");
                 break;
             case 2:
-                CsvExporter.exportFoundItems(foundItemDAO.getAllFoundItems(), "found_items.csv");
+                CsvExporter.streamFoundItems("found_items.csv");
                 System.out.println("✓ Exported to found_items.csv");
                 break;
             case 3:
-                CsvExporter.exportMatches(matchDAO.getAllMatches(), "matches.csv");
+                CsvExporter.streamMatches("matches.csv");
                 System.out.println("✓ Exported to matches.csv");
                 break;
             case 4:
-                CsvExporter.exportLostItems(lostItemDAO.getAllLostItems(), "lost_items.csv");
-                CsvExporter.exportFoundItems(foundItemDAO.getAllFoundItems(), "found_items.csv");
-                CsvExporter.exportMatches(matchDAO.getAllMatches(), "matches.csv");
+                CsvExporter.streamLostItems("lost_items.csv");
+                CsvExporter.streamFoundItems("found_items.csv");
+                CsvExporter.streamMatches("matches.csv");
                 System.out.println("✓ All data exported successfully");
                 break;
             default:
@@ -302,35 +453,161 @@ public class Main {
         }
     }
 
+    /**
+     * Hands the match to the notification service, timing the hand-off.
+     */
+    private static void notifyMatch(Match match, LostItem lostItem, FoundItem foundItem) {
+        long start = System.nanoTime();
+        try {
+            notificationService.notifyMatch(match, lostItem, foundItem);
+        } finally {
+            notifyTimer.recordSince(start);
+        }
+    }
+
+    private static void importItemsMenu() {
+        System.out.println("\n--- IMPORT ITEMS ---");
+        System.out.println("1. Import Lost Items");
+        System.out.println("2. Import Found Items");
+
+        int choice = getIntInput("Choice: ");
+        if (choice != 1 && choice != 2) {
+            System.out.println("Invalid choice.");
+            return;
+        }
+        String path = getStringInput("File (.csv, or .jsonl for JSON Lines): ");
+        if (path.isEmpty()) {
+            return;
+        }
+
+        BulkImporter.Kind kind = (choice == 1) ? BulkImporter.Kind.LOST : BulkImporter.Kind.FOUND;
+        System.out.println("Importing and matching, please wait...");
+        try {
+            BulkImporter.Result result = new BulkImporter(matchingEngine, notificationService)
+                    .importFile(kind, Paths.get(path));
+            statisticsService.invalidate();
+            System.out.println("✓ " + result);
+            if (result.getRejected() > 0 || result.getFailed() > 0) {
+                System.out.println("  See the log for the records that were not imported.");
+            }
+        } catch (IOException | InvalidPathException e) {
+            SimpleLogger.error("Import of " + path + " failed: " + e.getMessage());
+            System.out.println("✗ Could not read " + path + ": " + e.getMessage());
+        }
+    }
+
+    private static void viewPerformanceMetrics() {
+        System.out.println("\n--- PERFORMANCE METRICS ---");
+        System.out.println(Metrics.describe());
+    }
+
+    private static void rematchMenu() {
+        System.out.println("\n--- RE-MATCH EXISTING ITEMS ---");
+
+        if (rematchJob.getState() == RematchJob.State.RUNNING) {
+            System.out.println(rematchJob.describeProgress());
+            if (getStringInput("Cancel the running job? (y/n): ").equalsIgnoreCase("y")) {
+                rematchJob.cancel();
+                System.out.println("✓ Cancelled; it will resume from the last checkpoint next time.");
+            }
+            return;
+        }
+
+        if (rematchJob.getState() != RematchJob.State.IDLE) {
+            System.out.println("Last run: " + rematchJob.describeProgress());
+        }
+
+        String input = getStringInput("Match threshold (Enter keeps " + matchingEngine.getThreshold() + "): ");
+        if (!input.isEmpty()) {
+            try {
+                int threshold = Integer.parseInt(input);
+                if (threshold < 0 || threshold > 100) {
+                    System.out.println("Threshold must be between 0 and 100.");
+                    return;
+                }
+                matchingEngine.setThreshold(threshold);
+            } catch (NumberFormatException e) {
+                System.out.println("Invalid input. Please enter a number.");
+                return;
+            }
+        }
+
+        rematchJob.start(matchingEngine.getThreshold());
+        System.out.println("✓ Re-matching started in the background. Choose this option again to see progress.");
+    }
+
     private static void viewStatistics() {
         System.out.println("\n--- SYSTEM STATISTICS ---");
 
-        int totalLost = lostItemDAO.getAllLostItems().size();
-        int totalFound = foundItemDAO.getAllFoundItems().size();
-        List<Match> allMatches = matchDAO.getAllMatches();
-        int totalMatches = allMatches.size();
-
-        long confirmedMatches = allMatches.stream()
-                .filter(m -> "CONFIRMED".equals(m.getStatus()))
-                .count();
-        long pendingMatches = allMatches.stream()
-                .filter(m -> "PENDING".equals(m.getStatus()))
-                .count();
-        long rejectedMatches = allMatches.stream()
-                .filter(m -> "REJECTED".equals(m.getStatus()))
-                .count();
-
-        System.out.println("Total Lost Items Reported: " + totalLost);
-        System.out.println("Total Found Items Reported: " + totalFound);
+        Statistics stats = statisticsService.getStatistics();
+        if (stats == null) {
+            System.out.println("✗ Failed to load statistics.");
+            return;
+        }
+
+        long totalMatches = stats.getTotalMatches();
+        long confirmedMatches = stats.getMatchCount("CONFIRMED");
+
+        System.out.println("Total Lost Items Reported: " + stats.getTotalLost());
+        System.out.println("Total Found Items Reported: " + stats.getTotalFound());
         System.out.println("Total Matches Generated: " + totalMatches);
         System.out.println("  - Confirmed: " + confirmedMatches);
-        System.out.println("  - Pending: " + pendingMatches);
-        System.out.println("  - Rejected: " + rejectedMatches);
+        System.out.println("  - Pending: " + stats.getMatchCount("PENDING"));
+        System.out.println("  - Rejected: " + stats.getMatchCount("REJECTED"));
 
         if (totalMatches > 0) {
             double matchRate = (confirmedMatches * 100.0) / totalMatches;
             System.out.printf("Match Confirmation Rate: %.2f%%\n", matchRate);
+
+            System.out.println("\nScore Distribution:");
+            long[] histogram = stats.getScoreHistogram();
+            for (int i = 0; i < histogram.length; i++) {
+                if (histogram[i] > 0) {
+                    int low = i * Statistics.SCORE_BUCKET_WIDTH;
+                    int high = Math.min(100, low + Statistics.SCORE_BUCKET_WIDTH - 1);
+                    System.out.printf("  %3d-%-3d: %d\n", low, high, histogram[i]);
+                }
+            }
+        }
+
+        PoolStats poolStats = DbConnection.getPoolStats();
+        if (poolStats != null) {
+            System.out.println("\n" + poolStats);
+        }
+
+        String cacheStats = DaoFactory.describeCacheStats();
+        if (cacheStats != null) {
+            System.out.println("\n" + cacheStats);
+        }
+
+        System.out.println("\n" + matchingEngine.describeScoringStats());
+
+        String notificationStats = notificationService.describeStats();
+        if (notificationStats != null) {
+            System.out.println("\n" + notificationStats);
+        }
+
+        if (SimpleLogger.isAsync()) {
+            System.out.println("\nLog messages dropped: " + SimpleLogger.getDroppedCount());
+        }
+    }
+
+    /**
+     * notification.mode: "console" (default) prints notifications inline,
+     * "smtp" emails both parties in the background, batched into digests
+     * when notification.digest.window.ms is set.
+     */
+    private static NotificationService createNotificationService() {
+        String mode = DbConnection.getProperty("notification.mode");
+        if (mode == null || mode.trim().equalsIgnoreCase("console")) {
+            return new ConsoleNotificationService();
+        }
+        if (mode.trim().equalsIgnoreCase("smtp")) {
+            QueuedNotificationDispatcher dispatcher = new QueuedNotificationDispatcher(new SmtpMessageSender());
+            return DbConnection.getLongProperty("notification.digest.window.ms", 0) > 0
+                    ? new DigestNotificationService(dispatcher) : dispatcher;
         }
+        throw new IllegalArgumentException("Unknown notification.mode: " + mode);
     }
 
     private static String getStringInput(String prompt) {
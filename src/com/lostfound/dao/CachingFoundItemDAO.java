@@ -0,0 +1,134 @@
+package com.lostfound.dao;
+
+import com.lostfound.model.FoundItem;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Serves getFoundItemById and getFoundItemsByIds from an EntityCache and
+ * passes everything else to the wrapped DAO. Updates and deletes invalidate
+ * the item. Batch lookups on a caller's connection are served from the
+ * cache too: items are only updated or deleted through this class, which
+ * invalidates them, so a cached copy is what the caller's transaction would
+ * read. What such a lookup loads is not cached, since it may be the caller's
+ * uncommitted insert.
+ */
+class CachingFoundItemDAO implements FoundItemDAO {
+
+    private final FoundItemDAO delegate;
+    private final EntityCache<FoundItem> cache;
+
+    CachingFoundItemDAO(FoundItemDAO delegate, EntityCache<FoundItem> cache) {
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    @Override
+    public int addFoundItem(FoundItem item) {
+        return delegate.addFoundItem(item);
+    }
+
+    @Override
+    public int[] addFoundItems(List<FoundItem> items) {
+        return delegate.addFoundItems(items);
+    }
+
+    @Override
+    public int[] addFoundItems(Connection conn, List<FoundItem> items) throws SQLException {
+        return delegate.addFoundItems(conn, items);
+    }
+
+    @Override
+    public FoundItem getFoundItemById(int id) {
+        return cache.get(id, delegate::getFoundItemById);
+    }
+
+    @Override
+    public Map<Integer, FoundItem> getFoundItemsByIds(Collection<Integer> ids) {
+        Map<Integer, FoundItem> items = new HashMap<>();
+        List<Integer> missing = new ArrayList<>();
+        for (Integer id : ids) {
+            FoundItem cached = cache.getIfPresent(id);
+            if (cached != null) {
+                items.put(id, cached);
+            } else {
+                missing.add(id);
+            }
+        }
+        if (missing.isEmpty()) {
+            return items;
+        }
+
+        cache.recordMisses(missing.size());
+        long stamp = cache.stamp();
+        Map<Integer, FoundItem> loaded = delegate.getFoundItemsByIds(missing);
+        for (Map.Entry<Integer, FoundItem> entry : loaded.entrySet()) {
+            cache.putIfValid(entry.getKey(), entry.getValue(), stamp);
+        }
+        items.putAll(loaded);
+        return items;
+    }
+
+    @Override
+    public Map<Integer, FoundItem> getFoundItemsByIds(Connection conn, Collection<Integer> ids) throws SQLException {
+        Map<Integer, FoundItem> items = new HashMap<>();
+        List<Integer> missing = new ArrayList<>();
+        for (Integer id : ids) {
+            FoundItem cached = cache.getIfPresent(id);
+            if (cached != null) {
+                items.put(id, cached);
+            } else {
+                missing.add(id);
+            }
+        }
+        if (!missing.isEmpty()) {
+            cache.recordMisses(missing.size());
+            items.putAll(delegate.getFoundItemsByIds(conn, missing));
+        }
+        return items;
+    }
+
+    @Override
+    public List<FoundItem> getAllFoundItems() {
+        return delegate.getAllFoundItems();
+    }
+
+    @Override
+    public List<FoundItem> getFoundItemsAfter(int afterId, int limit) {
+        return delegate.getFoundItemsAfter(afterId, limit);
+    }
+
+    @Override
+    public int countFoundItemsAfter(int afterId) {
+        return delegate.countFoundItemsAfter(afterId);
+    }
+
+    @Override
+    public List<FoundItem> getFoundItemsPage(KeysetCursor after, int pageSize, boolean withDescription) {
+        return delegate.getFoundItemsPage(after, pageSize, withDescription);
+    }
+
+    @Override
+    public boolean updateFoundItem(FoundItem item) {
+        try {
+            return delegate.updateFoundItem(item);
+        } finally {
+            cache.invalidate(item.getId());
+        }
+    }
+
+    @Override
+    public boolean deleteFoundItem(int id) {
+        try {
+            return delegate.deleteFoundItem(id);
+        } finally {
+            cache.invalidate(id);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.lostfound.dao;
+
+import com.lostfound.model.LostItem;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Serves getLostItemById and getLostItemsByIds from an EntityCache and
+ * passes everything else to the wrapped DAO. Updates and deletes invalidate
+ * the item. Batch lookups on a caller's connection are served from the
+ * cache too: items are only updated or deleted through this class, which
+ * invalidates them, so a cached copy is what the caller's transaction would
+ * read. What such a lookup loads is not cached, since it may be the caller's
+ * uncommitted insert.
+ */
+class CachingLostItemDAO implements LostItemDAO {
+
+    private final LostItemDAO delegate;
+    private final EntityCache<LostItem> cache;
+
+    CachingLostItemDAO(LostItemDAO delegate, EntityCache<LostItem> cache) {
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    @Override
+    public int addLostItem(LostItem item) {
+        return delegate.addLostItem(item);
+    }
+
+    @Override
+    public int[] addLostItems(List<LostItem> items) {
+        return delegate.addLostItems(items);
+    }
+
+    @Override
+    public int[] addLostItems(Connection conn, List<LostItem> items) throws SQLException {
+        return delegate.addLostItems(conn, items);
+    }
+
+    @Override
+    public LostItem getLostItemById(int id) {
+        return cache.get(id, delegate::getLostItemById);
+    }
+
+    @Override
+    public Map<Integer, LostItem> getLostItemsByIds(Collection<Integer> ids) {
+        Map<Integer, LostItem> items = new HashMap<>();
+        List<Integer> missing = new ArrayList<>();
+        for (Integer id : ids) {
+            LostItem cached = cache.getIfPresent(id);
+            if (cached != null) {
+                items.put(id, cached);
+            } else {
+                missing.add(id);
+            }
+        }
+        if (missing.isEmpty()) {
+            return items;
+        }
+
+        cache.recordMisses(missing.size());
+        long stamp = cache.stamp();
+        Map<Integer, LostItem> loaded = delegate.getLostItemsByIds(missing);
+        for (Map.Entry<Integer, LostItem> entry : loaded.entrySet()) {
+            cache.putIfValid(entry.getKey(), entry.getValue(), stamp);
+        }
+        items.putAll(loaded);
+        return items;
+    }
+
+    @Override
+    public Map<Integer, LostItem> getLostItemsByIds(Connection conn, Collection<Integer> ids) throws SQLException {
+        Map<Integer, LostItem> items = new HashMap<>();
+        List<Integer> missing = new ArrayList<>();
+        for (Integer id : ids) {
+            LostItem cached = cache.getIfPresent(id);
+            if (cached != null) {
+                items.put(id, cached);
+            } else {
+                missing.add(id);
+            }
+        }
+        if (!missing.isEmpty()) {
+            cache.recordMisses(missing.size());
+            items.putAll(delegate.getLostItemsByIds(conn, missing));
+        }
+        return items;
+    }
+
+    @Override
+    public List<LostItem> getAllLostItems() {
+        return delegate.getAllLostItems();
+    }
+
+    @Override
+    public List<LostItem> getLostItemsAfter(int afterId, int limit) {
+        return delegate.getLostItemsAfter(afterId, limit);
+    }
+
+    @Override
+    public int countLostItemsAfter(int afterId) {
+        return delegate.countLostItemsAfter(afterId);
+    }
+
+    @Override
+    public List<LostItem> getLostItemsPage(KeysetCursor after, int pageSize, boolean withDescription) {
+        return delegate.getLostItemsPage(after, pageSize, withDescription);
+    }
+
+    @Override
+    public boolean updateLostItem(LostItem item) {
+        try {
+            return delegate.updateLostItem(item);
+        } finally {
+            cache.invalidate(item.getId());
+        }
+    }
+
+    @Override
+    public boolean deleteLostItem(int id) {
+        try {
+            return delegate.deleteLostItem(id);
+        } finally {
+            cache.invalidate(id);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.lostfound.dao;
+
+import com.lostfound.db.DbConnection;
+import com.lostfound.metrics.Metrics;
+import com.lostfound.model.FoundItem;
+import com.lostfound.model.LostItem;
+
+/**
+ * Single place where the application obtains its DAOs.
+ *
+ * Both storage backends (MySQL and the embedded H2 database, selected with
+ * db.backend in config/app.properties) speak JDBC, so the same
+ * implementations serve either one. Every DAO call is timed under
+ * dao_<table>_<method> (see Metrics).
+ *
+ * Item lookups by ID go through a read-through cache of cache.items.size
+ * entries per table (0 disables it) that expire after cache.items.ttl.ms.
+ */
+public final class DaoFactory {
+
+    private static final int cacheSize = DbConnection.getIntProperty("cache.items.size", 1000);
+    private static final long cacheTtlMs = DbConnection.getLongProperty("cache.items.ttl.ms", 60_000);
+
+    private static final EntityCache<LostItem> lostItemCache =
+            (cacheSize > 0) ? new EntityCache<>(cacheSize, cacheTtlMs, LostItem::new) : null;
+    private static final EntityCache<FoundItem> foundItemCache =
+            (cacheSize > 0) ? new EntityCache<>(cacheSize, cacheTtlMs, FoundItem::new) : null;
+
+    private static final LostItemDAO lostItemDAO = Metrics.timed(LostItemDAO.class,
+            (lostItemCache != null) ? new CachingLostItemDAO(new JdbcLostItemDAO(), lostItemCache) : new JdbcLostItemDAO(),
+            "dao_lost_item");
+    private static final FoundItemDAO foundItemDAO = Metrics.timed(FoundItemDAO.class,
+            (foundItemCache != null) ? new CachingFoundItemDAO(new JdbcFoundItemDAO(), foundItemCache) : new JdbcFoundItemDAO(),
+            "dao_found_item");
+    private static final MatchDAO matchDAO =
+            Metrics.timed(MatchDAO.class, new JdbcMatchDAO(), "dao_match");
+
+    static {
+        registerGauges("cache_lost_item", lostItemCache);
+        registerGauges("cache_found_item", foundItemCache);
+    }
+
+    private DaoFactory() {
+    }
+
+    public static LostItemDAO lostItemDAO() {
+        return lostItemDAO;
+    }
+
+    public static FoundItemDAO foundItemDAO() {
+        return foundItemDAO;
+    }
+
+    public static MatchDAO matchDAO() {
+        return matchDAO;
+    }
+
+    /**
+     * Hit, miss and eviction counts of the item caches, or null if caching is off.
+     */
+    public static String describeCacheStats() {
+        if (lostItemCache == null) {
+            return null;
+        }
+        return lostItemCache.describeStats("Lost item") + "\n" + foundItemCache.describeStats("Found item");
+    }
+
+    private static void registerGauges(String prefix, EntityCache<?> cache) {
+        if (cache == null) {
+            return;
+        }
+        Metrics.gauge(prefix + "_size", cache::size);
+        Metrics.gauge(prefix + "_hits", cache::hits);
+        Metrics.gauge(prefix + "_misses", cache::misses);
+        Metrics.gauge(prefix + "_loads", cache::loads);
+        Metrics.gauge(prefix + "_evictions", cache::evictions);
+        Metrics.gauge(prefix + "_expirations", cache::expirations);
+    }
+}
@@ -0,0 +1,239 @@
+package com.lostfound.dao;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntFunction;
+import java.util.function.UnaryOperator;
+
+/**
+ * Bounded read-through cache of entities by ID, in front of a DAO.
+ *
+ * Eviction is segmented LRU: entries enter a probation segment and move to a
+ * protected segment (80% of the capacity) when read again, so a scan over
+ * many items read once cannot push out the ones read repeatedly. Entries
+ * also expire ttlMs after they were loaded.
+ *
+ * Concurrent misses for the same ID share a single load. A load that
+ * overlaps an invalidation is returned to its callers but not cached, so an
+ * update can never be overwritten by the value read before it.
+ *
+ * Entities are mutable, so the cache keeps its own copy and every caller
+ * gets a fresh one. Null (not found or failed) is never cached.
+ */
+class EntityCache<V> {
+
+    private static final class Entry<V> {
+        final V value;
+        final long loadedAt;
+
+        Entry(V value, long loadedAt) {
+            this.value = value;
+            this.loadedAt = loadedAt;
+        }
+    }
+
+    private final int capacity;
+    private final int protectedCapacity;
+    private final long ttlNanos;
+    private final UnaryOperator<V> copier;
+
+    // Guarded by this; access-ordered, eldest first
+    private final LinkedHashMap<Integer, Entry<V>> probation = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<Integer, Entry<V>> protectedSegment = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final Map<Integer, CompletableFuture<V>> loading = new ConcurrentHashMap<>();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    EntityCache(int capacity, long ttlMs, UnaryOperator<V> copier) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Invalid cache capacity: " + capacity);
+        }
+        this.capacity = capacity;
+        this.protectedCapacity = capacity * 4 / 5;
+        this.ttlNanos = (ttlMs > 0) ? ttlMs * 1_000_000 : Long.MAX_VALUE;
+        this.copier = copier;
+    }
+
+    /**
+     * Returns a copy of the cached entity, loading it with loader on a miss.
+     */
+    V get(int id, IntFunction<V> loader) {
+        V cached = getIfPresent(id);
+        if (cached != null) {
+            return cached;
+        }
+        misses.increment();
+
+        CompletableFuture<V> load = new CompletableFuture<>();
+        CompletableFuture<V> running = loading.putIfAbsent(id, load);
+        if (running != null) {
+            return copyOf(await(running));
+        }
+
+        long stamp = invalidations.get();
+        try {
+            loads.increment();
+            V value = loader.apply(id);
+            if (value != null) {
+                putIfValid(id, value, stamp);
+            }
+            load.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(id, load);
+        }
+    }
+
+    /**
+     * Returns a copy of the cached entity, or null without loading it.
+     * Counts a hit but not a miss; callers that go on to load count it.
+     */
+    V getIfPresent(int id) {
+        Entry<V> entry;
+        synchronized (this) {
+            entry = lookup(id);
+        }
+        if (entry == null) {
+            return null;
+        }
+        hits.increment();
+        return copier.apply(entry.value);
+    }
+
+    void recordMisses(int count) {
+        misses.add(count);
+    }
+
+    /**
+     * Current invalidation count, to be taken before loading values for
+     * {@link #putIfValid}.
+     */
+    long stamp() {
+        return invalidations.get();
+    }
+
+    /**
+     * Caches a copy of the value unless an entry was invalidated since stamp.
+     */
+    void putIfValid(int id, V value, long stamp) {
+        V copy = copier.apply(value);
+        synchronized (this) {
+            if (invalidations.get() != stamp) {
+                return;
+            }
+            protectedSegment.remove(id);
+            probation.put(id, new Entry<>(copy, System.nanoTime()));
+            evictOverflow();
+        }
+    }
+
+    void invalidate(int id) {
+        synchronized (this) {
+            invalidations.incrementAndGet();
+            probation.remove(id);
+            protectedSegment.remove(id);
+        }
+        // Later readers start a fresh load instead of joining one that may predate the change
+        loading.remove(id);
+    }
+
+    // Caller holds the lock
+    private Entry<V> lookup(int id) {
+        Entry<V> entry = protectedSegment.get(id);
+        if (entry != null) {
+            if (isExpired(entry)) {
+                protectedSegment.remove(id);
+                expirations.increment();
+                return null;
+            }
+            return entry;
+        }
+
+        entry = probation.remove(id);
+        if (entry == null) {
+            return null;
+        }
+        if (isExpired(entry)) {
+            expirations.increment();
+            return null;
+        }
+
+        // Second read: promote, demoting the protected segment's least recent entry if it is full
+        if (protectedCapacity == 0) {
+            probation.put(id, entry);
+            return entry;
+        }
+        protectedSegment.put(id, entry);
+        if (protectedSegment.size() > protectedCapacity) {
+            Iterator<Map.Entry<Integer, Entry<V>>> eldest = protectedSegment.entrySet().iterator();
+            Map.Entry<Integer, Entry<V>> demoted = eldest.next();
+            eldest.remove();
+            probation.put(demoted.getKey(), demoted.getValue());
+        }
+        return entry;
+    }
+
+    // Caller holds the lock
+    private void evictOverflow() {
+        while (probation.size() + protectedSegment.size() > capacity) {
+            LinkedHashMap<Integer, Entry<V>> segment = probation.isEmpty() ? protectedSegment : probation;
+            Iterator<Entry<V>> eldest = segment.values().iterator();
+            eldest.next();
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+    private boolean isExpired(Entry<V> entry) {
+        return System.nanoTime() - entry.loadedAt > ttlNanos;
+    }
+
+    private V copyOf(V value) {
+        return (value != null) ? copier.apply(value) : null;
+    }
+
+    private static <V> V await(CompletableFuture<V> load) {
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    synchronized int size() {
+        return probation.size() + protectedSegment.size();
+    }
+
+    long hits() { return hits.sum(); }
+    long misses() { return misses.sum(); }
+    long loads() { return loads.sum(); }
+    long evictions() { return evictions.sum(); }
+    long expirations() { return expirations.sum(); }
+
+    String describeStats(String name) {
+        long h = hits.sum();
+        long m = misses.sum();
+        return String.format("%s cache\n  Size: %d/%d | Hits: %d | Misses: %d (%.1f%% hit rate) | Loads: %d\n" +
+                        "  Evictions: %d | Expirations: %d",
+                name, size(), capacity, h, m, (h + m > 0) ? h * 100.0 / (h + m) : 0.0, loads.sum(),
+                evictions.sum(), expirations.sum());
+    }
+}
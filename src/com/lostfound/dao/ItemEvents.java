@@ -0,0 +1,68 @@
+package com.lostfound.dao;
+
+import com.lostfound.model.FoundItem;
+import com.lostfound.model.LostItem;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Tells interested parties when the DAOs add, update or delete an item, so
+ * in-memory state derived from the item tables (such as the matching
+ * engine's candidate indexes and term statistics) stays current without
+ * reloading it.
+ *
+ * Listeners run on the writing thread after the statement succeeded and
+ * should return quickly.
+ */
+public final class ItemEvents {
+
+    public interface Listener {
+        /** Called after a lost item was added or updated. */
+        default void lostItemSaved(LostItem item) {}
+
+        default void lostItemDeleted(int id) {}
+
+        /** Called after a found item was added or updated. */
+        default void foundItemSaved(FoundItem item) {}
+
+        default void foundItemDeleted(int id) {}
+    }
+
+    private static final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    private ItemEvents() {
+    }
+
+    public static void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public static void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    static void lostItemSaved(LostItem item) {
+        for (Listener listener : listeners) {
+            listener.lostItemSaved(item);
+        }
+    }
+
+    static void lostItemDeleted(int id) {
+        for (Listener listener : listeners) {
+            listener.lostItemDeleted(id);
+        }
+    }
+
+    static void foundItemSaved(FoundItem item) {
+        for (Listener listener : listeners) {
+            listener.foundItemSaved(item);
+        }
+    }
+
+    static void foundItemDeleted(int id) {
+        for (Listener listener : listeners) {
+            listener.foundItemDeleted(id);
+        }
+    }
+}
@@ -0,0 +1,357 @@
+package com.lostfound.dao;
+
+import com.lostfound.db.DbConnection;
+import com.lostfound.model.FoundItem;
+import com.lostfound.util.SimpleLogger;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDBC implementation used for both the MySQL and the embedded backend;
+ * see DbConnection for how the backend is chosen.
+ */
+public class JdbcFoundItemDAO implements FoundItemDAO {
+
+    @Override
+    public int addFoundItem(FoundItem item) {
+        String sql = "INSERT INTO FOUND_ITEMS (item_name, color, location, description, finder_info, found_date) " +
+                "VALUES (?, ?, ?, ?, ?, ?)";
+
+        try (Connection conn = DbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+
+            pstmt.setString(1, item.getItemName());
+            pstmt.setString(2, item.getColor());
+            pstmt.setString(3, item.getLocation());
+            pstmt.setString(4, item.getDescription());
+            pstmt.setString(5, item.getFinderInfo());
+            pstmt.setTimestamp(6, Timestamp.valueOf(item.getFoundDate()));
+
+            int affectedRows = pstmt.executeUpdate();
+
+            if (affectedRows > 0) {
+                try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                    if (generatedKeys.next()) {
+                        int id = generatedKeys.getInt(1);
+                        item.setId(id);
+                        SimpleLogger.log("Found item added with ID: " + id);
+                        ItemEvents.foundItemSaved(item);
+                        return id;
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            SimpleLogger.error("Error adding found item: " + e.getMessage());
+        }
+
+        return -1;
+    }
+
+    @Override
+    public int[] addFoundItems(List<FoundItem> items) {
+        if (items.isEmpty()) {
+            return new int[0];
+        }
+
+        int[] ids;
+        try (Connection conn = DbConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                ids = addFoundItems(conn, items);
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            SimpleLogger.error("Error adding found items: " + e.getMessage());
+            for (FoundItem item : items) {
+                item.setId(0);
+            }
+            return new int[0];
+        }
+
+        for (FoundItem item : items) {
+            ItemEvents.foundItemSaved(item);
+        }
+        return ids;
+    }
+
+    @Override
+    public int[] addFoundItems(Connection conn, List<FoundItem> items) throws SQLException {
+        int[] ids = new int[items.size()];
+        if (items.isEmpty()) {
+            return ids;
+        }
+
+        String sql = "INSERT INTO FOUND_ITEMS (item_name, color, location, description, finder_info, found_date) " +
+                "VALUES (?, ?, ?, ?, ?, ?)";
+
+        try (PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            for (FoundItem item : items) {
+                pstmt.setString(1, item.getItemName());
+                pstmt.setString(2, item.getColor());
+                pstmt.setString(3, item.getLocation());
+                pstmt.setString(4, item.getDescription());
+                pstmt.setString(5, item.getFinderInfo());
+                pstmt.setTimestamp(6, Timestamp.valueOf(item.getFoundDate()));
+                pstmt.addBatch();
+            }
+
+            pstmt.executeBatch();
+
+            try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                int i = 0;
+                while (generatedKeys.next() && i < items.size()) {
+                    ids[i] = generatedKeys.getInt(1);
+                    items.get(i).setId(ids[i]);
+                    i++;
+                }
+            }
+        }
+
+        SimpleLogger.log("Batch added " + items.size() + " found items");
+        return ids;
+    }
+
+    @Override
+    public FoundItem getFoundItemById(int id) {
+        String sql = "SELECT * FROM FOUND_ITEMS WHERE id = ?";
+
+        try (Connection conn = DbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, id);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return extractFoundItemFromResultSet(rs);
+                }
+            }
+        } catch (SQLException e) {
+            SimpleLogger.error("Error retrieving found item with ID " + id + ": " + e.getMessage());
+        }
+
+        return null;
+    }
+
+    @Override
+    public Map<Integer, FoundItem> getFoundItemsByIds(Collection<Integer> ids) {
+        if (ids.isEmpty()) {
+            return new HashMap<>();
+        }
+
+        try (Connection conn = DbConnection.getConnection()) {
+            return getFoundItemsByIds(conn, ids);
+        } catch (SQLException e) {
+            SimpleLogger.error("Error retrieving found items by IDs: " + e.getMessage());
+        }
+
+        return new HashMap<>();
+    }
+
+    @Override
+    public Map<Integer, FoundItem> getFoundItemsByIds(Connection conn, Collection<Integer> ids) throws SQLException {
+        Map<Integer, FoundItem> items = new HashMap<>();
+        if (ids.isEmpty()) {
+            return items;
+        }
+
+        StringBuilder sql = new StringBuilder("SELECT * FROM FOUND_ITEMS WHERE id IN (");
+        for (int i = 0; i < ids.size(); i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        sql.append(")");
+
+        try (PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+            int index = 1;
+            for (Integer id : ids) {
+                pstmt.setInt(index++, id);
+            }
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    FoundItem item = extractFoundItemFromResultSet(rs);
+                    items.put(item.getId(), item);
+                }
+            }
+        }
+
+        return items;
+    }
+
+    @Override
+    public List<FoundItem> getAllFoundItems() {
+        List<FoundItem> items = new ArrayList<>();
+        String sql = "SELECT * FROM FOUND_ITEMS ORDER BY found_date DESC";
+
+        try (Connection conn = DbConnection.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+
+            while (rs.next()) {
+                items.add(extractFoundItemFromResultSet(rs));
+            }
+
+            SimpleLogger.log("Retrieved " + items.size() + " found items");
+        } catch (SQLException e) {
+            SimpleLogger.error("Error retrieving all found items: " + e.getMessage());
+        }
+
+        return items;
+    }
+
+    @Override
+    public List<FoundItem> getFoundItemsAfter(int afterId, int limit) {
+        List<FoundItem> items = new ArrayList<>();
+        String sql = "SELECT * FROM FOUND_ITEMS WHERE id > ? ORDER BY id LIMIT ?";
+
+        try (Connection conn = DbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, afterId);
+            pstmt.setInt(2, limit);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    items.add(extractFoundItemFromResultSet(rs));
+                }
+            }
+        } catch (SQLException e) {
+            SimpleLogger.error("Error retrieving found items after ID " + afterId + ": " + e.getMessage());
+            return null;
+        }
+
+        return items;
+    }
+
+    @Override
+    public List<FoundItem> getFoundItemsPage(KeysetCursor after, int pageSize, boolean withDescription) {
+        List<FoundItem> items = new ArrayList<>();
+        String sql = "SELECT id, item_name, color, location, " + (withDescription ? "description, " : "") +
+                "finder_info, found_date FROM FOUND_ITEMS " +
+                (after != null ? "WHERE found_date <= ? AND (found_date < ? OR id < ?) " : "") +
+                "ORDER BY found_date DESC, id DESC LIMIT ?";
+
+        try (Connection conn = DbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            int index = 1;
+            if (after != null) {
+                Timestamp date = Timestamp.valueOf(after.getDate());
+                pstmt.setTimestamp(index++, date);
+                pstmt.setTimestamp(index++, date);
+                pstmt.setInt(index++, after.getId());
+            }
+            pstmt.setInt(index, pageSize);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    items.add(new FoundItem(
+                            rs.getInt("id"),
+                            rs.getString("item_name"),
+                            rs.getString("color"),
+                            rs.getString("location"),
+                            withDescription ? rs.getString("description") : null,
+                            rs.getString("finder_info"),
+                            rs.getTimestamp("found_date").toLocalDateTime()));
+                }
+            }
+        } catch (SQLException e) {
+            SimpleLogger.error("Error retrieving a page of found items: " + e.getMessage());
+            return null;
+        }
+
+        return items;
+    }
+
+    @Override
+    public int countFoundItemsAfter(int afterId) {
+        String sql = "SELECT COUNT(*) FROM FOUND_ITEMS WHERE id > ?";
+
+        try (Connection conn = DbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, afterId);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getInt(1);
+                }
+            }
+        } catch (SQLException e) {
+            SimpleLogger.error("Error counting found items: " + e.getMessage());
+        }
+
+        return -1;
+    }
+
+    @Override
+    public boolean updateFoundItem(FoundItem item) {
+        String sql = "UPDATE FOUND_ITEMS SET item_name = ?, color = ?, location = ?, " +
+                "description = ?, finder_info = ? WHERE id = ?";
+
+        try (Connection conn = DbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setString(1, item.getItemName());
+            pstmt.setString(2, item.getColor());
+            pstmt.setString(3, item.getLocation());
+            pstmt.setString(4, item.getDescription());
+            pstmt.setString(5, item.getFinderInfo());
+            pstmt.setInt(6, item.getId());
+
+            int affectedRows = pstmt.executeUpdate();
+
+            if (affectedRows > 0) {
+                SimpleLogger.log("Found item updated: ID " + item.getId());
+                ItemEvents.foundItemSaved(item);
+                return true;
+            }
+        } catch (SQLException e) {
+            SimpleLogger.error("Error updating found item: " + e.getMessage());
+        }
+
+        return false;
+    }
+
+    @Override
+    public boolean deleteFoundItem(int id) {
+        String sql = "DELETE FROM FOUND_ITEMS WHERE id = ?";
+
+        try (Connection conn = DbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, id);
+
+            int affectedRows = pstmt.executeUpdate();
+
+            if (affectedRows > 0) {
+                SimpleLogger.log("Found item deleted: ID " + id);
+                ItemEvents.foundItemDeleted(id);
+                return true;
+            }
+        } catch (SQLException e) {
+            SimpleLogger.error("Error deleting found item: " + e.getMessage());
+        }
+
+        return false;
+    }
+
+    FoundItem extractFoundItemFromResultSet(ResultSet rs) throws SQLException {
+        return new FoundItem(
+                rs.getInt("id"),
+                rs.getString("item_name"),
+                rs.getString("color"),
+                rs.getString("location"),
+                rs.getString("description"),
+                rs.getString("finder_info"),
+                rs.getTimestamp("found_date").toLocalDateTime()
+        );
+    }
+}
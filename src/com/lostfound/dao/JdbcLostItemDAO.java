@@ -0,0 +1,357 @@
+package com.lostfound.dao;
+
+import com.lostfound.db.DbConnection;
+import com.lostfound.model.LostItem;
+import com.lostfound.util.SimpleLogger;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDBC implementation used for both the MySQL and the embedded backend;
+ * see DbConnection for how the backend is chosen.
+ */
+public class JdbcLostItemDAO implements LostItemDAO {
+
+    @Override
+    public int addLostItem(LostItem item) {
+        String sql = "INSERT INTO LOST_ITEMS (item_name, color, location, description, contact_info, reported_date) " +
+                "VALUES (?, ?, ?, ?, ?, ?)";
+
+        try (Connection conn = DbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+
+            pstmt.setString(1, item.getItemName());
+            pstmt.setString(2, item.getColor());
+            pstmt.setString(3, item.getLocation());
+            pstmt.setString(4, item.getDescription());
+            pstmt.setString(5, item.getContactInfo());
+            pstmt.setTimestamp(6, Timestamp.valueOf(item.getReportedDate()));
+
+            int affectedRows = pstmt.executeUpdate();
+
+            if (affectedRows > 0) {
+                try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                    if (generatedKeys.next()) {
+                        int id = generatedKeys.getInt(1);
+                        item.setId(id);
+                        SimpleLogger.log("Lost item added with ID: " + id);
+                        ItemEvents.lostItemSaved(item);
+                        return id;
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            SimpleLogger.error("Error adding lost item: " + e.getMessage());
+        }
+
+        return -1;
+    }
+
+    @Override
+    public int[] addLostItems(List<LostItem> items) {
+        if (items.isEmpty()) {
+            return new int[0];
+        }
+
+        int[] ids;
+        try (Connection conn = DbConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                ids = addLostItems(conn, items);
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            SimpleLogger.error("Error adding lost items: " + e.getMessage());
+            for (LostItem item : items) {
+                item.setId(0);
+            }
+            return new int[0];
+        }
+
+        for (LostItem item : items) {
+            ItemEvents.lostItemSaved(item);
+        }
+        return ids;
+    }
+
+    @Override
+    public int[] addLostItems(Connection conn, List<LostItem> items) throws SQLException {
+        int[] ids = new int[items.size()];
+        if (items.isEmpty()) {
+            return ids;
+        }
+
+        String sql = "INSERT INTO LOST_ITEMS (item_name, color, location, description, contact_info, reported_date) " +
+                "VALUES (?, ?, ?, ?, ?, ?)";
+
+        try (PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            for (LostItem item : items) {
+                pstmt.setString(1, item.getItemName());
+                pstmt.setString(2, item.getColor());
+                pstmt.setString(3, item.getLocation());
+                pstmt.setString(4, item.getDescription());
+                pstmt.setString(5, item.getContactInfo());
+                pstmt.setTimestamp(6, Timestamp.valueOf(item.getReportedDate()));
+                pstmt.addBatch();
+            }
+
+            pstmt.executeBatch();
+
+            try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                int i = 0;
+                while (generatedKeys.next() && i < items.size()) {
+                    ids[i] = generatedKeys.getInt(1);
+                    items.get(i).setId(ids[i]);
+                    i++;
+                }
+            }
+        }
+
+        SimpleLogger.log("Batch added " + items.size() + " lost items");
+        return ids;
+    }
+
+    @Override
+    public LostItem getLostItemById(int id) {
+        String sql = "SELECT * FROM LOST_ITEMS WHERE id = ?";
+
+        try (Connection conn = DbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, id);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return extractLostItemFromResultSet(rs);
+                }
+            }
+        } catch (SQLException e) {
+            SimpleLogger.error("Error retrieving lost item with ID " + id + ": " + e.getMessage());
+        }
+
+        return null;
+    }
+
+    @Override
+    public Map<Integer, LostItem> getLostItemsByIds(Collection<Integer> ids) {
+        if (ids.isEmpty()) {
+            return new HashMap<>();
+        }
+
+        try (Connection conn = DbConnection.getConnection()) {
+            return getLostItemsByIds(conn, ids);
+        } catch (SQLException e) {
+            SimpleLogger.error("Error retrieving lost items by IDs: " + e.getMessage());
+        }
+
+        return new HashMap<>();
+    }
+
+    @Override
+    public Map<Integer, LostItem> getLostItemsByIds(Connection conn, Collection<Integer> ids) throws SQLException {
+        Map<Integer, LostItem> items = new HashMap<>();
+        if (ids.isEmpty()) {
+            return items;
+        }
+
+        StringBuilder sql = new StringBuilder("SELECT * FROM LOST_ITEMS WHERE id IN (");
+        for (int i = 0; i < ids.size(); i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        sql.append(")");
+
+        try (PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+            int index = 1;
+            for (Integer id : ids) {
+                pstmt.setInt(index++, id);
+            }
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    LostItem item = extractLostItemFromResultSet(rs);
+                    items.put(item.getId(), item);
+                }
+            }
+        }
+
+        return items;
+    }
+
+    @Override
+    public List<LostItem> getAllLostItems() {
+        List<LostItem> items = new ArrayList<>();
+        String sql = "SELECT * FROM LOST_ITEMS ORDER BY reported_date DESC";
+
+        try (Connection conn = DbConnection.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+
+            while (rs.next()) {
+                items.add(extractLostItemFromResultSet(rs));
+            }
+
+            SimpleLogger.log("Retrieved " + items.size() + " lost items");
+        } catch (SQLException e) {
+            SimpleLogger.error("Error retrieving all lost items: " + e.getMessage());
+        }
+
+        return items;
+    }
+
+    @Override
+    public List<LostItem> getLostItemsAfter(int afterId, int limit) {
+        List<LostItem> items = new ArrayList<>();
+        String sql = "SELECT * FROM LOST_ITEMS WHERE id > ? ORDER BY id LIMIT ?";
+
+        try (Connection conn = DbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, afterId);
+            pstmt.setInt(2, limit);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    items.add(extractLostItemFromResultSet(rs));
+                }
+            }
+        } catch (SQLException e) {
+            SimpleLogger.error("Error retrieving lost items after ID " + afterId + ": " + e.getMessage());
+            return null;
+        }
+
+        return items;
+    }
+
+    @Override
+    public List<LostItem> getLostItemsPage(KeysetCursor after, int pageSize, boolean withDescription) {
+        List<LostItem> items = new ArrayList<>();
+        String sql = "SELECT id, item_name, color, location, " + (withDescription ? "description, " : "") +
+                "contact_info, reported_date FROM LOST_ITEMS " +
+                (after != null ? "WHERE reported_date <= ? AND (reported_date < ? OR id < ?) " : "") +
+                "ORDER BY reported_date DESC, id DESC LIMIT ?";
+
+        try (Connection conn = DbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            int index = 1;
+            if (after != null) {
+                Timestamp date = Timestamp.valueOf(after.getDate());
+                pstmt.setTimestamp(index++, date);
+                pstmt.setTimestamp(index++, date);
+                pstmt.setInt(index++, after.getId());
+            }
+            pstmt.setInt(index, pageSize);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    items.add(new LostItem(
+                            rs.getInt("id"),
+                            rs.getString("item_name"),
+                            rs.getString("color"),
+                            rs.getString("location"),
+                            withDescription ? rs.getString("description") : null,
+                            rs.getString("contact_info"),
+                            rs.getTimestamp("reported_date").toLocalDateTime()));
+                }
+            }
+        } catch (SQLException e) {
+            SimpleLogger.error("Error retrieving a page of lost items: " + e.getMessage());
+            return null;
+        }
+
+        return items;
+    }
+
+    @Override
+    public int countLostItemsAfter(int afterId) {
+        String sql = "SELECT COUNT(*) FROM LOST_ITEMS WHERE id > ?";
+
+        try (Connection conn = DbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, afterId);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getInt(1);
+                }
+            }
+        } catch (SQLException e) {
+            SimpleLogger.error("Error counting lost items: " + e.getMessage());
+        }
+
+        return -1;
+    }
+
+    @Override
+    public boolean updateLostItem(LostItem item) {
+        String sql = "UPDATE LOST_ITEMS SET item_name = ?, color = ?, location = ?, " +
+                "description = ?, contact_info = ? WHERE id = ?";
+
+        try (Connection conn = DbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setString(1, item.getItemName());
+            pstmt.setString(2, item.getColor());
+            pstmt.setString(3, item.getLocation());
+            pstmt.setString(4, item.getDescription());
+            pstmt.setString(5, item.getContactInfo());
+            pstmt.setInt(6, item.getId());
+
+            int affectedRows = pstmt.executeUpdate();
+
+            if (affectedRows > 0) {
+                SimpleLogger.log("Lost item updated: ID " + item.getId());
+                ItemEvents.lostItemSaved(item);
+                return true;
+            }
+        } catch (SQLException e) {
+            SimpleLogger.error("Error updating lost item: " + e.getMessage());
+        }
+
+        return false;
+    }
+
+    @Override
+    public boolean deleteLostItem(int id) {
+        String sql = "DELETE FROM LOST_ITEMS WHERE id = ?";
+
+        try (Connection conn = DbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, id);
+
+            int affectedRows = pstmt.executeUpdate();
+
+            if (affectedRows > 0) {
+                SimpleLogger.log("Lost item deleted: ID " + id);
+                ItemEvents.lostItemDeleted(id);
+                return true;
+            }
+        } catch (SQLException e) {
+            SimpleLogger.error("Error deleting lost item: " + e.getMessage());
+        }
+
+        return false;
+    }
+
+    LostItem extractLostItemFromResultSet(ResultSet rs) throws SQLException {
+        return new LostItem(
+                rs.getInt("id"),
+                rs.getString("item_name"),
+                rs.getString("color"),
+                rs.getString("location"),
+                rs.getString("description"),
+                rs.getString("contact_info"),
+                rs.getTimestamp("reported_date").toLocalDateTime()
+        );
+    }
+}
\ No newline at end of file
@@ -0,0 +1,434 @@
+package com.lostfound.dao;
+
+import com.lostfound.db.DbConnection;
+import com.lostfound.model.Match;
+import com.lostfound.model.MatchDetail;
+import com.lostfound.util.SimpleLogger;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * JDBC implementation used for both the MySQL and the embedded backend;
+ * see DbConnection for how the backend is chosen.
+ */
+public class JdbcMatchDAO implements MatchDAO {
+
+    // Row-value IN lists are split so a large batch stays well below placeholder limits
+    private static final int PAIR_LOOKUP_CHUNK = 500;
+
+    @Override
+    public int addMatch(Match match) {
+        try (Connection conn = DbConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                int id = addMatches(conn, Collections.singletonList(match))[0];
+                conn.commit();
+                if (id > 0) {
+                    SimpleLogger.log("Match added with ID: " + id);
+                }
+                return id;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            SimpleLogger.error("Error adding match: " + e.getMessage());
+        }
+
+        return -1;
+    }
+
+    @Override
+    public int[] addMatches(List<Match> matches) {
+        if (matches.isEmpty()) {
+            return new int[0];
+        }
+
+        try (Connection conn = DbConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                int[] ids = addMatches(conn, matches);
+                conn.commit();
+                return ids;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            SimpleLogger.error("Error adding matches: " + e.getMessage());
+        }
+
+        return new int[0];
+    }
+
+    @Override
+    public int[] addMatches(Connection conn, List<Match> matches) throws SQLException {
+        int[] ids = new int[matches.size()];
+        if (matches.isEmpty()) {
+            return ids;
+        }
+
+        // One row per pair, the highest-scoring match for it in the list, in pair
+        // order: two batches then lock the pairs they share in the same order
+        // and cannot deadlock on them
+        Map<Long, Integer> bestOfPair = new TreeMap<>();
+        for (int i = 0; i < matches.size(); i++) {
+            Match match = matches.get(i);
+            long pair = Match.pairKey(match.getLostItemId(), match.getFoundItemId());
+            Integer best = bestOfPair.get(pair);
+            if (best == null || match.getScore() > matches.get(best).getScore()) {
+                bestOfPair.put(pair, i);
+            }
+        }
+        List<Match> toWrite = new ArrayList<>(bestOfPair.size());
+        for (int index : bestOfPair.values()) {
+            toWrite.add(matches.get(index));
+        }
+
+        // A plain read, without locks: with the update counts below it tells the
+        // rows this batch inserted from existing ones
+        Set<Long> stored = findPairs(conn, toWrite).keySet();
+
+        // Upsert, so concurrent writers of the same pair neither deadlock on gap
+        // locks nor fail on uk_lost_found; an existing row keeps the higher score
+        String sql = "INSERT INTO MATCHES (lost_item_id, found_item_id, score, match_date, status) " +
+                "VALUES (?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE score = GREATEST(score, VALUES(score))";
+        int[] counts;
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            for (Match match : toWrite) {
+                pstmt.setInt(1, match.getLostItemId());
+                pstmt.setInt(2, match.getFoundItemId());
+                pstmt.setInt(3, match.getScore());
+                pstmt.setTimestamp(4, Timestamp.valueOf(match.getMatchDate()));
+                pstmt.setString(5, match.getStatus());
+                pstmt.addBatch();
+            }
+            counts = pstmt.executeBatch();
+        }
+
+        // An upserted row counts 1 if inserted, 2 if its score was raised and 0
+        // (1 on MySQL, which reports found rows) if left as it was. A pair that
+        // a concurrent transaction inserted after the read above is not new
+        // here: it counts 0 or 2, or on MySQL is outside this transaction's
+        // snapshot and gets no ID from the lookup below
+        List<Match> inserted = new ArrayList<>();
+        for (int i = 0; i < toWrite.size(); i++) {
+            Match match = toWrite.get(i);
+            boolean written = counts[i] == 1 || counts[i] == Statement.SUCCESS_NO_INFO;
+            if (written && !stored.contains(Match.pairKey(match.getLostItemId(), match.getFoundItemId()))) {
+                inserted.add(match);
+            }
+        }
+        Map<Long, Integer> insertedIds = findPairs(conn, inserted);
+        for (int index : bestOfPair.values()) {
+            Match match = matches.get(index);
+            Integer id = insertedIds.get(Match.pairKey(match.getLostItemId(), match.getFoundItemId()));
+            if (id != null) {
+                ids[index] = id;
+                match.setMatchId(id);
+            }
+        }
+
+        SimpleLogger.log("Batch added " + insertedIds.size() + " matches (" + (matches.size() - insertedIds.size())
+                + " already stored or repeated)");
+        return ids;
+    }
+
+    /**
+     * Returns the match_id of the stored rows for the given pairs, keyed by
+     * Match.pairKey.
+     */
+    private Map<Long, Integer> findPairs(Connection conn, List<Match> matches) throws SQLException {
+        Map<Long, Integer> found = new HashMap<>();
+
+        for (int from = 0; from < matches.size(); from += PAIR_LOOKUP_CHUNK) {
+            List<Match> slice = matches.subList(from, Math.min(matches.size(), from + PAIR_LOOKUP_CHUNK));
+
+            StringBuilder sql = new StringBuilder("SELECT match_id, lost_item_id, found_item_id FROM MATCHES " +
+                    "WHERE (lost_item_id, found_item_id) IN (");
+            for (int i = 0; i < slice.size(); i++) {
+                sql.append(i == 0 ? "(?, ?)" : ", (?, ?)");
+            }
+            sql.append(")");
+
+            try (PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+                int index = 1;
+                for (Match match : slice) {
+                    pstmt.setInt(index++, match.getLostItemId());
+                    pstmt.setInt(index++, match.getFoundItemId());
+                }
+
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        found.put(Match.pairKey(rs.getInt(2), rs.getInt(3)), rs.getInt(1));
+                    }
+                }
+            }
+        }
+
+        return found;
+    }
+
+    @Override
+    public List<Match> getAllMatches() {
+        List<Match> matches = new ArrayList<>();
+        String sql = "SELECT * FROM MATCHES ORDER BY match_date DESC";
+
+        try (Connection conn = DbConnection.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+
+            while (rs.next()) {
+                matches.add(extractMatchFromResultSet(rs));
+            }
+
+            SimpleLogger.log("Retrieved " + matches.size() + " matches");
+        } catch (SQLException e) {
+            SimpleLogger.error("Error retrieving all matches: " + e.getMessage());
+        }
+
+        return matches;
+    }
+
+    @Override
+    public List<Match> getMatchesPage(KeysetCursor after, int pageSize) {
+        List<Match> matches = new ArrayList<>();
+        String sql = "SELECT match_id, lost_item_id, found_item_id, score, match_date, status FROM MATCHES " +
+                (after != null ? "WHERE match_date <= ? AND (match_date < ? OR match_id < ?) " : "") +
+                "ORDER BY match_date DESC, match_id DESC LIMIT ?";
+
+        try (Connection conn = DbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            int index = 1;
+            if (after != null) {
+                Timestamp date = Timestamp.valueOf(after.getDate());
+                pstmt.setTimestamp(index++, date);
+                pstmt.setTimestamp(index++, date);
+                pstmt.setInt(index++, after.getId());
+            }
+            pstmt.setInt(index, pageSize);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    matches.add(extractMatchFromResultSet(rs));
+                }
+            }
+        } catch (SQLException e) {
+            SimpleLogger.error("Error retrieving a page of matches: " + e.getMessage());
+            return null;
+        }
+
+        return matches;
+    }
+
+    @Override
+    public boolean streamPairScores(PairScoreConsumer consumer) {
+        String sql = "SELECT lost_item_id, found_item_id, score FROM MATCHES";
+
+        try (Connection conn = DbConnection.getConnection();
+             Statement stmt = conn.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+            stmt.setFetchSize(DbConnection.getDialect().getStreamingFetchSize());
+
+            try (ResultSet rs = stmt.executeQuery(sql)) {
+                while (rs.next()) {
+                    consumer.accept(rs.getInt(1), rs.getInt(2), rs.getInt(3));
+                }
+            }
+            return true;
+        } catch (SQLException e) {
+            SimpleLogger.error("Error streaming match pairs: " + e.getMessage());
+        }
+
+        return false;
+    }
+
+    @Override
+    public KeysetCursor streamMatchDetails(KeysetCursor after, int pageSize, Consumer<MatchDetail> consumer) {
+        String sql = "SELECT m.match_id, m.lost_item_id, m.found_item_id, m.score, m.match_date, m.status, " +
+                "l.item_name AS lost_name, l.color AS lost_color, l.location AS lost_location, l.contact_info, " +
+                "f.item_name AS found_name, f.color AS found_color, f.location AS found_location, f.finder_info " +
+                // Page the matches first so the joins only touch pageSize rows
+                "FROM (SELECT match_id, lost_item_id, found_item_id, score, match_date, status FROM MATCHES " +
+                (after != null ? "WHERE match_date <= ? AND (match_date < ? OR match_id < ?) " : "") +
+                "ORDER BY match_date DESC, match_id DESC LIMIT ?) m " +
+                "JOIN LOST_ITEMS l ON l.id = m.lost_item_id " +
+                "JOIN FOUND_ITEMS f ON f.id = m.found_item_id " +
+                "ORDER BY m.match_date DESC, m.match_id DESC";
+
+        KeysetCursor last = null;
+
+        try (Connection conn = DbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                     ResultSet.CONCUR_READ_ONLY)) {
+
+            int index = 1;
+            if (after != null) {
+                Timestamp date = Timestamp.valueOf(after.getDate());
+                pstmt.setTimestamp(index++, date);
+                pstmt.setTimestamp(index++, date);
+                pstmt.setInt(index++, after.getId());
+            }
+            pstmt.setInt(index, pageSize);
+            pstmt.setFetchSize(pageSize);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    Match match = extractMatchFromResultSet(rs);
+                    consumer.accept(new MatchDetail(match,
+                            rs.getString("lost_name"),
+                            rs.getString("lost_color"),
+                            rs.getString("lost_location"),
+                            rs.getString("contact_info"),
+                            rs.getString("found_name"),
+                            rs.getString("found_color"),
+                            rs.getString("found_location"),
+                            rs.getString("finder_info")));
+                    last = new KeysetCursor(match.getMatchDate(), match.getMatchId());
+                }
+            }
+        } catch (SQLException e) {
+            SimpleLogger.error("Error retrieving match details: " + e.getMessage());
+        }
+
+        return last;
+    }
+
+    @Override
+    public List<Match> getMatchesForLostItem(int lostItemId) {
+        List<Match> matches = new ArrayList<>();
+        String sql = "SELECT * FROM MATCHES WHERE lost_item_id = ? ORDER BY score DESC";
+
+        try (Connection conn = DbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, lostItemId);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    matches.add(extractMatchFromResultSet(rs));
+                }
+            }
+
+            SimpleLogger.log("Retrieved " + matches.size() + " matches for lost item ID " + lostItemId);
+        } catch (SQLException e) {
+            SimpleLogger.error("Error retrieving matches for lost item: " + e.getMessage());
+        }
+
+        return matches;
+    }
+
+    @Override
+    public Map<Integer, Set<Integer>> getMatchedFoundItemIds(int fromLostItemId, int toLostItemId) {
+        Map<Integer, Set<Integer>> pairs = new HashMap<>();
+        String sql = "SELECT lost_item_id, found_item_id FROM MATCHES WHERE lost_item_id BETWEEN ? AND ?";
+
+        try (Connection conn = DbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, fromLostItemId);
+            pstmt.setInt(2, toLostItemId);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    pairs.computeIfAbsent(rs.getInt(1), id -> new HashSet<>()).add(rs.getInt(2));
+                }
+            }
+        } catch (SQLException e) {
+            SimpleLogger.error("Error retrieving matched pairs: " + e.getMessage());
+            return null;
+        }
+
+        return pairs;
+    }
+
+    @Override
+    public List<Match> getMatchesForFoundItem(int foundItemId) {
+        List<Match> matches = new ArrayList<>();
+        String sql = "SELECT * FROM MATCHES WHERE found_item_id = ? ORDER BY score DESC";
+
+        try (Connection conn = DbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, foundItemId);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    matches.add(extractMatchFromResultSet(rs));
+                }
+            }
+
+            SimpleLogger.log("Retrieved " + matches.size() + " matches for found item ID " + foundItemId);
+        } catch (SQLException e) {
+            SimpleLogger.error("Error retrieving matches for found item: " + e.getMessage());
+        }
+
+        return matches;
+    }
+
+    @Override
+    public boolean updateMatchStatus(int matchId, String status) {
+        String sql = "UPDATE MATCHES SET status = ? WHERE match_id = ?";
+
+        try (Connection conn = DbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setString(1, status);
+            pstmt.setInt(2, matchId);
+
+            int affectedRows = pstmt.executeUpdate();
+
+            if (affectedRows > 0) {
+                SimpleLogger.log("Match status updated: ID " + matchId + " -> " + status);
+                return true;
+            }
+        } catch (SQLException e) {
+            SimpleLogger.error("Error updating match status: " + e.getMessage());
+        }
+
+        return false;
+    }
+
+    @Override
+    public boolean deleteMatch(int matchId) {
+        String sql = "DELETE FROM MATCHES WHERE match_id = ?";
+
+        try (Connection conn = DbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, matchId);
+
+            int affectedRows = pstmt.executeUpdate();
+
+            if (affectedRows > 0) {
+                SimpleLogger.log("Match deleted: ID " + matchId);
+                return true;
+            }
+        } catch (SQLException e) {
+            SimpleLogger.error("Error deleting match: " + e.getMessage());
+        }
+
+        return false;
+    }
+
+    private Match extractMatchFromResultSet(ResultSet rs) throws SQLException {
+        return new Match(
+                rs.getInt("match_id"),
+                rs.getInt("lost_item_id"),
+                rs.getInt("found_item_id"),
+                rs.getInt("score"),
+                rs.getTimestamp("match_date").toLocalDateTime(),
+                rs.getString("status")
+        );
+    }
+}
@@ -0,0 +1,25 @@
+package com.lostfound.dao;
+
+import java.time.LocalDateTime;
+
+/**
+ * Position of the last row of a page in a list ordered by (date DESC, id DESC).
+ * The next page starts strictly after this position.
+ */
+public class KeysetCursor {
+    private final LocalDateTime date;
+    private final int id;
+
+    public KeysetCursor(LocalDateTime date, int id) {
+        this.date = date;
+        this.id = id;
+    }
+
+    public LocalDateTime getDate() { return date; }
+    public int getId() { return id; }
+
+    @Override
+    public String toString() {
+        return "KeysetCursor[" + date + ", " + id + "]";
+    }
+}
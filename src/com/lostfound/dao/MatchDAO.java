@@ -1,164 +1,90 @@
 package com.lostfound.dao;
 
-import com.lostfound.db.DbConnection;
 import com.lostfound.model.Match;
-import com.lostfound.util.SimpleLogger;
+import com.lostfound.model.MatchDetail;
 
-import java.sql.*;
-import java.util.ArrayList;
+import java.sql.Connection;
+import java.sql.SQLException;
 import java.util.List;
-
-public class MatchDAO {
-
-    public int addMatch(Match match) {
-        String sql = "INSERT INTO MATCHES (lost_item_id, found_item_id, score, match_date, status) " +
-                "VALUES (?, ?, ?, ?, ?)";
-
-        try (Connection conn = DbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-
-            pstmt.setInt(1, match.getLostItemId());
-            pstmt.setInt(2, match.getFoundItemId());
-            pstmt.setInt(3, match.getScore());
-            pstmt.setTimestamp(4, Timestamp.valueOf(match.getMatchDate()));
-            pstmt.setString(5, match.getStatus());
-
-            int affectedRows = pstmt.executeUpdate();
-
-            if (affectedRows > 0) {
-                try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
-                    if (generatedKeys.next()) {
-                        int id = generatedKeys.getInt(1);
-                        match.setMatchId(id);
-                        SimpleLogger.log("Match added with ID: " + id);
-                        return id;
-                    }
-                }
-            }
-        } catch (SQLException e) {
-            SimpleLogger.error("Error adding match: " + e.getMessage());
-        }
-
-        return -1;
-    }
-
-    public List<Match> getAllMatches() {
-        List<Match> matches = new ArrayList<>();
-        String sql = "SELECT * FROM MATCHES ORDER BY match_date DESC";
-
-        try (Connection conn = DbConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-
-            while (rs.next()) {
-                matches.add(extractMatchFromResultSet(rs));
-            }
-
-            SimpleLogger.log("Retrieved " + matches.size() + " matches");
-        } catch (SQLException e) {
-            SimpleLogger.error("Error retrieving all matches: " + e.getMessage());
-        }
-
-        return matches;
-    }
-
-    public List<Match> getMatchesForLostItem(int lostItemId) {
-        List<Match> matches = new ArrayList<>();
-        String sql = "SELECT * FROM MATCHES WHERE lost_item_id = ? ORDER BY score DESC";
-
-        try (Connection conn = DbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-
-            pstmt.setInt(1, lostItemId);
-
-            try (ResultSet rs = pstmt.executeQuery()) {
-                while (rs.next()) {
-                    matches.add(extractMatchFromResultSet(rs));
-                }
-            }
-
-            SimpleLogger.log("Retrieved " + matches.size() + " matches for lost item ID " + lostItemId);
-        } catch (SQLException e) {
-            SimpleLogger.error("Error retrieving matches for lost item: " + e.getMessage());
-        }
-
-        return matches;
-    }
-
-    public List<Match> getMatchesForFoundItem(int foundItemId) {
-        List<Match> matches = new ArrayList<>();
-        String sql = "SELECT * FROM MATCHES WHERE found_item_id = ? ORDER BY score DESC";
-
-        try (Connection conn = DbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-
-            pstmt.setInt(1, foundItemId);
-
-            try (ResultSet rs = pstmt.executeQuery()) {
-                while (rs.next()) {
-                    matches.add(extractMatchFromResultSet(rs));
-                }
-            }
-
-            SimpleLogger.log("Retrieved " + matches.size() + " matches for found item ID " + foundItemId);
-        } catch (SQLException e) {
-            SimpleLogger.error("Error retrieving matches for found item: " + e.getMessage());
-        }
-
-        return matches;
-    }
-
-    public boolean updateMatchStatus(int matchId, String status) {
-        String sql = "UPDATE MATCHES SET status = ? WHERE match_id = ?";
-
-        try (Connection conn = DbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-
-            pstmt.setString(1, status);
-            pstmt.setInt(2, matchId);
-
-            int affectedRows = pstmt.executeUpdate();
-
-            if (affectedRows > 0) {
-                SimpleLogger.log("Match status updated: ID " + matchId + " -> " + status);
-                return true;
-            }
-        } catch (SQLException e) {
-            SimpleLogger.error("Error updating match status: " + e.getMessage());
-        }
-
-        return false;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Data access for MATCHES.
+ *
+ * Methods without a Connection parameter manage their own connection, log
+ * failures and return -1, null, false or an empty result. Methods that take
+ * a Connection run on the caller's connection (and transaction) and throw.
+ */
+public interface MatchDAO {
+
+    /**
+     * Receives one stored pair per call from {@link #streamPairScores}.
+     */
+    interface PairScoreConsumer {
+        void accept(int lostItemId, int foundItemId, int score);
     }
 
-    public boolean deleteMatch(int matchId) {
-        String sql = "DELETE FROM MATCHES WHERE match_id = ?";
-
-        try (Connection conn = DbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-
-            pstmt.setInt(1, matchId);
-
-            int affectedRows = pstmt.executeUpdate();
-
-            if (affectedRows > 0) {
-                SimpleLogger.log("Match deleted: ID " + matchId);
-                return true;
-            }
-        } catch (SQLException e) {
-            SimpleLogger.error("Error deleting match: " + e.getMessage());
-        }
-
-        return false;
-    }
-
-    private Match extractMatchFromResultSet(ResultSet rs) throws SQLException {
-        return new Match(
-                rs.getInt("match_id"),
-                rs.getInt("lost_item_id"),
-                rs.getInt("found_item_id"),
-                rs.getInt("score"),
-                rs.getTimestamp("match_date").toLocalDateTime(),
-                rs.getString("status")
-        );
-    }
+    /**
+     * Stores the match unless its (lost item, found item) pair already exists,
+     * in which case the stored score is raised to the higher of the two.
+     * Returns the new match ID (also set on the match), 0 if the pair was
+     * already stored, or -1 on failure.
+     */
+    int addMatch(Match match);
+
+    /**
+     * Stores all matches like {@link #addMatch} inside one transaction, with
+     * the inserts sent as a single JDBC batch. Returns one entry per match in
+     * the same order: the generated ID, or 0 for a pair that was already
+     * stored. An empty array is returned if the batch failed and was rolled back.
+     */
+    int[] addMatches(List<Match> matches);
+
+    /**
+     * Batch upsert on a caller-managed connection, so it can share a transaction
+     * with other work. Generated IDs are set on the newly inserted matches only,
+     * so callers can tell new matches (positive ID) from ones that already existed.
+     */
+    int[] addMatches(Connection conn, List<Match> matches) throws SQLException;
+
+    List<Match> getAllMatches();
+
+    /**
+     * Returns one page of matches, newest first, addressed with a keyset
+     * cursor on (match_date, match_id) like {@link #streamMatchDetails}.
+     * Returns null on failure.
+     */
+    List<Match> getMatchesPage(KeysetCursor after, int pageSize);
+
+    /**
+     * Streams the (lost item, found item, score) of every stored match without
+     * building Match objects. Returns false if the query failed part way.
+     */
+    boolean streamPairScores(PairScoreConsumer consumer);
+
+    /**
+     * Streams one page of matches joined with their lost and found items,
+     * newest first, to the given consumer as rows are read.
+     *
+     * Pages are addressed with a keyset cursor on (match_date, match_id):
+     * pass null for the first page and the returned cursor for the next one.
+     * Returns null when the page was empty.
+     */
+    KeysetCursor streamMatchDetails(KeysetCursor after, int pageSize, Consumer<MatchDetail> consumer);
+
+    List<Match> getMatchesForLostItem(int lostItemId);
+
+    /**
+     * Returns the found item IDs already matched to each lost item in the
+     * inclusive ID range, keyed by lost item ID. Returns null on failure.
+     */
+    Map<Integer, Set<Integer>> getMatchedFoundItemIds(int fromLostItemId, int toLostItemId);
+
+    List<Match> getMatchesForFoundItem(int foundItemId);
+
+    boolean updateMatchStatus(int matchId, String status);
+
+    boolean deleteMatch(int matchId);
 }
@@ -0,0 +1,70 @@
+package com.lostfound.dao;
+
+import com.lostfound.db.DbConnection;
+import com.lostfound.metrics.LatencyHistogram;
+import com.lostfound.metrics.Metrics;
+import com.lostfound.model.Statistics;
+import com.lostfound.util.SimpleLogger;
+
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Computes statistics with aggregate queries so no item or match rows
+ * are transferred to the application.
+ */
+public class StatisticsDAO {
+
+    private static final LatencyHistogram loadTimer = Metrics.timer("dao_statistics_load_statistics");
+
+    public Statistics loadStatistics() {
+        long start = System.nanoTime();
+        try {
+            return load();
+        } finally {
+            loadTimer.recordSince(start);
+        }
+    }
+
+    private Statistics load() {
+        try (Connection conn = DbConnection.getConnection();
+             Statement stmt = conn.createStatement()) {
+
+            long totalLost = count(stmt, "SELECT COUNT(*) FROM LOST_ITEMS");
+            long totalFound = count(stmt, "SELECT COUNT(*) FROM FOUND_ITEMS");
+
+            Map<String, Long> byStatus = new HashMap<>();
+            try (ResultSet rs = stmt.executeQuery("SELECT status, COUNT(*) FROM MATCHES GROUP BY status")) {
+                while (rs.next()) {
+                    byStatus.put(rs.getString(1), rs.getLong(2));
+                }
+            }
+
+            long[] histogram = new long[100 / Statistics.SCORE_BUCKET_WIDTH + 1];
+            String histogramSql = "SELECT FLOOR(score / " + Statistics.SCORE_BUCKET_WIDTH + ") AS bucket, COUNT(*) " +
+                    "FROM MATCHES GROUP BY bucket";
+            try (ResultSet rs = stmt.executeQuery(histogramSql)) {
+                while (rs.next()) {
+                    int bucket = rs.getInt(1);
+                    if (bucket >= 0 && bucket < histogram.length) {
+                        histogram[bucket] = rs.getLong(2);
+                    }
+                }
+            }
+
+            return new Statistics(totalLost, totalFound, byStatus, histogram, LocalDateTime.now());
+        } catch (SQLException e) {
+            SimpleLogger.error("Error computing statistics: " + e.getMessage());
+        }
+
+        return null;
+    }
+
+    private long count(Statement stmt, String sql) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery(sql)) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+}
@@ -0,0 +1,476 @@
+package com.lostfound.db;
+
+import com.lostfound.util.SimpleLogger;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded JDBC connection pool.
+ *
+ * Callers receive a wrapper around a pooled physical connection; closing the
+ * wrapper hands the connection back to the pool instead of closing the socket.
+ * Connections that sat idle are validated before reuse, idle connections above
+ * the minimum size are evicted, and connections held longer than the leak
+ * detection threshold are reported. Capturing the stack that borrowed each
+ * connection, to report it with the leak, costs a stack walk per checkout
+ * and is therefore only done when leak traces are asked for.
+ *
+ * When a statement cache size is set, each physical connection also keeps its
+ * most recently used prepared statements open: preparing the same SQL again on
+ * that connection reuses the statement, and closing it just clears its
+ * parameters and hands it back to the cache.
+ */
+public class ConnectionPool {
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int minSize;
+    private final int maxSize;
+    private final long idleTimeoutMs;
+    private final long acquireTimeoutMs;
+    private final long leakDetectionMs;
+    private final boolean leakTraces;
+    private final long validationIntervalMs;
+    private final int validationTimeoutSec;
+    private final int statementCacheSize;
+
+    private final Semaphore permits;
+    private final BlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final Set<PooledConnection> active = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean closed = false;
+
+    // Metrics
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong destroyed = new AtomicLong();
+    private final AtomicLong acquired = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong leaks = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLong statementCacheHits = new AtomicLong();
+    private final AtomicLong statementCacheMisses = new AtomicLong();
+
+    public ConnectionPool(String url, String user, String password, int minSize, int maxSize,
+                          long idleTimeoutMs, long acquireTimeoutMs, long leakDetectionMs, boolean leakTraces,
+                          long validationIntervalMs, int validationTimeoutSec, int statementCacheSize) {
+        if (minSize < 0 || maxSize < 1 || minSize > maxSize) {
+            throw new IllegalArgumentException("Invalid pool size: min=" + minSize + ", max=" + maxSize);
+        }
+
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.acquireTimeoutMs = acquireTimeoutMs;
+        this.leakDetectionMs = leakDetectionMs;
+        this.leakTraces = leakTraces && leakDetectionMs > 0;
+        this.validationIntervalMs = validationIntervalMs;
+        this.validationTimeoutSec = validationTimeoutSec;
+        this.statementCacheSize = statementCacheSize;
+        this.permits = new Semaphore(maxSize, true);
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "db-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = Math.max(1000, Math.min(idleTimeoutMs, leakDetectionMs > 0 ? leakDetectionMs : idleTimeoutMs) / 2);
+        housekeeper.scheduleAtFixedRate(this::housekeep, period, period, TimeUnit.MILLISECONDS);
+
+        SimpleLogger.log("Connection pool created (min=" + minSize + ", max=" + maxSize + ")");
+    }
+
+    /**
+     * Borrows a connection, waiting up to the acquisition timeout for one to
+     * become available. The returned connection must be closed by the caller.
+     */
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+                timeouts.incrementAndGet();
+                throw new SQLException("Timed out after " + acquireTimeoutMs
+                        + " ms waiting for a database connection (active=" + active.size() + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+
+        try {
+            PooledConnection pooled = takeIdleOrCreate();
+            pooled.borrowedAt = System.currentTimeMillis();
+            pooled.borrowTrace = leakTraces ? new Throwable("Connection borrowed here") : null;
+            pooled.leakReported = false;
+            active.add(pooled);
+
+            long waited = System.nanoTime() - start;
+            acquired.incrementAndGet();
+            totalWaitNanos.addAndGet(waited);
+            maxWaitNanos.accumulateAndGet(waited, Math::max);
+
+            return pooled.newHandle();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private PooledConnection takeIdleOrCreate() throws SQLException {
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            if (isUsable(pooled)) {
+                return pooled;
+            }
+            destroy(pooled);
+        }
+        return create();
+    }
+
+    private boolean isUsable(PooledConnection pooled) {
+        if (System.currentTimeMillis() - pooled.lastUsed < validationIntervalMs) {
+            return true;
+        }
+        try {
+            return pooled.physical.isValid(validationTimeoutSec);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private PooledConnection create() throws SQLException {
+        Connection physical = DriverManager.getConnection(url, user, password);
+        created.incrementAndGet();
+        SimpleLogger.log("Database connection established");
+        return new PooledConnection(physical);
+    }
+
+    private void release(PooledConnection pooled) {
+        active.remove(pooled);
+        try {
+            boolean reusable = !closed && !pooled.physical.isClosed();
+            if (reusable && !pooled.physical.getAutoCommit()) {
+                pooled.physical.rollback();
+                pooled.physical.setAutoCommit(true);
+            }
+
+            if (reusable) {
+                pooled.lastUsed = System.currentTimeMillis();
+                idle.offerFirst(pooled);
+            } else {
+                destroy(pooled);
+            }
+        } catch (SQLException e) {
+            SimpleLogger.error("Discarding broken pooled connection: " + e.getMessage());
+            destroy(pooled);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void destroy(PooledConnection pooled) {
+        destroyed.incrementAndGet();
+        try {
+            pooled.physical.close();
+        } catch (SQLException e) {
+            SimpleLogger.error("Error closing pooled connection: " + e.getMessage());
+        }
+    }
+
+    private void housekeep() {
+        try {
+            long now = System.currentTimeMillis();
+
+            // Evict connections idle for too long, oldest first, down to the minimum size
+            Iterator<PooledConnection> oldestFirst = idle.descendingIterator();
+            while (oldestFirst.hasNext() && totalConnections() > minSize) {
+                PooledConnection pooled = oldestFirst.next();
+                if (now - pooled.lastUsed > idleTimeoutMs && idle.remove(pooled)) {
+                    destroy(pooled);
+                }
+            }
+
+            // Top the pool back up to the minimum size
+            while (!closed && totalConnections() < minSize) {
+                idle.offerLast(create());
+            }
+
+            if (leakDetectionMs > 0) {
+                for (PooledConnection pooled : active) {
+                    if (!pooled.leakReported && now - pooled.borrowedAt > leakDetectionMs) {
+                        pooled.leakReported = true;
+                        leaks.incrementAndGet();
+                        Throwable trace = pooled.borrowTrace;
+                        long heldMs = now - pooled.borrowedAt;
+                        SimpleLogger.error(() -> "Possible connection leak: connection held for " + heldMs + " ms"
+                                + (trace != null ? "\n" + stackTraceOf(trace) : ""));
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            SimpleLogger.error("Connection pool housekeeping failed: " + e.getMessage());
+        } catch (RuntimeException e) {
+            SimpleLogger.error("Unexpected error in connection pool housekeeping: " + e);
+        }
+    }
+
+    private int totalConnections() {
+        return idle.size() + active.size();
+    }
+
+    /**
+     * Closes all idle connections and stops the housekeeping thread. Borrowed
+     * connections are closed as they are returned.
+     */
+    public void close() {
+        closed = true;
+        housekeeper.shutdownNow();
+
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            destroy(pooled);
+        }
+        SimpleLogger.log("Connection pool closed");
+    }
+
+    public PoolStats getStats() {
+        long acquisitions = acquired.get();
+        return new PoolStats(
+                active.size(),
+                idle.size(),
+                permits.getQueueLength(),
+                created.get(),
+                destroyed.get(),
+                acquisitions,
+                timeouts.get(),
+                leaks.get(),
+                acquisitions == 0 ? 0 : totalWaitNanos.get() / acquisitions / 1000,
+                maxWaitNanos.get() / 1000,
+                statementCacheHits.get(),
+                statementCacheMisses.get()
+        );
+    }
+
+    private static String stackTraceOf(Throwable trace) {
+        StringWriter text = new StringWriter();
+        trace.printStackTrace(new PrintWriter(text));
+        return text.toString().stripTrailing();
+    }
+
+    /**
+     * A physical connection owned by the pool. Each borrow gets a fresh handle
+     * so a caller holding on to a closed handle cannot affect the next borrower.
+     */
+    private class PooledConnection {
+        final Connection physical;
+        volatile long lastUsed = System.currentTimeMillis();
+        volatile long borrowedAt;
+        volatile Throwable borrowTrace;
+        volatile boolean leakReported;
+
+        // Least recently used first; only touched by the thread holding the connection
+        final Map<String, CachedStatement> statements = new LinkedHashMap<>(16, 0.75f, true);
+
+        PooledConnection(Connection physical) {
+            this.physical = physical;
+        }
+
+        /**
+         * Returns a cached statement for the SQL, preparing and caching it on a
+         * miss. Falls back to an uncached statement if the cached one is still
+         * open elsewhere (the same SQL prepared twice on one connection).
+         */
+        PreparedStatement prepare(Connection handle, Method method, Object[] args) throws Throwable {
+            String key = method.getName() + Arrays.toString(args);
+            CachedStatement cached = statements.get(key);
+
+            if (cached != null && cached.inUse) {
+                return (PreparedStatement) invokePhysical(method, args);
+            }
+
+            if (cached == null) {
+                statementCacheMisses.incrementAndGet();
+                cached = new CachedStatement((PreparedStatement) invokePhysical(method, args));
+                statements.put(key, cached);
+                evictStatements();
+            } else {
+                statementCacheHits.incrementAndGet();
+            }
+
+            cached.inUse = true;
+            return cached.newHandle(handle);
+        }
+
+        private void evictStatements() {
+            Iterator<CachedStatement> lruFirst = statements.values().iterator();
+            while (statements.size() > statementCacheSize && lruFirst.hasNext()) {
+                CachedStatement candidate = lruFirst.next();
+                if (!candidate.inUse) {
+                    lruFirst.remove();
+                    try {
+                        candidate.physical.close();
+                    } catch (SQLException e) {
+                        SimpleLogger.error("Error closing cached statement: " + e.getMessage());
+                    }
+                }
+            }
+        }
+
+        Object invokePhysical(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        Connection newHandle() {
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    new Handle(this));
+        }
+    }
+
+    private class Handle implements InvocationHandler {
+        private final PooledConnection pooled;
+        private boolean handleClosed = false;
+
+        Handle(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public synchronized Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!handleClosed) {
+                        handleClosed = true;
+                        release(pooled);
+                    }
+                    return null;
+                case "isClosed":
+                    return handleClosed || pooled.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + pooled.physical + "]";
+                default:
+                    if (handleClosed) {
+                        throw new SQLException("Connection has already been returned to the pool");
+                    }
+                    if (statementCacheSize > 0 && method.getName().equals("prepareStatement")
+                            && isCacheable(method)) {
+                        return pooled.prepare((Connection) proxy, method, args);
+                    }
+                    return pooled.invokePhysical(method, args);
+            }
+        }
+
+        /**
+         * prepareStatement(sql), (sql, autoGeneratedKeys) and (sql, resultSetType,
+         * resultSetConcurrency) are cached; column index/name variants are not.
+         */
+        private boolean isCacheable(Method method) {
+            Class<?>[] types = method.getParameterTypes();
+            for (int i = 1; i < types.length; i++) {
+                if (types[i] != int.class) {
+                    return false;
+                }
+            }
+            return types.length <= 3;
+        }
+    }
+
+    /**
+     * A prepared statement kept open in a connection's statement cache.
+     */
+    private static class CachedStatement {
+        final PreparedStatement physical;
+        volatile boolean inUse;
+
+        CachedStatement(PreparedStatement physical) {
+            this.physical = physical;
+        }
+
+        PreparedStatement newHandle(Connection connectionHandle) {
+            return (PreparedStatement) Proxy.newProxyInstance(
+                    PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class},
+                    new StatementHandle(this, connectionHandle));
+        }
+    }
+
+    private static class StatementHandle implements InvocationHandler {
+        private final CachedStatement cached;
+        private final Connection connectionHandle;
+        private boolean handleClosed = false;
+
+        StatementHandle(CachedStatement cached, Connection connectionHandle) {
+            this.cached = cached;
+            this.connectionHandle = connectionHandle;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!handleClosed) {
+                        handleClosed = true;
+                        try {
+                            cached.physical.clearParameters();
+                            cached.physical.clearBatch();
+                        } finally {
+                            cached.inUse = false;
+                        }
+                    }
+                    return null;
+                case "isClosed":
+                    return handleClosed || cached.physical.isClosed();
+                case "getConnection":
+                    return connectionHandle;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "CachedStatement[" + cached.physical + "]";
+                default:
+                    if (handleClosed) {
+                        throw new SQLException("Statement has already been closed");
+                    }
+                    try {
+                        return method.invoke(cached.physical, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+            }
+        }
+    }
+}
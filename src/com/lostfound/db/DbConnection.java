@@ -1,55 +1,193 @@
 package com.lostfound.db;
 
+import com.lostfound.metrics.LatencyHistogram;
+import com.lostfound.metrics.Metrics;
 import com.lostfound.util.SimpleLogger;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.sql.Connection;
-import java.sql.DriverManager;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.Properties;
 
 public class DbConnection {
     private static Properties properties = null;
+    private static ConnectionPool pool = null;
 
-    private static void loadProperties() {
+    private static final LatencyHistogram acquireTimer = Metrics.timer("db_connection_acquire");
+    // Dedups MATCHES for embedded databases from before uk_lost_found; next to the schema script
+    private static final String PAIR_MIGRATION_SCRIPT = "migrate-unique-matches-h2.sql";
+
+    static {
+        Metrics.gauge("db_pool_active", () -> {
+            PoolStats stats = getPoolStats();
+            return stats != null ? stats.getActive() : 0;
+        });
+        Metrics.gauge("db_pool_waiting", () -> {
+            PoolStats stats = getPoolStats();
+            return stats != null ? stats.getWaiting() : 0;
+        });
+    }
+
+    private static synchronized void loadProperties() {
         if (properties == null) {
             properties = new Properties();
-            try (FileInputStream fis = new FileInputStream("config/app.properties")) {
+            // -Dlostfound.config points at another file (the benchmarks use a throwaway one)
+            String file = System.getProperty("lostfound.config", "config/app.properties");
+            try (FileInputStream fis = new FileInputStream(file)) {
                 properties.load(fis);
                 SimpleLogger.log("Configuration loaded successfully");
             } catch (IOException e) {
-                SimpleLogger.error("Failed to load config/app.properties: " + e.getMessage());
+                SimpleLogger.error("Failed to load " + file + ": " + e.getMessage());
                 throw new RuntimeException("Configuration file not found", e);
             }
         }
     }
 
-    public static Connection getConnection() throws SQLException {
-        loadProperties();
+    private static synchronized ConnectionPool getPool() throws SQLException {
+        if (pool != null) {
+            return pool;
+        }
 
+        SqlDialect backend = getDialect();
         String url = properties.getProperty("db.url");
         String user = properties.getProperty("db.user");
         String password = properties.getProperty("db.password");
 
+        if (backend == SqlDialect.H2) {
+            if (url == null) {
+                url = "jdbc:h2:file:" + properties.getProperty("db.embedded.path", "data/lostfound") + ";MODE=MySQL";
+            }
+            if (user == null) {
+                user = "sa";
+            }
+            if (password == null) {
+                password = "";
+            }
+        }
+
         if (url == null || user == null || password == null) {
             throw new SQLException("Database configuration incomplete");
         }
 
         try {
-            Class.forName("com.mysql.cj.jdbc.Driver");
+            Class.forName(backend.getDriverClass());
         } catch (ClassNotFoundException e) {
-            SimpleLogger.error("MySQL JDBC Driver not found!");
+            SimpleLogger.error(backend + " JDBC Driver not found!");
             throw new SQLException("JDBC Driver not found", e);
         }
 
+        ConnectionPool created = new ConnectionPool(url, user, password,
+                getIntProperty("db.pool.min.size", 2),
+                getIntProperty("db.pool.max.size", 10),
+                getLongProperty("db.pool.idle.timeout.ms", 300_000),
+                getLongProperty("db.pool.acquire.timeout.ms", 5_000),
+                getLongProperty("db.pool.leak.detection.ms", 60_000),
+                getBooleanProperty("db.pool.leak.trace", false),
+                getLongProperty("db.pool.validation.interval.ms", 30_000),
+                getIntProperty("db.pool.validation.timeout.sec", 2),
+                getIntProperty("db.pool.statement.cache.size", 32));
+
+        if (backend == SqlDialect.H2) {
+            try {
+                Path schema = Paths.get(properties.getProperty("db.embedded.schema", "db/init-h2.sql"));
+                if (lacksUniquePairs(created)) {
+                    applySchema(created, schema.resolveSibling(PAIR_MIGRATION_SCRIPT));
+                }
+                applySchema(created, schema);
+            } catch (SQLException e) {
+                created.close();
+                throw e;
+            }
+        }
+
+        pool = created;
+        return pool;
+    }
+
+    /**
+     * Returns the configured backend (db.backend, "mysql" unless set to "h2").
+     */
+    public static synchronized SqlDialect getDialect() {
+        loadProperties();
+        return SqlDialect.fromName(properties.getProperty("db.backend"));
+    }
+
+    /**
+     * True if the embedded database has a MATCHES table from before
+     * uk_lost_found, which may hold duplicate pairs.
+     */
+    private static boolean lacksUniquePairs(ConnectionPool target) throws SQLException {
+        String sql = "SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES t WHERE UPPER(t.TABLE_NAME) = 'MATCHES' " +
+                "AND NOT EXISTS (SELECT 1 FROM INFORMATION_SCHEMA.INDEXES i " +
+                "WHERE UPPER(i.TABLE_NAME) = 'MATCHES' AND UPPER(i.INDEX_NAME) = 'UK_LOST_FOUND')";
+        try (Connection conn = target.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            return rs.next() && rs.getInt(1) > 0;
+        }
+    }
+
+    /**
+     * Runs an idempotent schema script against a fresh embedded database.
+     * Statements are separated by ';' and lines starting with "--" are skipped.
+     */
+    private static void applySchema(ConnectionPool target, Path scriptPath) throws SQLException {
+        String script;
         try {
-            
-            Connection conn = DriverManager.getConnection(url, user, password);
-            SimpleLogger.log("Database connection established");
-            return conn;
+            script = new String(Files.readAllBytes(scriptPath), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new SQLException("Cannot read schema script " + scriptPath, e);
+        }
+
+        StringBuilder sql = new StringBuilder();
+        for (String line : script.split("\\R")) {
+            if (!line.trim().startsWith("--")) {
+                sql.append(line).append('\n');
+            }
+        }
+
+        int applied = 0;
+        try (Connection conn = target.getConnection();
+             Statement stmt = conn.createStatement()) {
+            for (String statement : sql.toString().split(";")) {
+                if (!statement.trim().isEmpty()) {
+                    stmt.execute(statement);
+                    applied++;
+                }
+            }
+        }
+        SimpleLogger.log("Embedded schema ready (" + applied + " statements from " + scriptPath + ")");
+    }
+
+    public static Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        try {
+            return getPool().getConnection();
         } catch (SQLException e) {
             SimpleLogger.error("Failed to connect to database: " + e.getMessage());
             throw e;
+        } finally {
+            acquireTimer.recordSince(start);
+        }
+    }
+
+    /**
+     * Returns the current pool metrics, or null if no connection has been requested yet.
+     */
+    public static synchronized PoolStats getPoolStats() {
+        return pool != null ? pool.getStats() : null;
+    }
+
+    public static synchronized void shutdown() {
+        if (pool != null) {
+            pool.close();
+            pool = null;
         }
     }
 
@@ -57,4 +195,24 @@ public class DbConnection {
         loadProperties();
         return properties.getProperty(key);
     }
-}
\ No newline at end of file
+
+    public static int getIntProperty(String key, int defaultValue) {
+        String value = getProperty(key);
+        return (value != null) ? Integer.parseInt(value.trim()) : defaultValue;
+    }
+
+    public static boolean getBooleanProperty(String key, boolean defaultValue) {
+        String value = getProperty(key);
+        return (value != null) ? Boolean.parseBoolean(value.trim()) : defaultValue;
+    }
+
+    public static long getLongProperty(String key, long defaultValue) {
+        String value = getProperty(key);
+        return (value != null) ? Long.parseLong(value.trim()) : defaultValue;
+    }
+
+    public static double getDoubleProperty(String key, double defaultValue) {
+        String value = getProperty(key);
+        return (value != null) ? Double.parseDouble(value.trim()) : defaultValue;
+    }
+}
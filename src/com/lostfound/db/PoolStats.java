@@ -0,0 +1,59 @@
+package com.lostfound.db;
+
+/**
+ * Point-in-time snapshot of connection pool metrics.
+ */
+public class PoolStats {
+    private final int active;
+    private final int idle;
+    private final int waiting;
+    private final long created;
+    private final long destroyed;
+    private final long acquisitions;
+    private final long timeouts;
+    private final long leaks;
+    private final long avgWaitMicros;
+    private final long maxWaitMicros;
+    private final long statementCacheHits;
+    private final long statementCacheMisses;
+
+    public PoolStats(int active, int idle, int waiting, long created, long destroyed,
+                     long acquisitions, long timeouts, long leaks,
+                     long avgWaitMicros, long maxWaitMicros,
+                     long statementCacheHits, long statementCacheMisses) {
+        this.active = active;
+        this.idle = idle;
+        this.waiting = waiting;
+        this.created = created;
+        this.destroyed = destroyed;
+        this.acquisitions = acquisitions;
+        this.timeouts = timeouts;
+        this.leaks = leaks;
+        this.avgWaitMicros = avgWaitMicros;
+        this.maxWaitMicros = maxWaitMicros;
+        this.statementCacheHits = statementCacheHits;
+        this.statementCacheMisses = statementCacheMisses;
+    }
+
+    public int getActive() { return active; }
+    public int getIdle() { return idle; }
+    public int getWaiting() { return waiting; }
+    public long getCreated() { return created; }
+    public long getDestroyed() { return destroyed; }
+    public long getAcquisitions() { return acquisitions; }
+    public long getTimeouts() { return timeouts; }
+    public long getLeaks() { return leaks; }
+    public long getAvgWaitMicros() { return avgWaitMicros; }
+    public long getMaxWaitMicros() { return maxWaitMicros; }
+    public long getStatementCacheHits() { return statementCacheHits; }
+    public long getStatementCacheMisses() { return statementCacheMisses; }
+
+    @Override
+    public String toString() {
+        return String.format("Connection Pool\n  Active: %d | Idle: %d | Waiting: %d\n" +
+                        "  Created: %d | Destroyed: %d\n  Acquisitions: %d | Timeouts: %d | Leaks: %d\n" +
+                        "  Wait time: avg %d us, max %d us\n  Statement cache: %d hits, %d misses",
+                active, idle, waiting, created, destroyed, acquisitions, timeouts, leaks,
+                avgWaitMicros, maxWaitMicros, statementCacheHits, statementCacheMisses);
+    }
+}
@@ -0,0 +1,46 @@
+package com.lostfound.db;
+
+/**
+ * The database backends the application can run against. Both speak the same
+ * SQL (H2 runs in MySQL compatibility mode), so they share the JDBC DAOs and
+ * only differ in driver and a few tuning defaults.
+ */
+public enum SqlDialect {
+    MYSQL("com.mysql.cj.jdbc.Driver", Integer.MIN_VALUE),
+    H2("org.h2.Driver", 1000);
+
+    private final String driverClass;
+    private final int streamingFetchSize;
+
+    SqlDialect(String driverClass, int streamingFetchSize) {
+        this.driverClass = driverClass;
+        this.streamingFetchSize = streamingFetchSize;
+    }
+
+    public String getDriverClass() {
+        return driverClass;
+    }
+
+    /**
+     * Fetch size that makes the driver stream a large result set instead of
+     * buffering it (Connector/J only streams with Integer.MIN_VALUE).
+     */
+    public int getStreamingFetchSize() {
+        return streamingFetchSize;
+    }
+
+    public static SqlDialect fromName(String name) {
+        if (name == null || name.trim().isEmpty()) {
+            return MYSQL;
+        }
+        switch (name.trim().toLowerCase()) {
+            case "mysql":
+                return MYSQL;
+            case "h2":
+            case "embedded":
+                return H2;
+            default:
+                throw new IllegalArgumentException("Unknown db.backend: " + name);
+        }
+    }
+}
@@ -0,0 +1,305 @@
+package com.lostfound.importer;
+
+import com.lostfound.dao.DaoFactory;
+import com.lostfound.dao.FoundItemDAO;
+import com.lostfound.dao.LostItemDAO;
+import com.lostfound.dao.MatchDAO;
+import com.lostfound.db.DbConnection;
+import com.lostfound.matching.MatchingEngine;
+import com.lostfound.model.FoundItem;
+import com.lostfound.model.LostItem;
+import com.lostfound.model.Match;
+import com.lostfound.notification.NotificationService;
+import com.lostfound.util.SimpleLogger;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Imports lost or found items in bulk from a CSV or JSON Lines file (see
+ * RecordReader for the accepted layouts).
+ *
+ * The file is read as a stream and inserted in chunks of import.batch.size
+ * items, each chunk one JDBC batch in its own transaction, so a bad chunk
+ * only loses its own rows. Matching is deferred until every chunk is stored
+ * and then runs once for the whole import (see
+ * MatchingEngine.findMatchesForFoundItems), instead of once per row. New
+ * matches are saved in chunks too and notified like interactively reported ones.
+ *
+ * Records without an item name or contact, with a field too long for its
+ * column or with an unreadable date are skipped and logged with their line
+ * number.
+ */
+public class BulkImporter {
+
+    public enum Kind { LOST, FOUND }
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    // Column sizes from the schema: item_name, color, location, contact_info/finder_info
+    private static final int MAX_NAME = 100;
+    private static final int MAX_COLOR = 50;
+    private static final int MAX_LOCATION = 200;
+    private static final int MAX_CONTACT = 200;
+
+    /**
+     * What an import did.
+     */
+    public static final class Result {
+        private int read;
+        private int imported;
+        private int rejected;
+        private int failed;
+        private int matches;
+
+        public int getRead() { return read; }
+        public int getImported() { return imported; }
+        public int getRejected() { return rejected; }
+        public int getFailed() { return failed; }
+        public int getMatches() { return matches; }
+
+        @Override
+        public String toString() {
+            return String.format("Read: %d | Imported: %d | Rejected: %d | Failed to store: %d | New matches: %d",
+                    read, imported, rejected, failed, matches);
+        }
+    }
+
+    private final LostItemDAO lostItemDAO;
+    private final FoundItemDAO foundItemDAO;
+    private final MatchDAO matchDAO;
+    private final MatchingEngine matchingEngine;
+    private final NotificationService notifier;
+    private final int batchSize;
+
+    public BulkImporter(MatchingEngine matchingEngine, NotificationService notifier) {
+        this(DaoFactory.lostItemDAO(), DaoFactory.foundItemDAO(), DaoFactory.matchDAO(), matchingEngine, notifier,
+                DbConnection.getIntProperty("import.batch.size", 500));
+    }
+
+    /**
+     * @param notifier told about each new match; may be null
+     */
+    public BulkImporter(LostItemDAO lostItemDAO, FoundItemDAO foundItemDAO, MatchDAO matchDAO,
+                        MatchingEngine matchingEngine, NotificationService notifier, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Invalid import batch size: " + batchSize);
+        }
+        this.lostItemDAO = lostItemDAO;
+        this.foundItemDAO = foundItemDAO;
+        this.matchDAO = matchDAO;
+        this.matchingEngine = matchingEngine;
+        this.notifier = notifier;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Imports every record of the file as a lost or found item, then matches
+     * the imported items. Throws only if the file cannot be read at all.
+     */
+    public Result importFile(Kind kind, Path file) throws IOException {
+        Result result = new Result();
+        SimpleLogger.log("Importing " + kind.name().toLowerCase() + " items from " + file);
+
+        if (kind == Kind.LOST) {
+            List<LostItem> imported = new ArrayList<>();
+            List<LostItem> chunk = new ArrayList<>(batchSize);
+            readRecords(file, result, record -> {
+                chunk.add(new LostItem(0, record.get(RecordReader.NAME), orEmpty(record.get(RecordReader.COLOR)),
+                        orEmpty(record.get(RecordReader.LOCATION)), orEmpty(record.get(RecordReader.DESCRIPTION)),
+                        record.get(RecordReader.CONTACT), parseDate(record)));
+                if (chunk.size() == batchSize) {
+                    storeLost(chunk, imported, result);
+                }
+            });
+            storeLost(chunk, imported, result);
+
+            saveMatches(matchingEngine.findMatchesForLostItems(imported), result,
+                    imported.stream().collect(Collectors.toMap(LostItem::getId, item -> item)), null);
+        } else {
+            List<FoundItem> imported = new ArrayList<>();
+            List<FoundItem> chunk = new ArrayList<>(batchSize);
+            readRecords(file, result, record -> {
+                chunk.add(new FoundItem(0, record.get(RecordReader.NAME), orEmpty(record.get(RecordReader.COLOR)),
+                        orEmpty(record.get(RecordReader.LOCATION)), orEmpty(record.get(RecordReader.DESCRIPTION)),
+                        record.get(RecordReader.CONTACT), parseDate(record)));
+                if (chunk.size() == batchSize) {
+                    storeFound(chunk, imported, result);
+                }
+            });
+            storeFound(chunk, imported, result);
+
+            saveMatches(matchingEngine.findMatchesForFoundItems(imported), result, null,
+                    imported.stream().collect(Collectors.toMap(FoundItem::getId, item -> item)));
+        }
+
+        SimpleLogger.log("Import of " + file + " finished. " + result);
+        return result;
+    }
+
+    private interface RecordHandler {
+        void accept(RecordReader.Record record);
+    }
+
+    /**
+     * Passes each valid record to the handler; counts and logs the rest.
+     */
+    private void readRecords(Path file, Result result, RecordHandler handler) throws IOException {
+        try (RecordReader reader = RecordReader.open(file)) {
+            while (true) {
+                RecordReader.Record record;
+                try {
+                    record = reader.next();
+                } catch (RecordReader.MalformedRecordException e) {
+                    result.read++;
+                    reject(result, e.getMessage());
+                    continue;
+                }
+                if (record == null) {
+                    return;
+                }
+                result.read++;
+
+                trim(record);
+                String problem = validate(record);
+                if (problem != null) {
+                    reject(result, "line " + record.line + ": " + problem);
+                    continue;
+                }
+                handler.accept(record);
+            }
+        }
+    }
+
+    private static void reject(Result result, String reason) {
+        result.rejected++;
+        SimpleLogger.error("Import skipped " + reason);
+    }
+
+    private static void trim(RecordReader.Record record) {
+        for (int i = 0; i < record.values.length; i++) {
+            if (record.values[i] != null) {
+                record.values[i] = record.values[i].trim();
+            }
+        }
+    }
+
+    private static String validate(RecordReader.Record record) {
+        String name = record.get(RecordReader.NAME);
+        String contact = record.get(RecordReader.CONTACT);
+        if (name == null || name.isEmpty()) {
+            return "no item name";
+        }
+        if (contact == null || contact.isEmpty()) {
+            return "no contact info";
+        }
+        if (name.length() > MAX_NAME || length(record.get(RecordReader.COLOR)) > MAX_COLOR
+                || length(record.get(RecordReader.LOCATION)) > MAX_LOCATION || contact.length() > MAX_CONTACT) {
+            return "a field is too long";
+        }
+        if (parseDate(record) == null) {
+            return "unreadable date '" + record.get(RecordReader.DATE) + "'";
+        }
+        return null;
+    }
+
+    private static int length(String value) {
+        return (value != null) ? value.length() : 0;
+    }
+
+    private static String orEmpty(String value) {
+        return (value != null) ? value : "";
+    }
+
+    /**
+     * The record's date as written by CsvExporter or in ISO form, now if it
+     * has none, or null if it cannot be read.
+     */
+    private static LocalDateTime parseDate(RecordReader.Record record) {
+        String date = record.get(RecordReader.DATE);
+        if (date == null || date.isEmpty()) {
+            return LocalDateTime.now();
+        }
+        try {
+            return LocalDateTime.parse(date, DATE_FORMATTER);
+        } catch (DateTimeParseException e) {
+            try {
+                return LocalDateTime.parse(date);
+            } catch (DateTimeParseException e2) {
+                return null;
+            }
+        }
+    }
+
+    private void storeLost(List<LostItem> chunk, List<LostItem> imported, Result result) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        if (lostItemDAO.addLostItems(chunk).length == chunk.size()) {
+            imported.addAll(chunk);
+            result.imported += chunk.size();
+        } else {
+            result.failed += chunk.size();
+        }
+        chunk.clear();
+    }
+
+    private void storeFound(List<FoundItem> chunk, List<FoundItem> imported, Result result) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        if (foundItemDAO.addFoundItems(chunk).length == chunk.size()) {
+            imported.addAll(chunk);
+            result.imported += chunk.size();
+        } else {
+            result.failed += chunk.size();
+        }
+        chunk.clear();
+    }
+
+    /**
+     * Stores the matches not yet known, a chunk per transaction, and notifies
+     * the new ones. One side's items are the imported ones (passed in), the
+     * other side's are loaded per chunk.
+     */
+    private void saveMatches(List<Match> matches, Result result,
+                             Map<Integer, LostItem> importedLost, Map<Integer, FoundItem> importedFound) {
+        List<Match> toSave = matchingEngine.filterKnownPairs(matches);
+
+        for (int from = 0; from < toSave.size(); from += batchSize) {
+            List<Match> chunk = toSave.subList(from, Math.min(from + batchSize, toSave.size()));
+            if (matchDAO.addMatches(chunk).length != chunk.size()) {
+                continue;
+            }
+            matchingEngine.recordPairs(chunk);
+
+            List<Match> added = new ArrayList<>();
+            for (Match match : chunk) {
+                if (match.getMatchId() > 0) {
+                    added.add(match);
+                }
+            }
+            result.matches += added.size();
+            if (notifier == null || added.isEmpty()) {
+                continue;
+            }
+
+            Map<Integer, LostItem> lostItems = (importedLost != null) ? importedLost
+                    : lostItemDAO.getLostItemsByIds(added.stream().map(Match::getLostItemId).collect(Collectors.toSet()));
+            Map<Integer, FoundItem> foundItems = (importedFound != null) ? importedFound
+                    : foundItemDAO.getFoundItemsByIds(added.stream().map(Match::getFoundItemId).collect(Collectors.toSet()));
+            for (Match match : added) {
+                LostItem lostItem = lostItems.get(match.getLostItemId());
+                FoundItem foundItem = foundItems.get(match.getFoundItemId());
+                if (lostItem != null && foundItem != null) {
+                    notifier.notifyMatch(match, lostItem, foundItem);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,392 @@
+package com.lostfound.importer;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Streams item records out of a CSV or JSON Lines file, one at a time, so an
+ * import never holds the whole file in memory.
+ *
+ * CSV files need a header row; quoted fields may contain commas, doubled
+ * quotes and line breaks (the format CsvExporter writes). JSONL files hold
+ * one flat object per line with string, number or null values. Column and
+ * key names are matched ignoring case, spaces and underscores, so both
+ * "Item Name" and "item_name" work; unknown ones (such as an exported ID)
+ * are ignored.
+ */
+abstract class RecordReader implements Closeable {
+
+    static final int NAME = 0;
+    static final int COLOR = 1;
+    static final int LOCATION = 2;
+    static final int DESCRIPTION = 3;
+    static final int CONTACT = 4;
+    static final int DATE = 5;
+    static final int FIELD_COUNT = 6;
+
+    private static final Map<String, Integer> FIELDS = new HashMap<>();
+
+    static {
+        FIELDS.put("itemname", NAME);
+        FIELDS.put("name", NAME);
+        FIELDS.put("color", COLOR);
+        FIELDS.put("colour", COLOR);
+        FIELDS.put("location", LOCATION);
+        FIELDS.put("description", DESCRIPTION);
+        FIELDS.put("contactinfo", CONTACT);
+        FIELDS.put("finderinfo", CONTACT);
+        FIELDS.put("contact", CONTACT);
+        FIELDS.put("reporteddate", DATE);
+        FIELDS.put("founddate", DATE);
+        FIELDS.put("date", DATE);
+    }
+
+    /**
+     * One record: the field values (null where absent) and the line it started on.
+     */
+    static final class Record {
+        final String[] values;
+        final long line;
+
+        Record(String[] values, long line) {
+            this.values = values;
+            this.line = line;
+        }
+
+        String get(int field) {
+            return values[field];
+        }
+    }
+
+    /**
+     * A record that could not be parsed; reading can continue with the next one.
+     */
+    static final class MalformedRecordException extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        final long line;
+
+        MalformedRecordException(long line, String message) {
+            super("line " + line + ": " + message);
+            this.line = line;
+        }
+    }
+
+    protected final BufferedReader in;
+
+    RecordReader(BufferedReader in) {
+        this.in = in;
+    }
+
+    /**
+     * Opens the file as JSON Lines if its name ends in .jsonl, .ndjson or
+     * .json, otherwise as CSV.
+     */
+    static RecordReader open(Path file) throws IOException {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+        if (name.endsWith(".jsonl") || name.endsWith(".ndjson") || name.endsWith(".json")) {
+            return new JsonLines(in);
+        }
+        return new Csv(in);
+    }
+
+    /**
+     * Returns the next record, or null at the end of the file.
+     */
+    abstract Record next() throws IOException, MalformedRecordException;
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    static Integer fieldOf(String key) {
+        StringBuilder normalized = new StringBuilder(key.length());
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                normalized.append(Character.toLowerCase(c));
+            }
+        }
+        return FIELDS.get(normalized.toString());
+    }
+
+    static final class Csv extends RecordReader {
+        private long line = 1;
+        private Integer[] columns;  // field of each column, null if ignored
+        private final StringBuilder field = new StringBuilder();
+
+        Csv(BufferedReader in) {
+            super(in);
+        }
+
+        @Override
+        Record next() throws IOException, MalformedRecordException {
+            if (columns == null) {
+                List<String> header = readRow();
+                if (header == null) {
+                    return null;
+                }
+                // Byte order mark written by some spreadsheet exports
+                if (!header.isEmpty() && header.get(0).startsWith("\uFEFF")) {
+                    header.set(0, header.get(0).substring(1));
+                }
+                columns = new Integer[header.size()];
+                for (int i = 0; i < columns.length; i++) {
+                    columns[i] = fieldOf(header.get(i));
+                }
+            }
+
+            while (true) {
+                long start = line;
+                List<String> row = readRow();
+                if (row == null) {
+                    return null;
+                }
+                if (row.size() == 1 && row.get(0).isEmpty()) {
+                    continue;  // blank line
+                }
+
+                String[] values = new String[FIELD_COUNT];
+                for (int i = 0; i < row.size() && i < columns.length; i++) {
+                    if (columns[i] != null) {
+                        values[columns[i]] = row.get(i);
+                    }
+                }
+                if (row.size() > columns.length) {
+                    throw new MalformedRecordException(start, row.size() + " columns, header has " + columns.length);
+                }
+                return new Record(values, start);
+            }
+        }
+
+        /**
+         * Reads one row of fields, or returns null at the end of the file.
+         */
+        private List<String> readRow() throws IOException, MalformedRecordException {
+            int c = in.read();
+            if (c == -1) {
+                return null;
+            }
+
+            long start = line;
+            List<String> row = new ArrayList<>();
+            field.setLength(0);
+            boolean quoted = false;
+            boolean wasQuoted = false;
+            while (true) {
+                if (c == -1) {
+                    if (quoted) {
+                        throw new MalformedRecordException(start, "unterminated quoted field");
+                    }
+                    row.add(field.toString());
+                    return row;
+                }
+                if (quoted) {
+                    if (c == '"') {
+                        in.mark(1);
+                        int next = in.read();
+                        if (next == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            if (next != -1) {
+                                in.reset();
+                            }
+                        }
+                    } else {
+                        if (c == '\n') {
+                            line++;
+                        }
+                        field.append((char) c);
+                    }
+                } else if (c == '"' && field.length() == 0 && !wasQuoted) {
+                    quoted = true;
+                    wasQuoted = true;
+                } else if (c == ',') {
+                    row.add(field.toString());
+                    field.setLength(0);
+                    wasQuoted = false;
+                } else if (c == '\n' || c == '\r') {
+                    if (c == '\r') {
+                        in.mark(1);
+                        if (in.read() != '\n') {
+                            in.reset();
+                        }
+                    }
+                    line++;
+                    row.add(field.toString());
+                    return row;
+                } else {
+                    field.append((char) c);
+                }
+                c = in.read();
+            }
+        }
+    }
+
+    static final class JsonLines extends RecordReader {
+        private long line;
+
+        JsonLines(BufferedReader in) {
+            super(in);
+        }
+
+        @Override
+        Record next() throws IOException, MalformedRecordException {
+            String text;
+            do {
+                text = in.readLine();
+                if (text == null) {
+                    return null;
+                }
+                line++;
+            } while (text.trim().isEmpty());
+
+            return new Record(new ObjectParser(text, line).parse(), line);
+        }
+    }
+
+    /**
+     * Parser for one flat JSON object.
+     */
+    private static final class ObjectParser {
+        private final String text;
+        private final long line;
+        private int pos;
+
+        ObjectParser(String text, long line) {
+            this.text = text;
+            this.line = line;
+        }
+
+        String[] parse() throws MalformedRecordException {
+            String[] values = new String[FIELD_COUNT];
+            skipSpace();
+            expect('{');
+            skipSpace();
+            if (peek() == '}') {
+                pos++;
+            } else {
+                while (true) {
+                    skipSpace();
+                    String key = string();
+                    skipSpace();
+                    expect(':');
+                    skipSpace();
+                    String value = value();
+                    Integer field = fieldOf(key);
+                    if (field != null) {
+                        values[field] = value;
+                    }
+                    skipSpace();
+                    char c = next();
+                    if (c == '}') {
+                        break;
+                    }
+                    if (c != ',') {
+                        throw error("expected ',' or '}' at column " + pos);
+                    }
+                }
+            }
+            skipSpace();
+            if (pos < text.length()) {
+                throw error("unexpected text after the object at column " + (pos + 1));
+            }
+            return values;
+        }
+
+        private String value() throws MalformedRecordException {
+            char c = peek();
+            if (c == '"') {
+                return string();
+            }
+            if (c == '{' || c == '[') {
+                throw error("nested values are not supported (column " + (pos + 1) + ")");
+            }
+            int start = pos;
+            while (pos < text.length() && ",}] \t".indexOf(text.charAt(pos)) < 0) {
+                pos++;
+            }
+            String literal = text.substring(start, pos);
+            if (literal.isEmpty()) {
+                throw error("missing value at column " + (start + 1));
+            }
+            return literal.equals("null") ? null : literal;
+        }
+
+        private String string() throws MalformedRecordException {
+            expect('"');
+            StringBuilder s = new StringBuilder();
+            while (true) {
+                char c = next();
+                if (c == '"') {
+                    return s.toString();
+                }
+                if (c != '\\') {
+                    s.append(c);
+                    continue;
+                }
+                char escaped = next();
+                switch (escaped) {
+                    case 'n': s.append('\n'); break;
+                    case 't': s.append('\t'); break;
+                    case 'r': s.append('\r'); break;
+                    case 'b': s.append('\b'); break;
+                    case 'f': s.append('\f'); break;
+                    case 'u':
+                        if (pos + 4 > text.length()) {
+                            throw error("truncated \\u escape");
+                        }
+                        try {
+                            s.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+                        } catch (NumberFormatException e) {
+                            throw error("invalid \\u escape at column " + pos);
+                        }
+                        pos += 4;
+                        break;
+                    default: s.append(escaped);
+                }
+            }
+        }
+
+        private void skipSpace() {
+            while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        private char peek() throws MalformedRecordException {
+            if (pos >= text.length()) {
+                throw error("unexpected end of line");
+            }
+            return text.charAt(pos);
+        }
+
+        private char next() throws MalformedRecordException {
+            char c = peek();
+            pos++;
+            return c;
+        }
+
+        private void expect(char expected) throws MalformedRecordException {
+            if (next() != expected) {
+                throw error("expected '" + expected + "' at column " + pos);
+            }
+        }
+
+        private MalformedRecordException error(String message) {
+            return new MalformedRecordException(line, message);
+        }
+    }
+}
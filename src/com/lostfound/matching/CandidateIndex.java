@@ -0,0 +1,429 @@
+package com.lostfound.matching;
+
+import java.util.Arrays;
+
+/**
+ * In-memory blocking index over one side of the corpus (lost or found items).
+ *
+ * Items are kept as rows of an ItemColumns, not as entities. Rows are
+ * bucketed by name, color, location and description keyword code, and their
+ * names are also indexed by trigram so names that are only similar (see
+ * NameSimilarity) can be found too. Given the scoring weights and the match
+ * threshold, the index only hands out rows that could still reach the
+ * threshold, so the engine does not have to score every row in the table.
+ *
+ * Removing or re-adding an item tombstones its old row; the buckets keep
+ * listing it and lookups skip it. Once most rows are tombstones the columns
+ * are compacted and the buckets rebuilt.
+ */
+class CandidateIndex {
+
+    /**
+     * Rows handed out by a lookup, with the columns they are rows of. They
+     * stay readable however the index changes afterwards.
+     */
+    static final class Rows {
+        final ItemColumns columns;
+        final int[] rows;
+
+        Rows(ItemColumns columns, int[] rows) {
+            this.columns = columns;
+            this.rows = rows;
+        }
+
+        int size() {
+            return rows.length;
+        }
+    }
+
+    private static final int MIN_ROWS_TO_COMPACT = 1024;
+
+    private final TermStatistics termStats;
+
+    private ItemColumns columns = new ItemColumns(16, 64);
+    private final RowMap rowOfId = new RowMap();
+    private final Postings byName = new Postings();
+    private final Postings byColor = new Postings();
+    private final Postings byLocation = new Postings();
+    private final Postings byKeyword = new Postings();
+    private final TrigramIndex byTrigram = new TrigramIndex();
+
+    // Lookup scratch: a row is collected when marks[row] == epoch
+    private int[] marks = new int[16];
+    private int epoch;
+    private int[] collected = new int[64];
+    private int collectedCount;
+    private int[] nameRows = new int[64];
+    private int nameRowCount;
+
+    CandidateIndex(TermStatistics termStats) {
+        this.termStats = termStats;
+    }
+
+    /**
+     * Adds (or re-adds) a stored item; IDs that are not positive are ignored.
+     * Re-adding an item with unchanged features keeps its row. Returns true
+     * if the item was indexed with other features before.
+     */
+    synchronized boolean add(int id, ItemFeatures features) {
+        if (id <= 0) {
+            return false;
+        }
+        int existing = rowOfId.get(id);
+        if (existing >= 0 && columns.holds(existing, features)) {
+            return false;
+        }
+        remove(id);
+
+        if (!columns.hasRoom(features)) {
+            columns = columns.grown(features);
+        }
+        int row = columns.append(id, features);
+        rowOfId.put(id, row);
+        post(row);
+        return existing >= 0;
+    }
+
+    synchronized void remove(int id) {
+        int row = rowOfId.remove(id);
+        if (row < 0) {
+            return;
+        }
+        columns.delete(row);
+
+        int rows = columns.rows();
+        if (rows >= MIN_ROWS_TO_COMPACT && columns.deletedRows() * 2 > rows) {
+            compact();
+        }
+    }
+
+    /**
+     * Replaces the contents with the given columns (read from a snapshot)
+     * and rebuilds the buckets for them.
+     */
+    synchronized void load(ItemColumns loaded) {
+        columns = loaded;
+        reindex();
+    }
+
+    synchronized void clear() {
+        columns = new ItemColumns(16, 64);
+        rowOfId.clear();
+        clearPostings();
+    }
+
+    /**
+     * Number of indexed items.
+     */
+    synchronized int size() {
+        return rowOfId.size();
+    }
+
+    /**
+     * Approximate heap size of the columns, for the statistics screen.
+     */
+    synchronized long columnBytes() {
+        return columns.memoryBytes();
+    }
+
+    /**
+     * All indexed items.
+     */
+    synchronized Rows all() {
+        int[] rows = new int[rowOfId.size()];
+        int count = 0;
+        for (int r = 0, n = columns.rows(); r < n; r++) {
+            if (columns.id(r) != ItemColumns.DELETED) {
+                rows[count++] = r;
+            }
+        }
+        return new Rows(columns, rows);
+    }
+
+    /**
+     * Returns the items that could reach the threshold against an item with
+     * the given features, names counting as shared when they are at least
+     * minNameSimilarity alike.
+     */
+    synchronized Rows candidates(ItemFeatures query, int threshold, double minNameSimilarity) {
+        int[] tokens = query.tokenIds();
+        return candidates(query.nameCode(), query.colorCode(), query.locationCode(), tokens, 0, tokens.length,
+                threshold, minNameSimilarity);
+    }
+
+    /**
+     * Like {@link #candidates(ItemFeatures, int, double)} for an item given
+     * as a row of other columns (another index's, for instance).
+     */
+    synchronized Rows candidates(ItemColumns query, int queryRow, int threshold, double minNameSimilarity) {
+        return candidates(query.name(queryRow), query.color(queryRow), query.location(queryRow), query.tokens(),
+                query.tokensFrom(queryRow), query.tokensTo(queryRow), threshold, minNameSimilarity);
+    }
+
+    /**
+     * A component is required when the other components together cannot reach
+     * the threshold; in that case only the smallest required bucket is read.
+     * Otherwise every row sharing at least one component is returned.
+     */
+    private Rows candidates(int name, int color, int location, int[] tokens, int tokensFrom, int tokensTo,
+                            int threshold, double minNameSimilarity) {
+        if (threshold <= 0) {
+            return all();
+        }
+
+        // Pick the smallest required bucket, sizing each by its row count
+        // (the keyword union by the sum of its lists)
+        int best = -1;
+        int bestSize = Integer.MAX_VALUE;
+        if (isRequired(MatchingEngine.NAME_WEIGHT, threshold)) {
+            collectSimilarNames(name, minNameSimilarity);
+            best = 0;
+            bestSize = nameRowCount;
+        }
+        if (isRequired(MatchingEngine.COLOR_WEIGHT, threshold) && byColor.size(color) < bestSize) {
+            best = 1;
+            bestSize = byColor.size(color);
+        }
+        if (isRequired(MatchingEngine.LOCATION_WEIGHT, threshold) && byLocation.size(location) < bestSize) {
+            best = 2;
+            bestSize = byLocation.size(location);
+        }
+        if (isRequired(MatchingEngine.DESCRIPTION_WEIGHT, threshold)
+                && keywordRowCount(tokens, tokensFrom, tokensTo) < bestSize) {
+            best = 3;
+        }
+
+        startCollecting();
+        if (best < 0) {
+            collectSimilarNames(name, minNameSimilarity);
+        }
+        if (best < 0 || best == 0) {
+            collect(nameRows, nameRowCount);
+        }
+        if (best < 0 || best == 1) {
+            collect(byColor.rows(color), byColor.size(color));
+        }
+        if (best < 0 || best == 2) {
+            collect(byLocation.rows(location), byLocation.size(location));
+        }
+        if (best < 0 || best == 3) {
+            for (int i = tokensFrom; i < tokensTo; i++) {
+                collectKeyword(tokens[i]);
+            }
+        }
+        return new Rows(columns, Arrays.copyOf(collected, collectedCount));
+    }
+
+    private boolean isRequired(int weight, int threshold) {
+        return MatchingEngine.MAX_SCORE - weight < threshold;
+    }
+
+    /**
+     * Rows with the same normalized name plus those the trigram index finds
+     * similar, into nameRows; names without letters or digits only match
+     * exactly. May hold a row more than once.
+     */
+    private void collectSimilarNames(int name, double minNameSimilarity) {
+        nameRowCount = 0;
+        byTrigram.similarTo(name, minNameSimilarity, this::addNameRow);
+        int[] exact = byName.rows(name);
+        for (int i = 0, n = byName.size(name); i < n; i++) {
+            addNameRow(exact[i]);
+        }
+    }
+
+    private void addNameRow(int row) {
+        if (nameRowCount == nameRows.length) {
+            nameRows = Arrays.copyOf(nameRows, nameRowCount * 2);
+        }
+        nameRows[nameRowCount++] = row;
+    }
+
+    /**
+     * Rows listed under the query's keywords. Common terms carry no weight,
+     * so their (long) lists are skipped.
+     */
+    private int keywordRowCount(int[] tokens, int from, int to) {
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            if (!termStats.isCommon(tokens[i])) {
+                count += byKeyword.size(tokens[i]);
+            }
+        }
+        return count;
+    }
+
+    private void collectKeyword(int token) {
+        if (!termStats.isCommon(token)) {
+            collect(byKeyword.rows(token), byKeyword.size(token));
+        }
+    }
+
+    private void startCollecting() {
+        if (marks.length < columns.rows()) {
+            marks = new int[Math.max(columns.rows(), marks.length * 2)];
+            epoch = 0;
+        }
+        if (++epoch == 0) {
+            Arrays.fill(marks, 0);
+            epoch = 1;
+        }
+        collectedCount = 0;
+    }
+
+    /**
+     * Adds the live rows of the list not collected yet.
+     */
+    private void collect(int[] rows, int count) {
+        int[] marked = marks;
+        int current = epoch;
+        for (int i = 0; i < count; i++) {
+            int row = rows[i];
+            if (marked[row] != current && columns.id(row) != ItemColumns.DELETED) {
+                marked[row] = current;
+                if (collectedCount == collected.length) {
+                    collected = Arrays.copyOf(collected, collectedCount * 2);
+                }
+                collected[collectedCount++] = row;
+            }
+        }
+    }
+
+    private void post(int row) {
+        byName.add(columns.name(row), row);
+        byTrigram.add(row, columns.name(row));
+        byColor.add(columns.color(row), row);
+        byLocation.add(columns.location(row), row);
+        int[] tokens = columns.tokens();
+        for (int i = columns.tokensFrom(row), end = columns.tokensTo(row); i < end; i++) {
+            byKeyword.add(tokens[i], row);
+        }
+    }
+
+    /**
+     * Drops the tombstones: copies the live rows to new columns and rebuilds
+     * the buckets and the ID map for their new numbers.
+     */
+    private void compact() {
+        columns = columns.compacted();
+        reindex();
+    }
+
+    private void reindex() {
+        rowOfId.clear();
+        clearPostings();
+        for (int row = 0, n = columns.rows(); row < n; row++) {
+            if (columns.id(row) != ItemColumns.DELETED) {
+                rowOfId.put(columns.id(row), row);
+                post(row);
+            }
+        }
+    }
+
+    private void clearPostings() {
+        byName.clear();
+        byTrigram.clear();
+        byColor.clear();
+        byLocation.clear();
+        byKeyword.clear();
+    }
+
+    /**
+     * Row of each indexed item ID: open addressing over primitive arrays,
+     * like KnownPairSet. Item IDs are positive, so 0 marks an empty slot.
+     */
+    private static final class RowMap {
+
+        private static final float MAX_LOAD = 0.6f;
+
+        private int[] keys = new int[64];
+        private int[] values = new int[64];
+        private int size;
+
+        int size() {
+            return size;
+        }
+
+        void put(int id, int row) {
+            int slot = slotOf(keys, id);
+            boolean added = keys[slot] != id;
+            keys[slot] = id;
+            values[slot] = row;
+            if (added && ++size > keys.length * MAX_LOAD) {
+                grow();
+            }
+        }
+
+        /**
+         * The ID's row, or -1 if it is not there.
+         */
+        int get(int id) {
+            int slot = slotOf(keys, id);
+            return (keys[slot] == id) ? values[slot] : -1;
+        }
+
+        /**
+         * Removes the ID and returns its row, or -1 if it was not there.
+         */
+        int remove(int id) {
+            int slot = slotOf(keys, id);
+            if (keys[slot] != id) {
+                return -1;
+            }
+            int row = values[slot];
+            keys[slot] = 0;
+            size--;
+
+            // Move later keys of the probe run into the gap if their probe passes it
+            int mask = keys.length - 1;
+            int gap = slot;
+            for (int i = (slot + 1) & mask; keys[i] != 0; i = (i + 1) & mask) {
+                int home = homeOf(keys[i], mask);
+                if (((i - home) & mask) >= ((i - gap) & mask)) {
+                    keys[gap] = keys[i];
+                    values[gap] = values[i];
+                    keys[i] = 0;
+                    gap = i;
+                }
+            }
+            return row;
+        }
+
+        void clear() {
+            keys = new int[64];
+            values = new int[64];
+            size = 0;
+        }
+
+        private void grow() {
+            int[] oldKeys = keys;
+            int[] oldValues = values;
+            keys = new int[oldKeys.length * 2];
+            values = new int[oldKeys.length * 2];
+
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != 0) {
+                    int slot = slotOf(keys, oldKeys[i]);
+                    keys[slot] = oldKeys[i];
+                    values[slot] = oldValues[i];
+                }
+            }
+        }
+
+        private static int homeOf(int id, int mask) {
+            return (int) ((id * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+        }
+
+        /**
+         * Linear probe for the ID's slot, or the empty slot where it would go.
+         */
+        private static int slotOf(int[] table, int id) {
+            int mask = table.length - 1;
+            int slot = homeOf(id, mask);
+            while (table[slot] != 0 && table[slot] != id) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+    }
+}
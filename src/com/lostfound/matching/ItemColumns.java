@@ -0,0 +1,257 @@
+package com.lostfound.matching;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Matching features of many items as parallel primitive arrays, one row per
+ * item: the item ID, the dictionary codes of its normalized name, color and
+ * location (NameDictionary, ValueDictionary), and its description's term
+ * vector. The term vectors of all rows are packed into one token ID array
+ * and one weight array, row r owning the slice from tokenStart[r] to
+ * tokenStart[r + 1]. Scoring a row reads a few ints and one slice instead of
+ * an entity, its strings and its feature object.
+ *
+ * Rows are only ever appended and never change, except that deleting an
+ * item tombstones its row (its ID becomes DELETED). An instance does not
+ * grow in place: when it is full, grown() copies it to a larger one with
+ * the same rows, and compacted() copies only the live rows. A reader that
+ * took rows from an instance can keep reading them while writers move on
+ * to the copy.
+ *
+ * Appends and deletes are not thread-safe; CandidateIndex serializes them.
+ */
+final class ItemColumns {
+
+    /** ID of a deleted row; stored items have positive IDs. */
+    static final int DELETED = 0;
+
+    private final int[] ids;
+    private final int[] names;
+    private final int[] colors;
+    private final int[] locations;
+    private final int[] tokenStart;  // one more entry than rows
+    private final int[] tokens;
+    private final float[] frequencies;
+    private final AtomicLongArray norms;  // TermStatistics stamp << 32 | float bits of the squared norm
+
+    private int rows;
+    private int deleted;
+
+    ItemColumns(int rowCapacity, int tokenCapacity) {
+        ids = new int[rowCapacity];
+        names = new int[rowCapacity];
+        colors = new int[rowCapacity];
+        locations = new int[rowCapacity];
+        tokenStart = new int[rowCapacity + 1];
+        tokens = new int[tokenCapacity];
+        frequencies = new float[tokenCapacity];
+        norms = new AtomicLongArray(rowCapacity);
+    }
+
+    /**
+     * Columns over the given arrays with every row in use, as read back from
+     * a MatchingSnapshot. The arrays are not copied.
+     */
+    ItemColumns(int[] ids, int[] names, int[] colors, int[] locations,
+                int[] tokenStart, int[] tokens, float[] frequencies) {
+        this.ids = ids;
+        this.names = names;
+        this.colors = colors;
+        this.locations = locations;
+        this.tokenStart = tokenStart;
+        this.tokens = tokens;
+        this.frequencies = frequencies;
+        this.norms = new AtomicLongArray(ids.length);
+        this.rows = ids.length;
+        for (int id : ids) {
+            if (id == DELETED) {
+                deleted++;
+            }
+        }
+    }
+
+    /**
+     * A single row holding the features, with ID DELETED.
+     */
+    static ItemColumns of(ItemFeatures features) {
+        ItemColumns row = new ItemColumns(1, features.tokenIds().length);
+        row.append(DELETED, features);
+        return row;
+    }
+
+    boolean hasRoom(ItemFeatures features) {
+        return rows < ids.length && tokenStart[rows] + features.tokenIds().length <= tokens.length;
+    }
+
+    /**
+     * Adds a row for the item and returns its number; the caller checks
+     * hasRoom first.
+     */
+    int append(int id, ItemFeatures features) {
+        int row = rows;
+        int start = tokenStart[row];
+        int[] tokenIds = features.tokenIds();
+        ids[row] = id;
+        names[row] = features.nameCode();
+        colors[row] = features.colorCode();
+        locations[row] = features.locationCode();
+        System.arraycopy(tokenIds, 0, tokens, start, tokenIds.length);
+        System.arraycopy(features.termFrequencies(), 0, frequencies, start, tokenIds.length);
+        tokenStart[row + 1] = start + tokenIds.length;
+        rows = row + 1;
+        return row;
+    }
+
+    void delete(int row) {
+        if (ids[row] != DELETED) {
+            ids[row] = DELETED;
+            deleted++;
+        }
+    }
+
+    /**
+     * Whether the row holds exactly these features.
+     */
+    boolean holds(int row, ItemFeatures features) {
+        int[] tokenIds = features.tokenIds();
+        float[] weights = features.termFrequencies();
+        int start = tokenStart[row];
+        if (names[row] != features.nameCode() || colors[row] != features.colorCode()
+                || locations[row] != features.locationCode() || tokenStart[row + 1] - start != tokenIds.length) {
+            return false;
+        }
+        for (int i = 0; i < tokenIds.length; i++) {
+            if (tokens[start + i] != tokenIds[i] || frequencies[start + i] != weights[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * A copy with room for at least one more row of the given features
+     * (capacity doubled), row numbers unchanged.
+     */
+    ItemColumns grown(ItemFeatures next) {
+        int tokenCount = tokenStart[rows];
+        ItemColumns copy = new ItemColumns(Math.max(16, ids.length * 2),
+                Math.max(Math.max(64, tokens.length * 2), tokenCount + next.tokenIds().length));
+        System.arraycopy(ids, 0, copy.ids, 0, rows);
+        System.arraycopy(names, 0, copy.names, 0, rows);
+        System.arraycopy(colors, 0, copy.colors, 0, rows);
+        System.arraycopy(locations, 0, copy.locations, 0, rows);
+        System.arraycopy(tokenStart, 0, copy.tokenStart, 0, rows + 1);
+        System.arraycopy(tokens, 0, copy.tokens, 0, tokenCount);
+        System.arraycopy(frequencies, 0, copy.frequencies, 0, tokenCount);
+        copy.rows = rows;
+        copy.deleted = deleted;
+        return copy;
+    }
+
+    /**
+     * A copy of the live rows only, renumbered in their current order, with
+     * some room to spare.
+     */
+    ItemColumns compacted() {
+        int live = rows - deleted;
+        int liveTokens = 0;
+        for (int r = 0; r < rows; r++) {
+            if (ids[r] != DELETED) {
+                liveTokens += tokenStart[r + 1] - tokenStart[r];
+            }
+        }
+
+        ItemColumns copy = new ItemColumns(Math.max(16, live + live / 2), Math.max(64, liveTokens + liveTokens / 2));
+        int to = 0;
+        for (int r = 0; r < rows; r++) {
+            if (ids[r] == DELETED) {
+                continue;
+            }
+            int start = tokenStart[r];
+            int length = tokenStart[r + 1] - start;
+            int copyStart = copy.tokenStart[to];
+            copy.ids[to] = ids[r];
+            copy.names[to] = names[r];
+            copy.colors[to] = colors[r];
+            copy.locations[to] = locations[r];
+            System.arraycopy(tokens, start, copy.tokens, copyStart, length);
+            System.arraycopy(frequencies, start, copy.frequencies, copyStart, length);
+            copy.tokenStart[to + 1] = copyStart + length;
+            to++;
+        }
+        copy.rows = to;
+        return copy;
+    }
+
+    /** Rows appended so far, deleted ones included. */
+    int rows() { return rows; }
+    int deletedRows() { return deleted; }
+
+    int id(int row) { return ids[row]; }
+    int name(int row) { return names[row]; }
+    int color(int row) { return colors[row]; }
+    int location(int row) { return locations[row]; }
+
+    int[] tokens() { return tokens; }
+    float[] frequencies() { return frequencies; }
+    int tokensFrom(int row) { return tokenStart[row]; }
+    int tokensTo(int row) { return tokenStart[row + 1]; }
+
+    /**
+     * Cosine similarity of the two rows' TF-IDF description vectors, between
+     * 0 and 1 (merge walk over the two sorted slices). The norms are only
+     * computed once a shared weighted term is found.
+     */
+    double descriptionSimilarity(int row, ItemColumns other, int otherRow, TermStatistics stats) {
+        int[] a = tokens;
+        int[] b = other.tokens;
+        float[] fa = frequencies;
+        float[] fb = other.frequencies;
+        int i = tokenStart[row];
+        int iEnd = tokenStart[row + 1];
+        int j = other.tokenStart[otherRow];
+        int jEnd = other.tokenStart[otherRow + 1];
+        double dot = 0;
+        while (i < iEnd && j < jEnd) {
+            if (a[i] == b[j]) {
+                double idf = stats.idf(a[i]);
+                dot += fa[i] * fb[j] * idf * idf;
+                i++;
+                j++;
+            } else if (a[i] < b[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        if (dot == 0) {
+            return 0;
+        }
+        return Math.min(1.0, dot / Math.sqrt(squaredNorm(row, stats) * other.squaredNorm(otherRow, stats)));
+    }
+
+    private double squaredNorm(int row, TermStatistics stats) {
+        int stamp = stats.stamp();
+        long cached = norms.get(row);
+        if ((int) (cached >>> 32) == stamp) {
+            return Float.intBitsToFloat((int) cached);
+        }
+
+        double sum = 0;
+        for (int i = tokenStart[row], end = tokenStart[row + 1]; i < end; i++) {
+            double weight = frequencies[i] * stats.idf(tokens[i]);
+            sum += weight * weight;
+        }
+        // Returned as cached, so a score does not depend on which pair computed the norm first
+        float norm = (float) sum;
+        norms.set(row, ((long) stamp << 32) | (Float.floatToRawIntBits(norm) & 0xFFFFFFFFL));
+        return norm;
+    }
+
+    /**
+     * Approximate heap size of the arrays, for the statistics screen.
+     */
+    long memoryBytes() {
+        return 4L * (ids.length * 4L + tokenStart.length + tokens.length + frequencies.length) + 8L * ids.length;
+    }
+}
@@ -0,0 +1,142 @@
+package com.lostfound.matching;
+
+import java.util.Arrays;
+
+/**
+ * Matching features of an item, computed once: normalized name, color and
+ * location with their dictionary codes (the name's compact form and
+ * trigrams, for fuzzy name matching, come from NameDictionary), and the
+ * description as a sparse term vector (sorted distinct token IDs with a
+ * parallel array of term frequency weights).
+ *
+ * Scoring reads features through ItemColumns; asRow() is this item as a
+ * one-row instance of it, built on first use.
+ */
+public final class ItemFeatures {
+
+    private static final int[] NO_TOKENS = new int[0];
+    private static final float[] NO_FREQUENCIES = new float[0];
+
+    private final String name;
+    private final String color;
+    private final String location;
+    private final int nameCode;
+    private final int colorCode;
+    private final int locationCode;
+    private final int[] tokenIds;
+    private final float[] termFrequencies;  // 1 + ln(occurrences), parallel to tokenIds
+    private volatile ItemColumns row;
+
+    private ItemFeatures(String name, String color, String location, int[] tokens) {
+        this.name = name;
+        this.color = color;
+        this.location = location;
+        this.nameCode = NameDictionary.codeOf(name);
+        this.colorCode = ValueDictionary.COLORS.codeOf(color);
+        this.locationCode = ValueDictionary.LOCATIONS.codeOf(location);
+
+        // tokens is sorted with repeats; collapse runs into (id, weight) pairs
+        int distinct = 0;
+        for (int i = 0; i < tokens.length; i++) {
+            if (i == 0 || tokens[i] != tokens[i - 1]) {
+                distinct++;
+            }
+        }
+        int[] ids = distinct == 0 ? NO_TOKENS : new int[distinct];
+        float[] frequencies = distinct == 0 ? NO_FREQUENCIES : new float[distinct];
+        int k = -1;
+        int run = 0;
+        for (int i = 0; i < tokens.length; i++) {
+            if (i == 0 || tokens[i] != tokens[i - 1]) {
+                if (k >= 0) {
+                    frequencies[k] = (float) (1.0 + Math.log(run));
+                }
+                ids[++k] = tokens[i];
+                run = 0;
+            }
+            run++;
+        }
+        if (k >= 0) {
+            frequencies[k] = (float) (1.0 + Math.log(run));
+        }
+        this.tokenIds = ids;
+        this.termFrequencies = frequencies;
+    }
+
+    public static ItemFeatures of(String name, String color, String location, String description) {
+        return new ItemFeatures(
+                MatchingEngine.normalize(name).intern(),
+                MatchingEngine.normalize(color).intern(),
+                MatchingEngine.normalize(location).intern(),
+                tokenize(description));
+    }
+
+    public String getName() { return name; }
+    public String getColor() { return color; }
+    public String getLocation() { return location; }
+
+    int nameCode() { return nameCode; }
+    int colorCode() { return colorCode; }
+    int locationCode() { return locationCode; }
+
+    int[] tokenIds() {
+        return tokenIds;
+    }
+
+    float[] termFrequencies() {
+        return termFrequencies;
+    }
+
+    /**
+     * This item as a one-row ItemColumns, so it can be scored like an
+     * indexed row.
+     */
+    ItemColumns asRow() {
+        ItemColumns r = row;
+        if (r == null) {
+            r = ItemColumns.of(this);
+            row = r;
+        }
+        return r;
+    }
+
+    /**
+     * Splits a description into lowercase keywords on runs of non-word
+     * characters (anything but ASCII letters, digits and '_', like the
+     * regex \W+) and returns their token IDs, sorted, one per occurrence.
+     */
+    static int[] tokenize(String description) {
+        if (description == null || description.isEmpty()) {
+            return NO_TOKENS;
+        }
+
+        int[] ids = new int[8];
+        int count = 0;
+        char[] word = new char[description.length()];
+        int length = 0;
+
+        for (int i = 0; i <= description.length(); i++) {
+            char c = (i < description.length()) ? description.charAt(i) : ' ';
+            if (isWordChar(c)) {
+                word[length++] = (c >= 'A' && c <= 'Z') ? (char) (c + ('a' - 'A')) : c;
+            } else if (length > 0) {
+                if (count == ids.length) {
+                    ids = Arrays.copyOf(ids, count * 2);
+                }
+                ids[count++] = TokenDictionary.idOf(new String(word, 0, length));
+                length = 0;
+            }
+        }
+
+        if (count == 0) {
+            return NO_TOKENS;
+        }
+
+        Arrays.sort(ids, 0, count);
+        return Arrays.copyOf(ids, count);
+    }
+
+    private static boolean isWordChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+    }
+}
@@ -0,0 +1,93 @@
+package com.lostfound.matching;
+
+import com.lostfound.model.Match;
+
+/**
+ * The (lost item, found item) pairs already stored in MATCHES, with the best
+ * score stored for each, so the engine can drop matches that would not change
+ * anything before they reach the database.
+ *
+ * Open-addressing hash table over primitive arrays: a pair costs 12 bytes plus
+ * slack instead of a boxed Long and a map entry. Item IDs are positive, so
+ * key 0 marks an empty slot.
+ */
+class KnownPairSet {
+
+    private static final float MAX_LOAD = 0.6f;
+
+    private long[] keys;
+    private int[] scores;
+    private int size;
+
+    KnownPairSet() {
+        allocate(1024);
+    }
+
+    /**
+     * Returns the stored score for the pair, or -1 if it is not known.
+     */
+    synchronized int scoreOf(int lostItemId, int foundItemId) {
+        long key = Match.pairKey(lostItemId, foundItemId);
+        int slot = slotOf(keys, key);
+        return keys[slot] == key ? scores[slot] : -1;
+    }
+
+    /**
+     * Records a stored pair, keeping the higher score if it is already known.
+     */
+    synchronized void record(int lostItemId, int foundItemId, int score) {
+        long key = Match.pairKey(lostItemId, foundItemId);
+        int slot = slotOf(keys, key);
+        if (keys[slot] == key) {
+            scores[slot] = Math.max(scores[slot], score);
+            return;
+        }
+
+        keys[slot] = key;
+        scores[slot] = score;
+        if (++size > keys.length * MAX_LOAD) {
+            grow();
+        }
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    synchronized void clear() {
+        allocate(1024);
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        scores = new int[capacity];
+        size = 0;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        int[] oldScores = scores;
+        keys = new long[oldKeys.length * 2];
+        scores = new int[oldKeys.length * 2];
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                int slot = slotOf(keys, oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                scores[slot] = oldScores[i];
+            }
+        }
+    }
+
+    /**
+     * Linear probe for the key's slot, or the empty slot where it would go.
+     */
+    private static int slotOf(long[] table, long key) {
+        int mask = table.length - 1;
+        int slot = (int) ((key * 0x9E3779B97F4A7C15L) >>> 40) & mask;
+        while (table[slot] != 0 && table[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+}
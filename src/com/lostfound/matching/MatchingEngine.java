@@ -1,135 +1,909 @@
 package com.lostfound.matching;
 
+import com.lostfound.dao.DaoFactory;
 import com.lostfound.dao.LostItemDAO;
 import com.lostfound.dao.FoundItemDAO;
+import com.lostfound.dao.ItemEvents;
+import com.lostfound.dao.MatchDAO;
 import com.lostfound.db.DbConnection;
+import com.lostfound.metrics.LatencyHistogram;
+import com.lostfound.metrics.Metrics;
 import com.lostfound.model.LostItem;
 import com.lostfound.model.FoundItem;
 import com.lostfound.model.Match;
 import com.lostfound.util.SimpleLogger;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToIntFunction;
 
 public class MatchingEngine {
-    private int threshold;
+    static final int NAME_WEIGHT = 50;
+    static final int COLOR_WEIGHT = 20;
+    static final int LOCATION_WEIGHT = 20;
+    static final int DESCRIPTION_WEIGHT = 10;
+    static final int MAX_SCORE = NAME_WEIGHT + COLOR_WEIGHT + LOCATION_WEIGHT + DESCRIPTION_WEIGHT;
+    static final double DEFAULT_MIN_NAME_SIMILARITY = 0.7;
+    private static final int CATCH_UP_CHUNK_SIZE = 1000;
+
+    private volatile int threshold;
+    private final double minNameSimilarity;
+    private final int topK;  // 0 keeps every match over the threshold
     private LostItemDAO lostItemDAO;
     private FoundItemDAO foundItemDAO;
+    private final MatchDAO matchDAO;
+
+    // Description term frequencies over both tables, kept current through ItemEvents
+    private final TermStatistics termStats;
+    private final ItemEvents.Listener itemListener = new ItemEvents.Listener() {
+        @Override
+        public void lostItemSaved(LostItem item) {
+            indexLostItem(item);
+        }
+
+        @Override
+        public void lostItemDeleted(int id) {
+            unindex(TermStatistics.LOST, id);
+        }
+
+        @Override
+        public void foundItemSaved(FoundItem item) {
+            indexFoundItem(item);
+        }
+
+        @Override
+        public void foundItemDeleted(int id) {
+            unindex(TermStatistics.FOUND, id);
+        }
+    };
+
+    // Candidate indexes, loaded from the database on first use and kept current through ItemEvents
+    private final CandidateIndex lostIndex;
+    private final CandidateIndex foundIndex;
+    private volatile boolean indexesLoaded = false;
+
+    // Item saves (their features) and deletes (null) that arrived before the
+    // indexes were loaded, applied by the load; the lock also guards setting
+    // indexesLoaded, so no change is queued after the load applied the queue
+    private final Object pendingLock = new Object();
+    private final Map<Integer, ItemFeatures> pendingLost = new HashMap<>();
+    private final Map<Integer, ItemFeatures> pendingFound = new HashMap<>();
+
+    // Snapshot of the indexes written on shutdown and read by the first load (null disables)
+    private final Path snapshotFile;
+    private boolean snapshotTried = false;
+    private volatile boolean snapshotDiscarded = false;
+    private int[] snapshotHighWaterMarks;  // {lost, found} from the file header; guarded by pendingLock
+    private boolean snapshotHighWaterMarksRead = false;
+
+    // Pairs already in MATCHES; only tracked when the engine has a MatchDAO
+    private final KnownPairSet knownPairs = new KnownPairSet();
+    private volatile boolean knownPairsLoaded = false;
+
+    // Parallel scoring; below the crossover size the calling thread scores alone
+    private final ParallelScorer parallelScorer;
+    private final int parallelMinCandidates;
+
+    // Pairs given to scoreAtLeast, and how many it abandoned after each stage
+    private final LongAdder pairsScored = new LongAdder();
+    private final LongAdder prunedAfterColor = new LongAdder();
+    private final LongAdder prunedAfterLocation = new LongAdder();
+    private final LongAdder prunedAfterName = new LongAdder();
+
+    private static final LatencyHistogram findForFoundTimer = Metrics.timer("match_find_for_found_item");
+    private static final LatencyHistogram findForLostTimer = Metrics.timer("match_find_for_lost_item");
+    private static final LatencyHistogram rescoreTimer = Metrics.timer("match_rescore_lost_item");
+    private static final LatencyHistogram batchTimer = Metrics.timer("match_find_for_batch");
+
+    /**
+     * Scores one candidate against a minimum score; returns null if it does
+     * not reach it.
+     */
+    private interface BoundedScorer {
+        Match score(int row, int minScore);
+    }
+
+    // Highest score first, then lowest lost/found ID, so results do not depend on scan order
+    private static final Comparator<Match> RESULT_ORDER = Comparator
+            .comparingInt(Match::getScore).reversed()
+            .thenComparingInt(Match::getLostItemId)
+            .thenComparingInt(Match::getFoundItemId);
 
     public MatchingEngine() {
         String thresholdStr = DbConnection.getProperty("match.threshold");
         this.threshold = (thresholdStr != null) ? Integer.parseInt(thresholdStr) : 70;
-        this.lostItemDAO = new LostItemDAO();
-        this.foundItemDAO = new FoundItemDAO();
-        SimpleLogger.log("MatchingEngine initialized with threshold: " + threshold);
+        this.minNameSimilarity = DbConnection.getDoubleProperty("match.fuzzy.min.similarity",
+                DEFAULT_MIN_NAME_SIMILARITY);
+        this.topK = Math.max(0, DbConnection.getIntProperty("match.top.k", 0));
+        this.termStats = new TermStatistics(DbConnection.getDoubleProperty("match.description.max.df.ratio",
+                TermStatistics.DEFAULT_MAX_DOCUMENT_RATIO));
+        this.lostIndex = new CandidateIndex(termStats);
+        this.foundIndex = new CandidateIndex(termStats);
+        ItemEvents.addListener(itemListener);
+        registerGauges();
+        this.lostItemDAO = DaoFactory.lostItemDAO();
+        this.foundItemDAO = DaoFactory.foundItemDAO();
+        this.matchDAO = DaoFactory.matchDAO();
+        String snapshotPath = DbConnection.getProperty("match.snapshot.file");
+        this.snapshotFile = (snapshotPath != null && !snapshotPath.isBlank()) ? Paths.get(snapshotPath.trim()) : null;
+
+        if (DbConnection.getBooleanProperty("match.parallel.enabled", false)) {
+            this.parallelScorer = new ParallelScorer(DbConnection.getIntProperty("match.parallel.threads",
+                    Runtime.getRuntime().availableProcessors()));
+            this.parallelMinCandidates = DbConnection.getIntProperty("match.parallel.min.candidates", 2048);
+            SimpleLogger.log("Parallel scoring enabled with " + parallelScorer.getParallelism()
+                    + " threads for " + parallelMinCandidates + "+ candidates");
+        } else {
+            this.parallelScorer = null;
+            this.parallelMinCandidates = Integer.MAX_VALUE;
+        }
+
+        SimpleLogger.log("MatchingEngine initialized with threshold: " + threshold
+                + ", fuzzy name similarity: " + minNameSimilarity
+                + (topK > 0 ? ", keeping the top " + topK + " matches" : ""));
+    }
+
+    /**
+     * Creates an engine with an explicit threshold and data source and
+     * sequential scoring, without reading config/app.properties.
+     */
+    public MatchingEngine(int threshold, LostItemDAO lostItemDAO, FoundItemDAO foundItemDAO) {
+        this(threshold, lostItemDAO, foundItemDAO, null);
+    }
+
+    /**
+     * Like {@link #MatchingEngine(int, LostItemDAO, FoundItemDAO)}, and also
+     * loads the stored pairs from matchDAO (if not null) for filterKnownPairs.
+     */
+    public MatchingEngine(int threshold, LostItemDAO lostItemDAO, FoundItemDAO foundItemDAO, MatchDAO matchDAO) {
+        this.threshold = threshold;
+        this.minNameSimilarity = DEFAULT_MIN_NAME_SIMILARITY;
+        this.topK = 0;
+        this.termStats = new TermStatistics(TermStatistics.DEFAULT_MAX_DOCUMENT_RATIO);
+        this.lostIndex = new CandidateIndex(termStats);
+        this.foundIndex = new CandidateIndex(termStats);
+        ItemEvents.addListener(itemListener);
+        registerGauges();
+        this.lostItemDAO = lostItemDAO;
+        this.foundItemDAO = foundItemDAO;
+        this.matchDAO = matchDAO;
+        this.snapshotFile = null;
+        this.parallelScorer = null;
+        this.parallelMinCandidates = Integer.MAX_VALUE;
     }
 
     public int calculateMatchScore(LostItem lostItem, FoundItem foundItem) {
-        int score = 0;
+        return calculateMatchScore(lostItem.getFeatures(), foundItem.getFeatures());
+    }
 
-        // Item name match: +50 points
-        String lostName = normalize(lostItem.getItemName());
-        String foundName = normalize(foundItem.getItemName());
-        if (lostName.equals(foundName)) {
-            score += 50;
-        }
+    /**
+     * Scores two precomputed feature sets; allocation-free.
+     */
+    public int calculateMatchScore(ItemFeatures lost, ItemFeatures found) {
+        return scoreAtLeast(lost.asRow(), 0, found.asRow(), 0, 0);
+    }
+
+    /**
+     * Scores the pair if it can reach minScore, otherwise returns -1.
+     *
+     * Components are evaluated cheapest first: color, location, name (exact
+     * comparison, then the edit distance) and description (TF-IDF cosine).
+     * After each one the pair is abandoned if even full points for the rest
+     * would leave it below minScore. Allocation-free.
+     */
+    int scoreAtLeast(ItemColumns lost, int lostRow, ItemColumns found, int foundRow, int minScore) {
+        pairsScored.increment();
+        int score = 0;
 
         // Color match: +20 points
-        String lostColor = normalize(lostItem.getColor());
-        String foundColor = normalize(foundItem.getColor());
-        if (lostColor.equals(foundColor)) {
-            score += 20;
+        if (lost.color(lostRow) == found.color(foundRow)) {
+            score += COLOR_WEIGHT;
+        }
+        if (score + LOCATION_WEIGHT + NAME_WEIGHT + DESCRIPTION_WEIGHT < minScore) {
+            prunedAfterColor.increment();
+            return -1;
         }
 
         // Location match: +20 points
-        String lostLocation = normalize(lostItem.getLocation());
-        String foundLocation = normalize(foundItem.getLocation());
-        if (lostLocation.equals(foundLocation)) {
-            score += 20;
+        if (lost.location(lostRow) == found.location(foundRow)) {
+            score += LOCATION_WEIGHT;
+        }
+        if (score + NAME_WEIGHT + DESCRIPTION_WEIGHT < minScore) {
+            prunedAfterLocation.increment();
+            return -1;
+        }
+
+        // Item name match: +50 points, or a share of them for similar names.
+        // Only a similarity that still lets the pair reach minScore counts,
+        // which narrows the edit distance band.
+        int lostName = lost.name(lostRow);
+        int foundName = found.name(foundRow);
+        if (lostName == foundName) {
+            score += NAME_WEIGHT;
+        } else {
+            int neededPoints = minScore - score - DESCRIPTION_WEIGHT;
+            double minSimilarity = Math.max(minNameSimilarity, (neededPoints - 0.5) / NAME_WEIGHT);
+            double similarity = NameSimilarity.similarity(lostName, foundName, minSimilarity);
+            if (similarity >= minSimilarity) {
+                score += (int) Math.round(NAME_WEIGHT * similarity);
+            }
+        }
+        if (score + DESCRIPTION_WEIGHT < minScore) {
+            prunedAfterName.increment();
+            return -1;
+        }
+
+        // Description similarity (TF-IDF cosine): up to +10 points
+        score += (int) Math.round(DESCRIPTION_WEIGHT
+                * lost.descriptionSimilarity(lostRow, found, foundRow, termStats));
+
+        return (score >= minScore) ? score : -1;
+    }
+
+    /**
+     * Matches at or over the threshold, best first; limited to match.top.k
+     * if that is set.
+     */
+    public List<Match> findMatchesForFoundItem(FoundItem foundItem) {
+        return findMatchesForFoundItem(foundItem, topK);
+    }
+
+    /**
+     * Like {@link #findMatchesForFoundItem(FoundItem)}, keeping only the k
+     * best matches (all of them if k is 0 or less).
+     */
+    public List<Match> findMatchesForFoundItem(FoundItem foundItem, int k) {
+        long start = System.nanoTime();
+        try {
+            ensureIndexesLoaded();
+            ItemFeatures found = foundItem.getFeatures();
+            ItemColumns query = found.asRow();
+            CandidateIndex.Rows candidates = lostIndex.candidates(found, threshold, minNameSimilarity);
+            ItemColumns lost = candidates.columns;
+
+            SimpleLogger.log("Searching for matches among " + candidates.size() + " of "
+                    + lostIndex.size() + " lost items...");
+
+            List<Match> matches = scoreCandidates(candidates.rows, k, (row, minScore) -> {
+                int score = scoreAtLeast(lost, row, query, 0, minScore);
+                int lostId = lost.id(row);  // DELETED if removed since the lookup
+                return (score >= 0 && lostId != ItemColumns.DELETED)
+                        ? new Match(lostId, foundItem.getId(), score, "PENDING") : null;
+            });
+
+            indexFoundItem(foundItem);
+            return matches;
+        } finally {
+            findForFoundTimer.recordSince(start);
         }
+    }
+
+    /**
+     * Matches at or over the threshold, best first; limited to match.top.k
+     * if that is set.
+     */
+    public List<Match> findMatchesForLostItem(LostItem lostItem) {
+        return findMatchesForLostItem(lostItem, topK);
+    }
+
+    /**
+     * Like {@link #findMatchesForLostItem(LostItem)}, keeping only the k
+     * best matches (all of them if k is 0 or less).
+     */
+    public List<Match> findMatchesForLostItem(LostItem lostItem, int k) {
+        long start = System.nanoTime();
+        try {
+            ensureIndexesLoaded();
+            ItemFeatures lost = lostItem.getFeatures();
+            ItemColumns query = lost.asRow();
+            CandidateIndex.Rows candidates = foundIndex.candidates(lost, threshold, minNameSimilarity);
+            ItemColumns found = candidates.columns;
 
-        // Description keyword overlap: +10 points
-        Set<String> lostKeywords = extractKeywords(lostItem.getDescription());
-        Set<String> foundKeywords = extractKeywords(foundItem.getDescription());
+            SimpleLogger.log("Searching for matches among " + candidates.size() + " of "
+                    + foundIndex.size() + " found items...");
 
-        Set<String> intersection = new HashSet<>(lostKeywords);
-        intersection.retainAll(foundKeywords);
+            List<Match> matches = scoreCandidates(candidates.rows, k, (row, minScore) -> {
+                int score = scoreAtLeast(query, 0, found, row, minScore);
+                int foundId = found.id(row);  // DELETED if removed since the lookup
+                return (score >= 0 && foundId != ItemColumns.DELETED)
+                        ? new Match(lostItem.getId(), foundId, score, "PENDING") : null;
+            });
 
-        if (!intersection.isEmpty()) {
-            score += 10;
+            indexLostItem(lostItem);
+            return matches;
+        } finally {
+            findForLostTimer.recordSince(start);
         }
+    }
+
+    /**
+     * Matches a batch of stored found items (a bulk import) in one pass.
+     *
+     * Rather than looking every new item up in the lost index, the batch gets
+     * a temporary index of its own and each indexed lost item is looked up in
+     * that, which is far cheaper when the batch is small next to the table.
+     * The candidate rules are symmetric, so the result is what
+     * findMatchesForFoundItem would give for each item (at most match.top.k
+     * per found item), best first, except that description terms are
+     * weighted with the whole batch already counted.
+     */
+    public List<Match> findMatchesForFoundItems(List<FoundItem> batch) {
+        long start = System.nanoTime();
+        try {
+            ensureIndexesLoaded();
+            CandidateIndex batchIndex = new CandidateIndex(termStats);
+            for (FoundItem foundItem : batch) {
+                batchIndex.add(foundItem.getId(), foundItem.getFeatures());
+            }
 
-        return score;
+            // Indexed first, so every item is scored with the term statistics of the whole batch
+            for (FoundItem foundItem : batch) {
+                indexFoundItem(foundItem);
+            }
+
+            List<Match> matches = new ArrayList<>();
+            CandidateIndex.Rows lostRows = lostIndex.all();
+            ItemColumns lost = lostRows.columns;
+            for (int lostRow : lostRows.rows) {
+                CandidateIndex.Rows candidates = batchIndex.candidates(lost, lostRow, threshold, minNameSimilarity);
+                ItemColumns found = candidates.columns;
+                for (int foundRow : candidates.rows) {
+                    int score = scoreAtLeast(lost, lostRow, found, foundRow, threshold);
+                    if (score >= 0) {
+                        addUnlessDeleted(matches, lost.id(lostRow), found.id(foundRow), score);
+                    }
+                }
+            }
+
+            SimpleLogger.log("Batch of " + batchIndex.size() + " found items matched against "
+                    + lostIndex.size() + " lost items: " + matches.size() + " match(es)");
+            return limitPerItem(matches, Match::getFoundItemId);
+        } finally {
+            batchTimer.recordSince(start);
+        }
     }
 
-    public List<Match> findMatchesForFoundItem(FoundItem foundItem) {
-        List<Match> matches = new ArrayList<>();
-        List<LostItem> allLostItems = lostItemDAO.getAllLostItems();
+    /**
+     * Like {@link #findMatchesForFoundItems}, for a batch of stored lost items.
+     */
+    public List<Match> findMatchesForLostItems(List<LostItem> batch) {
+        long start = System.nanoTime();
+        try {
+            ensureIndexesLoaded();
+            CandidateIndex batchIndex = new CandidateIndex(termStats);
+            for (LostItem lostItem : batch) {
+                batchIndex.add(lostItem.getId(), lostItem.getFeatures());
+            }
 
-        SimpleLogger.log("Searching for matches among " + allLostItems.size() + " lost items...");
+            // Indexed first, so every item is scored with the term statistics of the whole batch
+            for (LostItem lostItem : batch) {
+                indexLostItem(lostItem);
+            }
 
-        for (LostItem lostItem : allLostItems) {
-            int score = calculateMatchScore(lostItem, foundItem);
+            List<Match> matches = new ArrayList<>();
+            CandidateIndex.Rows foundRows = foundIndex.all();
+            ItemColumns found = foundRows.columns;
+            for (int foundRow : foundRows.rows) {
+                CandidateIndex.Rows candidates = batchIndex.candidates(found, foundRow, threshold, minNameSimilarity);
+                ItemColumns lost = candidates.columns;
+                for (int lostRow : candidates.rows) {
+                    int score = scoreAtLeast(lost, lostRow, found, foundRow, threshold);
+                    if (score >= 0) {
+                        addUnlessDeleted(matches, lost.id(lostRow), found.id(foundRow), score);
+                    }
+                }
+            }
 
-            if (score >= threshold) {
-                Match match = new Match(lostItem.getId(), foundItem.getId(), score, "PENDING");
-                matches.add(match);
-                SimpleLogger.log(String.format("Match found: Lost ID %d <-> Found ID %d (Score: %d)",
-                        lostItem.getId(), foundItem.getId(), score));
+            SimpleLogger.log("Batch of " + batchIndex.size() + " lost items matched against "
+                    + foundIndex.size() + " found items: " + matches.size() + " match(es)");
+            return limitPerItem(matches, Match::getLostItemId);
+        } finally {
+            batchTimer.recordSince(start);
+        }
+    }
+
+    /**
+     * Sorts the matches by RESULT_ORDER, keeping at most topK per batch item
+     * when topK is set.
+     */
+    private List<Match> limitPerItem(List<Match> matches, ToIntFunction<Match> itemOf) {
+        matches.sort(RESULT_ORDER);
+        if (topK <= 0) {
+            return matches;
+        }
+
+        Map<Integer, Integer> kept = new HashMap<>();
+        List<Match> limited = new ArrayList<>();
+        for (Match match : matches) {
+            if (kept.merge(itemOf.applyAsInt(match), 1, Integer::sum) <= topK) {
+                limited.add(match);
+            }
+        }
+        return limited;
+    }
+
+    /**
+     * Scores an already stored lost item against the found index at the given
+     * threshold, without logging each match or touching the indexes. Used by
+     * RematchJob to revisit historical items.
+     */
+    List<Match> rescoreLostItem(LostItem lostItem, int minScore) {
+        long start = System.nanoTime();
+        try {
+            ensureIndexesLoaded();
+            ItemFeatures lost = lostItem.getFeatures();
+            ItemColumns query = lost.asRow();
+            CandidateIndex.Rows candidates = foundIndex.candidates(lost, minScore, minNameSimilarity);
+            ItemColumns found = candidates.columns;
+            return score(candidates.rows, row -> {
+                int score = scoreAtLeast(query, 0, found, row, minScore);
+                int foundId = found.id(row);  // DELETED if removed since the lookup
+                return (score >= 0 && foundId != ItemColumns.DELETED)
+                        ? new Match(lostItem.getId(), foundId, score, "PENDING") : null;
+            });
+        } finally {
+            rescoreTimer.recordSince(start);
+        }
+    }
+
+    /**
+     * Adds a match for the pair unless either row was deleted since the
+     * candidates were taken; the columns are read outside the index lock.
+     */
+    private static void addUnlessDeleted(List<Match> matches, int lostId, int foundId, int score) {
+        if (lostId != ItemColumns.DELETED && foundId != ItemColumns.DELETED) {
+            matches.add(new Match(lostId, foundId, score, "PENDING"));
+        }
+    }
+
+    /**
+     * Scores the candidates against the current threshold and logs the
+     * matches; see {@link #score} and, when k is positive, {@link #scoreTopK}.
+     */
+    private List<Match> scoreCandidates(int[] candidates, int k, BoundedScorer scorer) {
+        int minScore = threshold;
+        List<Match> matches;
+        if (k <= 0) {
+            matches = score(candidates, row -> scorer.score(row, minScore));
+        } else if (parallelScorer != null && candidates.length >= parallelMinCandidates) {
+            matches = score(candidates, row -> scorer.score(row, minScore));
+            if (matches.size() > k) {
+                matches = new ArrayList<>(matches.subList(0, k));
             }
+        } else {
+            matches = scoreTopK(candidates, k, minScore, scorer);
         }
 
-        SimpleLogger.log("Total matches found: " + matches.size());
+        for (Match match : matches) {
+            SimpleLogger.log(() -> String.format("Match found: Lost ID %d <-> Found ID %d (Score: %d)",
+                    match.getLostItemId(), match.getFoundItemId(), match.getScore()));
+        }
+        SimpleLogger.log("Total matches found: " + matches.size() + (k > 0 ? " (top " + k + ")" : ""));
         return matches;
     }
 
-    public List<Match> findMatchesForLostItem(LostItem lostItem) {
-        List<Match> matches = new ArrayList<>();
-        List<FoundItem> allFoundItems = foundItemDAO.getAllFoundItems();
+    /**
+     * Keeps the k best matches in a bounded min-heap with the worst of them on
+     * top. Once the heap is full its top score becomes the minimum score for
+     * the remaining candidates, so scoreAtLeast abandons those that cannot
+     * reach it. Candidates that could tie it are still scored, since the ID
+     * tie-break may favour them, so the result equals the first k of the
+     * full, sorted result.
+     */
+    private List<Match> scoreTopK(int[] candidates, int k, int minScore, BoundedScorer scorer) {
+        PriorityQueue<Match> best = new PriorityQueue<>(k + 1, RESULT_ORDER.reversed());
 
-        SimpleLogger.log("Searching for matches among " + allFoundItems.size() + " found items...");
+        for (int row : candidates) {
+            int cutoff = (best.size() == k) ? Math.max(minScore, best.peek().getScore()) : minScore;
+            Match match = scorer.score(row, cutoff);
+            if (match == null) {
+                continue;
+            }
+            if (best.size() < k) {
+                best.add(match);
+            } else if (RESULT_ORDER.compare(match, best.peek()) < 0) {
+                best.poll();
+                best.add(match);
+            }
+        }
 
-        for (FoundItem foundItem : allFoundItems) {
-            int score = calculateMatchScore(lostItem, foundItem);
+        List<Match> matches = new ArrayList<>(best);
+        matches.sort(RESULT_ORDER);
+        return matches;
+    }
 
-            if (score >= threshold) {
-                Match match = new Match(lostItem.getId(), foundItem.getId(), score, "PENDING");
-                matches.add(match);
-                SimpleLogger.log(String.format("Match found: Lost ID %d <-> Found ID %d (Score: %d)",
-                        lostItem.getId(), foundItem.getId(), score));
+    /**
+     * Scores the candidates sequentially or, for large lists in parallel mode,
+     * on the fork/join pool. Either way the result is sorted by RESULT_ORDER.
+     */
+    private List<Match> score(int[] candidates, ParallelScorer.CandidateScorer scorer) {
+        List<Match> matches;
+        if (parallelScorer != null && candidates.length >= parallelMinCandidates) {
+            matches = parallelScorer.score(candidates, scorer);
+        } else {
+            matches = new ArrayList<>();
+            for (int row : candidates) {
+                Match match = scorer.score(row);
+                if (match != null) {
+                    matches.add(match);
+                }
             }
         }
 
-        SimpleLogger.log("Total matches found: " + matches.size());
+        matches.sort(RESULT_ORDER);
         return matches;
     }
 
-    private String normalize(String str) {
-        if (str == null) {
-            return "";
+    /**
+     * Adds (or re-indexes) a stored lost item so later found reports can match it.
+     */
+    public void indexLostItem(LostItem lostItem) {
+        if (lostItem.getId() > 0) {
+            index(TermStatistics.LOST, lostItem.getId(), lostItem.getFeatures());
+        }
+    }
+
+    /**
+     * Adds (or re-indexes) a stored found item so later lost reports can match it.
+     */
+    public void indexFoundItem(FoundItem foundItem) {
+        if (foundItem.getId() > 0) {
+            index(TermStatistics.FOUND, foundItem.getId(), foundItem.getFeatures());
         }
-        return str.toLowerCase().trim();
     }
 
-    private Set<String> extractKeywords(String description) {
-        Set<String> keywords = new HashSet<>();
+    /**
+     * Indexes an item's current features. Re-indexing an item with other
+     * features (an update) deletes the snapshot file, which cannot tell that
+     * the row changed, until shutdown writes a current one.
+     */
+    private void index(int side, int id, ItemFeatures features) {
+        if (deferUntilLoaded(side, id, features)) {
+            return;
+        }
+        applyIndex(side, id, features);
+    }
 
-        if (description == null || description.trim().isEmpty()) {
-            return keywords;
+    private void unindex(int side, int id) {
+        if (deferUntilLoaded(side, id, null)) {
+            return;
         }
+        termStats.remove(side, id);
+        (side == TermStatistics.LOST ? lostIndex : foundIndex).remove(id);
+    }
 
-        String[] words = description.split("\\W+");
+    private void applyIndex(int side, int id, ItemFeatures features) {
+        boolean changed = (side == TermStatistics.LOST ? lostIndex : foundIndex).add(id, features);
+        termStats.put(side, id, features.tokenIds());
+        if (changed && snapshotFile != null) {
+            discardSnapshot();
+        }
+    }
 
-        for (String word : words) {
-            String normalized = normalize(word);
-            if (!normalized.isEmpty()) {
-                keywords.add(normalized);
+    /**
+     * Queues the change (features, or null for a delete) if the indexes are
+     * not loaded yet and returns true; the load applies the queue when it
+     * finishes. Item events arrive while the saving DAO may still hold its
+     * connection, so they never start the load themselves.
+     *
+     * Whether a queued save adds or updates an item is only known after the
+     * load. A save at or below the snapshot file's high-water mark is of a
+     * row the file holds, though, so the file is deleted right away: a
+     * session that ends before the load must not leave it behind.
+     */
+    private boolean deferUntilLoaded(int side, int id, ItemFeatures features) {
+        boolean inSnapshot;
+        synchronized (pendingLock) {
+            if (indexesLoaded) {
+                return false;
             }
+            (side == TermStatistics.LOST ? pendingLost : pendingFound).put(id, features);
+            inSnapshot = features != null && snapshotFile != null && !snapshotDiscarded
+                    && id <= snapshotHighWaterMark(side);
         }
+        if (inSnapshot) {
+            discardSnapshot();
+        }
+        return true;
+    }
 
-        return keywords;
+    /**
+     * The snapshot file's high-water mark for one side, 0 if there is no
+     * readable file. Called with pendingLock held.
+     */
+    private int snapshotHighWaterMark(int side) {
+        if (!snapshotHighWaterMarksRead) {
+            snapshotHighWaterMarksRead = true;
+            snapshotHighWaterMarks = MatchingSnapshot.readHighWaterMarks(snapshotFile);
+        }
+        return (snapshotHighWaterMarks != null) ? snapshotHighWaterMarks[side] : 0;
+    }
+
+    /**
+     * Applies one side's changes queued before the load finished. Called
+     * with pendingLock held.
+     */
+    private void applyPendingChanges(int side, Map<Integer, ItemFeatures> pending) {
+        for (Map.Entry<Integer, ItemFeatures> change : pending.entrySet()) {
+            if (change.getValue() != null) {
+                applyIndex(side, change.getKey(), change.getValue());
+            } else {
+                termStats.remove(side, change.getKey());
+                (side == TermStatistics.LOST ? lostIndex : foundIndex).remove(change.getKey());
+            }
+        }
+        pending.clear();
+    }
+
+    /**
+     * Returns the matches worth writing: those whose pair is not stored yet
+     * or is stored with a lower score. Returns the list unchanged if the
+     * stored pairs could not be loaded.
+     */
+    public List<Match> filterKnownPairs(List<Match> matches) {
+        ensureIndexesLoaded();
+        if (!knownPairsLoaded) {
+            return matches;
+        }
+
+        List<Match> unknown = new ArrayList<>(matches.size());
+        for (Match match : matches) {
+            if (knownPairs.scoreOf(match.getLostItemId(), match.getFoundItemId()) < match.getScore()) {
+                unknown.add(match);
+            }
+        }
+        if (unknown.size() < matches.size()) {
+            SimpleLogger.log("Skipped " + (matches.size() - unknown.size()) + " already stored match(es)");
+        }
+        return unknown;
+    }
+
+    /**
+     * Records pairs that were just written, so they are filtered from now on.
+     */
+    public void recordPairs(List<Match> matches) {
+        for (Match match : matches) {
+            knownPairs.record(match.getLostItemId(), match.getFoundItemId(), match.getScore());
+        }
+    }
+
+    public void unindexLostItem(int lostItemId) {
+        lostIndex.remove(lostItemId);
+    }
+
+    public void unindexFoundItem(int foundItemId) {
+        foundIndex.remove(foundItemId);
+    }
+
+    /**
+     * Drops the in-memory indexes so they are reloaded from the database on
+     * next use (never from the snapshot, which only serves the first load).
+     */
+    public void reloadIndexes() {
+        indexesLoaded = false;
+    }
+
+    private synchronized void ensureIndexesLoaded() {
+        if (indexesLoaded) {
+            return;
+        }
+
+        boolean fromSnapshot = !snapshotTried && loadSnapshot();
+        snapshotTried = true;
+        if (!fromSnapshot) {
+            termStats.clear();
+            lostIndex.clear();
+            for (LostItem lostItem : lostItemDAO.getAllLostItems()) {
+                lostIndex.add(lostItem.getId(), lostItem.getFeatures());
+                termStats.put(TermStatistics.LOST, lostItem.getId(), lostItem.getFeatures().tokenIds());
+            }
+
+            foundIndex.clear();
+            for (FoundItem foundItem : foundItemDAO.getAllFoundItems()) {
+                foundIndex.add(foundItem.getId(), foundItem.getFeatures());
+                termStats.put(TermStatistics.FOUND, foundItem.getId(), foundItem.getFeatures().tokenIds());
+            }
+        }
+
+        knownPairs.clear();
+        knownPairsLoaded = matchDAO != null && matchDAO.streamPairScores(knownPairs::record);
+        if (!knownPairsLoaded) {
+            knownPairs.clear();
+        }
+
+        synchronized (pendingLock) {
+            applyPendingChanges(TermStatistics.LOST, pendingLost);
+            applyPendingChanges(TermStatistics.FOUND, pendingFound);
+            indexesLoaded = true;
+        }
+        SimpleLogger.log("Candidate indexes loaded: " + lostIndex.size() + " lost, "
+                + foundIndex.size() + " found items, " + knownPairs.size() + " stored pairs, "
+                + TokenDictionary.size() + " description terms, "
+                + (lostIndex.columnBytes() + foundIndex.columnBytes()) / 1024 + " KB of columns");
+    }
+
+    /**
+     * Fills the indexes from the snapshot file, then catches up with the
+     * rows added since it was written (IDs above its high-water marks) and
+     * checks that the row counts equal the tables', which catches deleted
+     * rows. Returns false, leaving the indexes to be loaded in full, if there
+     * is no readable snapshot, the new rows could not be read or the counts
+     * differ.
+     *
+     * Rows updated in place are not detected here. Updates made through this
+     * application never reach a later load: they keep the indexes current
+     * (ItemEvents) and delete the file until shutdown writes the indexes out,
+     * so a session that ends without shutdown leaves no snapshot behind. A
+     * row changed by anything else (another process, manual SQL) while the
+     * file exists is not noticed; delete the file after doing that.
+     */
+    private boolean loadSnapshot() {
+        if (snapshotFile == null || !Files.exists(snapshotFile)) {
+            return false;
+        }
+
+        long start = System.nanoTime();
+        MatchingSnapshot snapshot;
+        try {
+            snapshot = MatchingSnapshot.read(snapshotFile);
+        } catch (IOException e) {
+            SimpleLogger.error("Ignoring unreadable matching snapshot " + snapshotFile + ": " + e.getMessage());
+            return false;
+        }
+
+        termStats.clear();
+        lostIndex.load(snapshot.lost);
+        registerTerms(TermStatistics.LOST, snapshot.lost);
+        foundIndex.load(snapshot.found);
+        registerTerms(TermStatistics.FOUND, snapshot.found);
+        int fromSnapshot = lostIndex.size() + foundIndex.size();
+
+        int lostAdded = catchUpLostItems(snapshot.lostHighWaterMark);
+        int foundAdded = catchUpFoundItems(snapshot.foundHighWaterMark);
+        if (lostAdded < 0 || foundAdded < 0
+                || lostItemDAO.countLostItemsAfter(0) != lostIndex.size()
+                || foundItemDAO.countFoundItemsAfter(0) != foundIndex.size()) {
+            SimpleLogger.log("Matching snapshot " + snapshotFile + " does not match the tables; loading all items");
+            return false;
+        }
+
+        SimpleLogger.log("Matching snapshot " + snapshotFile + " loaded: " + fromSnapshot + " items, "
+                + (lostAdded + foundAdded) + " added since, in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+        return true;
+    }
+
+    private void registerTerms(int side, ItemColumns columns) {
+        int[] tokens = columns.tokens();
+        for (int row = 0, n = columns.rows(); row < n; row++) {
+            if (columns.id(row) != ItemColumns.DELETED) {
+                termStats.put(side, columns.id(row),
+                        Arrays.copyOfRange(tokens, columns.tokensFrom(row), columns.tokensTo(row)));
+            }
+        }
+    }
+
+    /**
+     * Indexes the lost items with an ID above afterId; returns how many, or
+     * -1 if they could not be read.
+     */
+    private int catchUpLostItems(int afterId) {
+        int added = 0;
+        List<LostItem> chunk;
+        while ((chunk = lostItemDAO.getLostItemsAfter(afterId, CATCH_UP_CHUNK_SIZE)) != null && !chunk.isEmpty()) {
+            for (LostItem lostItem : chunk) {
+                lostIndex.add(lostItem.getId(), lostItem.getFeatures());
+                termStats.put(TermStatistics.LOST, lostItem.getId(), lostItem.getFeatures().tokenIds());
+            }
+            afterId = chunk.get(chunk.size() - 1).getId();
+            added += chunk.size();
+        }
+        return (chunk != null) ? added : -1;
+    }
+
+    private int catchUpFoundItems(int afterId) {
+        int added = 0;
+        List<FoundItem> chunk;
+        while ((chunk = foundItemDAO.getFoundItemsAfter(afterId, CATCH_UP_CHUNK_SIZE)) != null && !chunk.isEmpty()) {
+            for (FoundItem foundItem : chunk) {
+                foundIndex.add(foundItem.getId(), foundItem.getFeatures());
+                termStats.put(TermStatistics.FOUND, foundItem.getId(), foundItem.getFeatures().tokenIds());
+            }
+            afterId = chunk.get(chunk.size() - 1).getId();
+            added += chunk.size();
+        }
+        return (chunk != null) ? added : -1;
+    }
+
+    /**
+     * Deletes the snapshot file once an item in it was updated; see index().
+     */
+    private void discardSnapshot() {
+        if (snapshotDiscarded) {
+            return;
+        }
+        snapshotDiscarded = true;
+        try {
+            if (Files.deleteIfExists(snapshotFile)) {
+                SimpleLogger.log("Matching snapshot " + snapshotFile + " deleted: an item in it was updated");
+            }
+        } catch (IOException e) {
+            SimpleLogger.error("Failed to delete outdated matching snapshot " + snapshotFile + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Writes the indexes to the snapshot file, if one is configured and the
+     * indexes were loaded in this session.
+     */
+    private void writeSnapshot() {
+        if (snapshotFile == null || !indexesLoaded) {
+            return;
+        }
+        long start = System.nanoTime();
+        CandidateIndex.Rows lost = lostIndex.all();
+        CandidateIndex.Rows found = foundIndex.all();
+        try {
+            MatchingSnapshot.write(snapshotFile, lost, found);
+            SimpleLogger.log("Matching snapshot written to " + snapshotFile + ": " + (lost.size() + found.size())
+                    + " items in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+        } catch (IOException e) {
+            SimpleLogger.error("Failed to write matching snapshot " + snapshotFile + ": " + e.getMessage());
+        }
+    }
+
+    static String normalize(String str) {
+        if (str == null) {
+            return "";
+        }
+        return str.toLowerCase().trim();
     }
 
     public int getThreshold() {
         return threshold;
     }
+
+    /**
+     * Changes the threshold for subsequent reports. Existing items are not
+     * revisited; run a RematchJob for that.
+     */
+    public void setThreshold(int threshold) {
+        this.threshold = threshold;
+        SimpleLogger.log("Match threshold changed to: " + threshold);
+    }
+
+    /**
+     * Pairs scored so far and how many of them were abandoned after each
+     * stage of scoreAtLeast.
+     */
+    public String describeScoringStats() {
+        long pairs = pairsScored.sum();
+        long color = prunedAfterColor.sum();
+        long location = prunedAfterLocation.sum();
+        long name = prunedAfterName.sum();
+        return String.format("Scoring\n  Pairs: %d | Pruned after color: %d, location: %d, name: %d | Scored in full: %d",
+                pairs, color, location, name, pairs - color - location - name);
+    }
+
+    private void registerGauges() {
+        Metrics.gauge("match_pairs_scored", pairsScored::sum);
+        Metrics.gauge("match_pruned_after_color", prunedAfterColor::sum);
+        Metrics.gauge("match_pruned_after_location", prunedAfterLocation::sum);
+        Metrics.gauge("match_pruned_after_name", prunedAfterName::sum);
+    }
+
+    /**
+     * Stops listening for item events, writes the snapshot (if configured)
+     * and releases the parallel scoring threads, if any.
+     */
+    public void shutdown() {
+        ItemEvents.removeListener(itemListener);
+        writeSnapshot();
+        if (parallelScorer != null) {
+            parallelScorer.shutdown();
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,358 @@
+package com.lostfound.matching;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * On-disk copy of the candidate indexes, so a restart does not have to read
+ * and tokenize every stored item again.
+ *
+ * The file starts with the highest item ID each side held (its high-water
+ * mark), so they can be read without the rest, then holds the dictionaries
+ * (description terms, names, colors and locations, as strings in code order)
+ * and each side's live rows as flat int and float arrays, in the layout of
+ * ItemColumns. It is written through a FileChannel
+ * to a temporary file that is renamed over the old one, and read by mapping
+ * the file and copying each array out of the mapping in one bulk get.
+ *
+ * Dictionary codes are only meaningful to the process that assigned them,
+ * so reading translates the file's codes to this process's (they come out
+ * the same while the dictionaries are still empty).
+ */
+final class MatchingSnapshot {
+
+    private static final int MAGIC = 0x4C464D53;  // "LFMS"
+    private static final int VERSION = 2;
+    private static final int WRITE_BUFFER_SIZE = 1 << 20;
+
+    final ItemColumns lost;
+    final ItemColumns found;
+    final int lostHighWaterMark;
+    final int foundHighWaterMark;
+
+    private MatchingSnapshot(ItemColumns lost, int lostHighWaterMark, ItemColumns found, int foundHighWaterMark) {
+        this.lost = lost;
+        this.found = found;
+        this.lostHighWaterMark = lostHighWaterMark;
+        this.foundHighWaterMark = foundHighWaterMark;
+    }
+
+    /**
+     * Writes the given rows of both indexes to the file, replacing it only
+     * once the new one is complete.
+     */
+    static void write(Path file, CandidateIndex.Rows lost, CandidateIndex.Rows found) throws IOException {
+        Path dir = file.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path tmp = dir.resolve(file.getFileName() + ".tmp");
+
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            Output out = new Output(channel);
+            out.putInt(MAGIC);
+            out.putInt(VERSION);
+            out.putInt(highWaterMark(lost));
+            out.putInt(highWaterMark(found));
+            out.putStrings(TokenDictionary.terms());
+            out.putStrings(NameDictionary.names());
+            out.putStrings(ValueDictionary.COLORS.values());
+            out.putStrings(ValueDictionary.LOCATIONS.values());
+            out.putRows(lost);
+            out.putRows(found);
+            out.flush();
+            channel.force(true);
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static int highWaterMark(CandidateIndex.Rows rows) {
+        int highWaterMark = 0;
+        for (int row : rows.rows) {
+            highWaterMark = Math.max(highWaterMark, rows.columns.id(row));
+        }
+        return highWaterMark;
+    }
+
+    /**
+     * Reads only the high-water marks, {lost, found}; null if the file does
+     * not exist or does not start like a snapshot.
+     */
+    static int[] readHighWaterMarks(Path file) {
+        ByteBuffer header = ByteBuffer.allocate(16);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            int read;
+            do {
+                read = channel.read(header);
+            } while (read >= 0 && header.hasRemaining());
+        } catch (IOException e) {
+            return null;
+        }
+        header.flip();
+        if (header.remaining() < 16 || header.getInt() != MAGIC || header.getInt() != VERSION) {
+            return null;
+        }
+        return new int[]{header.getInt(), header.getInt()};
+    }
+
+    /**
+     * Reads a snapshot; throws if the file is not one or is cut short.
+     */
+    static MatchingSnapshot read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("file too large to map (" + size + " bytes)");
+            }
+            MappedByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (size < 8 || in.getInt() != MAGIC) {
+                throw new IOException("not a matching snapshot");
+            }
+            int version = in.getInt();
+            if (version != VERSION) {
+                throw new IOException("unsupported version " + version);
+            }
+            int lostHighWaterMark = in.getInt();
+            int foundHighWaterMark = in.getInt();
+
+            String[] terms = getStrings(in);
+            int[] termCodes = new int[terms.length];
+            for (int i = 0; i < terms.length; i++) {
+                termCodes[i] = (terms[i] != null) ? TokenDictionary.idOf(terms[i]) : -1;
+            }
+            String[] names = getStrings(in);
+            int[] nameCodes = new int[names.length];
+            for (int i = 0; i < names.length; i++) {
+                nameCodes[i] = (names[i] != null) ? NameDictionary.codeOf(names[i]) : -1;
+            }
+            int[] colorCodes = codesOf(getStrings(in), ValueDictionary.COLORS);
+            int[] locationCodes = codesOf(getStrings(in), ValueDictionary.LOCATIONS);
+
+            ItemColumns lost = getRows(in, termCodes, nameCodes, colorCodes, locationCodes);
+            ItemColumns found = getRows(in, termCodes, nameCodes, colorCodes, locationCodes);
+            return new MatchingSnapshot(lost, lostHighWaterMark, found, foundHighWaterMark);
+        } catch (RuntimeException e) {
+            // BufferUnderflowException and friends: the file ends early or a count is off
+            throw new IOException("corrupt matching snapshot (" + e + ")", e);
+        }
+    }
+
+    private static int[] codesOf(String[] values, ValueDictionary dictionary) {
+        int[] codes = new int[values.length];
+        for (int i = 0; i < values.length; i++) {
+            codes[i] = (values[i] != null) ? dictionary.codeOf(values[i]) : -1;
+        }
+        return codes;
+    }
+
+    private static String[] getStrings(ByteBuffer in) throws IOException {
+        String[] strings = new String[checkCount(in, in.getInt(), 4)];
+        for (int i = 0; i < strings.length; i++) {
+            int length = in.getInt();
+            if (length >= 0) {
+                byte[] bytes = new byte[checkCount(in, length, 1)];
+                in.get(bytes);
+                strings[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+        }
+        return strings;
+    }
+
+    /**
+     * One side's rows, with every code translated to this process's
+     * dictionaries. Each row's terms must stay sorted for the merge walk in
+     * ItemColumns, so a row is re-sorted when its term IDs changed.
+     */
+    private static ItemColumns getRows(ByteBuffer in, int[] termCodes, int[] nameCodes,
+                                       int[] colorCodes, int[] locationCodes) throws IOException {
+        int rows = checkCount(in, in.getInt(), 16);
+        int[] ids = getInts(in, rows);
+        int[] names = translate(getInts(in, rows), nameCodes);
+        int[] colors = translate(getInts(in, rows), colorCodes);
+        int[] locations = translate(getInts(in, rows), locationCodes);
+        int[] tokenStart = getInts(in, rows + 1);
+        int tokenCount = checkCount(in, tokenStart[rows], 8);
+        int[] tokens = getInts(in, tokenCount);
+        float[] frequencies = new float[tokenCount];
+        in.asFloatBuffer().get(frequencies);
+        in.position(in.position() + 4 * tokenCount);
+
+        for (int row = 0; row < rows; row++) {
+            if (tokenStart[row] < 0 || tokenStart[row] > tokenStart[row + 1]) {
+                throw new IOException("corrupt matching snapshot (bad term offsets)");
+            }
+        }
+        boolean termsMoved = false;
+        for (int i = 0; i < tokenCount; i++) {
+            int code = translate(tokens[i], termCodes);
+            termsMoved |= code != tokens[i];
+            tokens[i] = code;
+        }
+        if (termsMoved) {
+            for (int row = 0; row < rows; row++) {
+                sortSlice(tokens, frequencies, tokenStart[row], tokenStart[row + 1]);
+            }
+        }
+        return new ItemColumns(ids, names, colors, locations, tokenStart, tokens, frequencies);
+    }
+
+    private static int[] getInts(ByteBuffer in, int count) throws IOException {
+        int[] values = new int[checkCount(in, count, 4)];
+        in.asIntBuffer().get(values);
+        in.position(in.position() + 4 * count);
+        return values;
+    }
+
+    private static int[] translate(int[] values, int[] codes) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            values[i] = translate(values[i], codes);
+        }
+        return values;
+    }
+
+    private static int translate(int value, int[] codes) throws IOException {
+        if (value < 0 || value >= codes.length || codes[value] < 0) {
+            throw new IOException("corrupt matching snapshot (unknown code " + value + ")");
+        }
+        return codes[value];
+    }
+
+    /**
+     * Checks that count elements of the given size can still be read.
+     */
+    private static int checkCount(ByteBuffer in, int count, int bytesEach) throws IOException {
+        if (count < 0 || (long) count * bytesEach > in.remaining()) {
+            throw new IOException("corrupt matching snapshot (count " + count + " past the end)");
+        }
+        return count;
+    }
+
+    /**
+     * Insertion sort of tokens[from, to) by term ID, carrying the weights
+     * along; a row holds a few dozen terms at most.
+     */
+    private static void sortSlice(int[] tokens, float[] frequencies, int from, int to) {
+        for (int i = from + 1; i < to; i++) {
+            int token = tokens[i];
+            float frequency = frequencies[i];
+            int j = i - 1;
+            while (j >= from && tokens[j] > token) {
+                tokens[j + 1] = tokens[j];
+                frequencies[j + 1] = frequencies[j];
+                j--;
+            }
+            tokens[j + 1] = token;
+            frequencies[j + 1] = frequency;
+        }
+    }
+
+    /**
+     * Buffered writes to the channel.
+     */
+    private static final class Output {
+
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE);
+
+        Output(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        void putInt(int value) throws IOException {
+            reserve(4);
+            buffer.putInt(value);
+        }
+
+        void putFloat(float value) throws IOException {
+            reserve(4);
+            buffer.putFloat(value);
+        }
+
+        /**
+         * A count, then each string as its UTF-8 length and bytes (length -1
+         * for null).
+         */
+        void putStrings(String[] strings) throws IOException {
+            putInt(strings.length);
+            for (String string : strings) {
+                if (string == null) {
+                    putInt(-1);
+                    continue;
+                }
+                byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+                putInt(bytes.length);
+                if (bytes.length > buffer.capacity()) {
+                    flush();
+                    writeFully(ByteBuffer.wrap(bytes));
+                } else {
+                    reserve(bytes.length);
+                    buffer.put(bytes);
+                }
+            }
+        }
+
+        /**
+         * The row count, then the columns of the rows one after another,
+         * their term slices packed from offset 0.
+         */
+        void putRows(CandidateIndex.Rows rows) throws IOException {
+            ItemColumns columns = rows.columns;
+            putInt(rows.size());
+
+            for (int row : rows.rows) {
+                putInt(columns.id(row));
+            }
+            for (int row : rows.rows) {
+                putInt(columns.name(row));
+            }
+            for (int row : rows.rows) {
+                putInt(columns.color(row));
+            }
+            for (int row : rows.rows) {
+                putInt(columns.location(row));
+            }
+            int offset = 0;
+            putInt(offset);
+            for (int row : rows.rows) {
+                offset += columns.tokensTo(row) - columns.tokensFrom(row);
+                putInt(offset);
+            }
+            int[] tokens = columns.tokens();
+            for (int row : rows.rows) {
+                for (int i = columns.tokensFrom(row), end = columns.tokensTo(row); i < end; i++) {
+                    putInt(tokens[i]);
+                }
+            }
+            float[] frequencies = columns.frequencies();
+            for (int row : rows.rows) {
+                for (int i = columns.tokensFrom(row), end = columns.tokensTo(row); i < end; i++) {
+                    putFloat(frequencies[i]);
+                }
+            }
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            writeFully(buffer);
+            buffer.clear();
+        }
+
+        private void reserve(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+        }
+
+        private void writeFully(ByteBuffer data) throws IOException {
+            while (data.hasRemaining()) {
+                channel.write(data);
+            }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.lostfound.matching;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-wide mapping from normalized item names to dense int codes. The
+ * compact form of each name and its trigrams (see NameSimilarity) are kept
+ * here too, computed once per distinct name instead of once per item.
+ */
+final class NameDictionary {
+
+    private static final ConcurrentHashMap<String, Integer> codes = new ConcurrentHashMap<>();
+
+    // Indexed by code. Written under the class lock before the code is
+    // published, and replaced by a larger copy when full.
+    private static volatile String[] compactNames = new String[1024];
+    private static volatile long[][] trigrams = new long[1024][];
+
+    private NameDictionary() {
+    }
+
+    static int codeOf(String name) {
+        Integer code = codes.get(name);
+        if (code != null) {
+            return code;
+        }
+        return add(name);
+    }
+
+    private static synchronized int add(String name) {
+        Integer existing = codes.get(name);
+        if (existing != null) {
+            return existing;
+        }
+
+        int code = codes.size();
+        if (code == compactNames.length) {
+            compactNames = Arrays.copyOf(compactNames, code * 2);
+            trigrams = Arrays.copyOf(trigrams, code * 2);
+        }
+        String compact = NameSimilarity.compact(name);
+        compactNames[code] = compact;
+        trigrams[code] = NameSimilarity.trigrams(compact);
+        codes.put(name, code);
+        return code;
+    }
+
+    static String compactName(int code) {
+        return compactNames[code];
+    }
+
+    static long[] trigrams(int code) {
+        return trigrams[code];
+    }
+
+    static int size() {
+        return codes.size();
+    }
+
+    /**
+     * The names indexed by code, for writing a snapshot.
+     */
+    static synchronized String[] names() {
+        String[] names = new String[codes.size()];
+        codes.forEach((name, code) -> names[code] = name);
+        return names;
+    }
+}
@@ -0,0 +1,205 @@
+package com.lostfound.matching;
+
+import java.util.Arrays;
+
+/**
+ * Fuzzy comparison of item names.
+ *
+ * Names are compared in compact form: lowercase letters and digits only, so
+ * "iPhone 13" and "iphone13" are the same name. Similarity is
+ * 1 - editDistance / longerLength. The edit distance is a banded Levenshtein
+ * that only fills the diagonals within the allowed number of edits and gives
+ * up as soon as a whole row exceeds it.
+ */
+final class NameSimilarity {
+
+    private static final long[] NO_TRIGRAMS = new long[0];
+    private static final char PAD = '\0';
+
+    // Two DP rows per scoring thread; grown on demand, never shrunk
+    private static final ThreadLocal<int[][]> ROWS = ThreadLocal.withInitial(() -> new int[2][32]);
+
+    private NameSimilarity() {
+    }
+
+    /**
+     * Lowercase letters and digits of the name, everything else dropped.
+     */
+    static String compact(String name) {
+        StringBuilder compact = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                compact.append(Character.toLowerCase(c));
+            }
+        }
+        return compact.toString();
+    }
+
+    /**
+     * Sorted, distinct trigrams of the compact name padded with two leading
+     * and one trailing pad character, each packed into a long. A name of
+     * length n has at most n + 2 of them.
+     */
+    static long[] trigrams(String compact) {
+        int n = compact.length();
+        if (n == 0) {
+            return NO_TRIGRAMS;
+        }
+
+        long[] grams = new long[n + 2];
+        for (int i = 0; i < grams.length; i++) {
+            grams[i] = pack(charAt(compact, i - 2), charAt(compact, i - 1), charAt(compact, i));
+        }
+
+        Arrays.sort(grams);
+        int distinct = 1;
+        for (int i = 1; i < grams.length; i++) {
+            if (grams[i] != grams[distinct - 1]) {
+                grams[distinct++] = grams[i];
+            }
+        }
+        return distinct == grams.length ? grams : Arrays.copyOf(grams, distinct);
+    }
+
+    private static char charAt(String s, int i) {
+        return (i < 0 || i >= s.length()) ? PAD : s.charAt(i);
+    }
+
+    private static long pack(char a, char b, char c) {
+        return ((long) a << 32) | ((long) b << 16) | c;
+    }
+
+    /**
+     * The most edits two names can differ by, the longer one being
+     * longerLength characters, and still be at least minSimilarity alike.
+     */
+    static int maxEdits(int longerLength, double minSimilarity) {
+        return (int) Math.floor((1.0 - minSimilarity) * longerLength + 1e-9);
+    }
+
+    /**
+     * Similarity of two compact names, or 0 if it is below minSimilarity
+     * (which is decided without computing the full distance).
+     */
+    static double similarity(String a, String b, double minSimilarity) {
+        if (a.equals(b)) {
+            return a.isEmpty() ? 0 : 1.0;
+        }
+        if (a.isEmpty() || b.isEmpty()) {
+            return 0;
+        }
+
+        int longer = Math.max(a.length(), b.length());
+        int maxEdits = maxEdits(longer, minSimilarity);
+        int distance = boundedDistance(a, b, maxEdits);
+        return distance > maxEdits ? 0 : 1.0 - (double) distance / longer;
+    }
+
+    /**
+     * Like {@link #similarity(String, String, double)} for two names given
+     * by NameDictionary code, first rejecting pairs that share too few
+     * trigrams to be within the allowed edits (see TrigramIndex), which is
+     * far cheaper than the distance for the typical unrelated pair.
+     */
+    static double similarity(int nameA, int nameB, double minSimilarity) {
+        String x = NameDictionary.compactName(nameA);
+        String y = NameDictionary.compactName(nameB);
+        if (x.equals(y) || x.isEmpty() || y.isEmpty()) {
+            return similarity(x, y, minSimilarity);
+        }
+
+        int maxEdits = maxEdits(Math.max(x.length(), y.length()), minSimilarity);
+        if (Math.abs(x.length() - y.length()) > maxEdits) {
+            return 0;
+        }
+        long[] gramsA = NameDictionary.trigrams(nameA);
+        long[] gramsB = NameDictionary.trigrams(nameB);
+        int required = Math.max(gramsA.length, gramsB.length) - 3 * maxEdits;
+        if (required > 0 && sharedCount(gramsA, gramsB) < required) {
+            return 0;
+        }
+        return similarity(x, y, minSimilarity);
+    }
+
+    private static int sharedCount(long[] a, long[] b) {
+        int shared = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] == b[j]) {
+                shared++;
+                i++;
+                j++;
+            } else if (a[i] < b[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return shared;
+    }
+
+    /**
+     * Levenshtein distance between a and b if it is at most maxEdits,
+     * otherwise maxEdits + 1.
+     */
+    static int boundedDistance(String a, String b, int maxEdits) {
+        if (maxEdits < 0) {
+            return 0;
+        }
+        if (a.length() > b.length()) {
+            String t = a;
+            a = b;
+            b = t;
+        }
+        int m = a.length();
+        int n = b.length();
+        int over = maxEdits + 1;
+        if (n - m > maxEdits) {
+            return over;
+        }
+        if (m == 0) {
+            return n;
+        }
+
+        int[][] rows = ROWS.get();
+        if (rows[0].length < n + 1) {
+            rows = new int[2][Math.max(n + 1, rows[0].length * 2)];
+            ROWS.set(rows);
+        }
+        int[] prev = rows[0];
+        int[] curr = rows[1];
+
+        // Row 0: distance from the empty prefix of a; cells outside the band count as "over"
+        for (int j = 0; j <= n; j++) {
+            prev[j] = j <= maxEdits ? j : over;
+        }
+
+        for (int i = 1; i <= m; i++) {
+            int from = Math.max(1, i - maxEdits);
+            int to = Math.min(n, i + maxEdits);
+            char ca = a.charAt(i - 1);
+
+            curr[from - 1] = (from == 1 && i <= maxEdits) ? i : over;
+            int rowMin = curr[from - 1];
+            for (int j = from; j <= to; j++) {
+                int cost = (ca == b.charAt(j - 1)) ? 0 : 1;
+                int d = Math.min(prev[j - 1] + cost, Math.min(prev[j], curr[j - 1]) + 1);
+                curr[j] = Math.min(d, over);
+                rowMin = Math.min(rowMin, curr[j]);
+            }
+            if (to < n) {
+                curr[to + 1] = over;
+            }
+            if (rowMin > maxEdits) {
+                return over;
+            }
+
+            int[] t = prev;
+            prev = curr;
+            curr = t;
+        }
+        return prev[n];
+    }
+}
@@ -0,0 +1,87 @@
+package com.lostfound.matching;
+
+import com.lostfound.model.Match;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Scores candidate rows on a fork/join pool.
+ *
+ * The rows are split in halves until a slice is small enough, each slice
+ * collects its matches into its own list and the lists are concatenated on
+ * join, so workers never share a collection.
+ */
+class ParallelScorer {
+
+    /**
+     * Scores one candidate; returns null if it is below the threshold.
+     */
+    interface CandidateScorer {
+        Match score(int row);
+    }
+
+    private static final int MIN_SLICE = 256;
+
+    private final ForkJoinPool pool;
+
+    ParallelScorer(int parallelism) {
+        this.pool = new ForkJoinPool(parallelism);
+    }
+
+    List<Match> score(int[] rows, CandidateScorer scorer) {
+        int slice = Math.max(MIN_SLICE, rows.length / (pool.getParallelism() * 4));
+        return pool.invoke(new ScoreTask(rows, scorer, 0, rows.length, slice));
+    }
+
+    int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    void shutdown() {
+        pool.shutdown();
+    }
+
+    private static class ScoreTask extends RecursiveTask<List<Match>> {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] rows;
+        private final transient CandidateScorer scorer;  // tasks are never serialized
+        private final int from;
+        private final int to;
+        private final int slice;
+
+        ScoreTask(int[] rows, CandidateScorer scorer, int from, int to, int slice) {
+            this.rows = rows;
+            this.scorer = scorer;
+            this.from = from;
+            this.to = to;
+            this.slice = slice;
+        }
+
+        @Override
+        protected List<Match> compute() {
+            if (to - from <= slice) {
+                List<Match> matches = new ArrayList<>();
+                for (int i = from; i < to; i++) {
+                    Match match = scorer.score(rows[i]);
+                    if (match != null) {
+                        matches.add(match);
+                    }
+                }
+                return matches;
+            }
+
+            int mid = (from + to) >>> 1;
+            ScoreTask left = new ScoreTask(rows, scorer, from, mid, slice);
+            ScoreTask right = new ScoreTask(rows, scorer, mid, to, slice);
+            left.fork();
+            List<Match> rightMatches = right.compute();
+            List<Match> leftMatches = left.join();
+            leftMatches.addAll(rightMatches);
+            return leftMatches;
+        }
+    }
+}
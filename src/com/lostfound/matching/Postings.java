@@ -0,0 +1,58 @@
+package com.lostfound.matching;
+
+import java.util.Arrays;
+
+/**
+ * Row lists keyed by a dense int code (a dictionary code or token ID), each
+ * a growable int array. Rows are appended in increasing order and never
+ * removed: readers skip deleted rows, and CandidateIndex rebuilds the lists
+ * when it compacts its columns.
+ *
+ * Not thread-safe; CandidateIndex serializes access.
+ */
+final class Postings {
+
+    private static final int[] EMPTY = new int[0];
+
+    private int[][] lists = new int[64][];
+    private int[] sizes = new int[64];
+
+    void add(int key, int row) {
+        if (key >= lists.length) {
+            int capacity = Math.max(key + 1, lists.length * 2);
+            lists = Arrays.copyOf(lists, capacity);
+            sizes = Arrays.copyOf(sizes, capacity);
+        }
+        int[] list = lists[key];
+        int size = sizes[key];
+        if (list == null) {
+            list = new int[4];
+            lists[key] = list;
+        } else if (size == list.length) {
+            list = Arrays.copyOf(list, size * 2);
+            lists[key] = list;
+        }
+        list[size] = row;
+        sizes[key] = size + 1;
+    }
+
+    /**
+     * Number of rows listed under the key, deleted ones included.
+     */
+    int size(int key) {
+        return key < sizes.length ? sizes[key] : 0;
+    }
+
+    /**
+     * The rows under the key; only the first size(key) entries are valid.
+     */
+    int[] rows(int key) {
+        int[] list = key < lists.length ? lists[key] : null;
+        return list != null ? list : EMPTY;
+    }
+
+    void clear() {
+        lists = new int[64][];
+        sizes = new int[64];
+    }
+}
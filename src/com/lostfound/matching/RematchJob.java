@@ -0,0 +1,328 @@
+package com.lostfound.matching;
+
+import com.lostfound.dao.DaoFactory;
+import com.lostfound.dao.LostItemDAO;
+import com.lostfound.dao.MatchDAO;
+import com.lostfound.db.DbConnection;
+import com.lostfound.model.LostItem;
+import com.lostfound.model.Match;
+import com.lostfound.util.SimpleLogger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background pass that re-scores every stored lost item against all found
+ * items and records the pairs that reach the threshold but are not in MATCHES
+ * yet. Matches are otherwise only created when an item is reported, so this
+ * is what picks up historical pairs after the threshold is lowered.
+ *
+ * Lost items are walked in ID order, one chunk at a time. Once a chunk's new
+ * matches are committed, the last processed ID is written to a checkpoint
+ * file, so an interrupted run resumes where it stopped. Redoing a chunk is
+ * harmless because existing pairs are skipped. The job runs on a single
+ * low-priority thread and pauses between chunks so interactive requests keep
+ * getting connections and CPU.
+ */
+public class RematchJob {
+
+    public enum State { IDLE, RUNNING, COMPLETED, CANCELLED, FAILED }
+
+    private final MatchingEngine engine;
+    private final LostItemDAO lostItemDAO;
+    private final MatchDAO matchDAO;
+    private final Path checkpointFile;
+    private final int chunkSize;
+    private final long pauseMs;
+
+    private Thread worker;
+    private volatile boolean cancelRequested;
+
+    // Progress of the current (or last) run; written by the worker thread only
+    private volatile State state = State.IDLE;
+    private volatile int runThreshold;
+    private volatile long totalItems;
+    private volatile long processedItems;
+    private volatile long newMatches;
+    private volatile long skippedPairs;
+    private volatile long startedAtNanos;
+
+    public RematchJob(MatchingEngine engine) {
+        this(engine, DaoFactory.lostItemDAO(), DaoFactory.matchDAO(),
+                Paths.get(Optional.ofNullable(DbConnection.getProperty("rematch.checkpoint.file"))
+                        .orElse("data/rematch.checkpoint")),
+                DbConnection.getIntProperty("rematch.chunk.size", 500),
+                DbConnection.getLongProperty("rematch.pause.ms", 250));
+    }
+
+    public RematchJob(MatchingEngine engine, LostItemDAO lostItemDAO, MatchDAO matchDAO,
+                      Path checkpointFile, int chunkSize, long pauseMs) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Invalid chunk size: " + chunkSize);
+        }
+        this.engine = engine;
+        this.lostItemDAO = lostItemDAO;
+        this.matchDAO = matchDAO;
+        this.checkpointFile = checkpointFile;
+        this.chunkSize = chunkSize;
+        this.pauseMs = pauseMs;
+    }
+
+    /**
+     * Tells whether existing items need to be re-scored for the threshold:
+     * either a previous run was interrupted, or the threshold is lower than
+     * the one the last completed run (or the first start) used. A higher
+     * threshold cannot create new matches, so it only updates the checkpoint.
+     */
+    public synchronized boolean isRematchNeeded(int threshold) {
+        Checkpoint checkpoint = readCheckpoint();
+        if (checkpoint == null || (checkpoint.completed && threshold > checkpoint.threshold)) {
+            // Nothing to catch up on; remember the threshold as the baseline
+            tryWriteCheckpoint(new Checkpoint(threshold, 0, true));
+            return false;
+        }
+        return !checkpoint.completed || threshold < checkpoint.threshold;
+    }
+
+    /**
+     * Starts a run in the background. An interrupted run at the same threshold
+     * is resumed from its checkpoint; otherwise the walk starts from the first
+     * lost item. Returns false if a run is already in progress.
+     */
+    public synchronized boolean start(int threshold) {
+        if (state == State.RUNNING) {
+            return false;
+        }
+
+        Checkpoint checkpoint = readCheckpoint();
+        int startAfterId = (checkpoint != null && !checkpoint.completed && checkpoint.threshold == threshold)
+                ? checkpoint.lastLostItemId : 0;
+
+        cancelRequested = false;
+        state = State.RUNNING;
+        runThreshold = threshold;
+        totalItems = 0;
+        processedItems = 0;
+        newMatches = 0;
+        skippedPairs = 0;
+        startedAtNanos = System.nanoTime();
+
+        worker = new Thread(() -> run(threshold, startAfterId), "rematch-job");
+        worker.setDaemon(true);
+        worker.setPriority(Thread.MIN_PRIORITY);
+        worker.start();
+        return true;
+    }
+
+    /**
+     * Stops a running job after its current chunk and waits briefly for it.
+     * The checkpoint is kept, so the next start at the same threshold resumes.
+     */
+    public void cancel() {
+        Thread running;
+        synchronized (this) {
+            running = worker;
+            cancelRequested = true;
+        }
+        if (running != null && running.isAlive()) {
+            running.interrupt();
+            try {
+                running.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public long getNewMatches() {
+        return newMatches;
+    }
+
+    /**
+     * One-line summary of the current or last run, including an ETA while running.
+     */
+    public String describeProgress() {
+        long total = totalItems;
+        long processed = processedItems;
+        long elapsedNanos = System.nanoTime() - startedAtNanos;
+
+        StringBuilder sb = new StringBuilder("Rematch (threshold ").append(runThreshold).append(") ")
+                .append(state).append(": ").append(processed).append('/').append(total).append(" lost items");
+        if (total > 0) {
+            sb.append(String.format(" (%.1f%%)", Math.min(100.0, processed * 100.0 / total)));
+        }
+        sb.append(", ").append(newMatches).append(" new matches, ")
+                .append(skippedPairs).append(" already matched");
+        if (state == State.RUNNING && processed > 0 && total > processed) {
+            long remainingNanos = elapsedNanos / processed * (total - processed);
+            sb.append(", ETA ").append(formatDuration(remainingNanos));
+        } else if (state != State.IDLE) {
+            sb.append(", elapsed ").append(formatDuration(elapsedNanos));
+        }
+        return sb.toString();
+    }
+
+    private void run(int threshold, int startAfterId) {
+        int total = lostItemDAO.countLostItemsAfter(startAfterId);
+        if (total < 0) {
+            fail("could not count lost items");
+            return;
+        }
+        totalItems = total;
+        SimpleLogger.log("Rematch started at threshold " + threshold
+                + (startAfterId > 0 ? ", resuming after lost ID " + startAfterId : "")
+                + ": " + total + " lost items to process");
+
+        int lastId = startAfterId;
+        try {
+            while (!cancelRequested) {
+                List<LostItem> chunk = lostItemDAO.getLostItemsAfter(lastId, chunkSize);
+                if (chunk == null) {
+                    fail("could not load lost items after ID " + lastId);
+                    return;
+                }
+                if (chunk.isEmpty()) {
+                    break;
+                }
+
+                int chunkLastId = chunk.get(chunk.size() - 1).getId();
+                Map<Integer, Set<Integer>> existing = matchDAO.getMatchedFoundItemIds(chunk.get(0).getId(), chunkLastId);
+                if (existing == null) {
+                    fail("could not load existing matches");
+                    return;
+                }
+
+                List<Match> fresh = new ArrayList<>();
+                for (LostItem lostItem : chunk) {
+                    Set<Integer> matched = existing.getOrDefault(lostItem.getId(), Collections.emptySet());
+                    for (Match match : engine.rescoreLostItem(lostItem, threshold)) {
+                        if (matched.contains(match.getFoundItemId())) {
+                            skippedPairs++;
+                        } else {
+                            fresh.add(match);
+                        }
+                    }
+                }
+
+                if (!fresh.isEmpty()) {
+                    if (matchDAO.addMatches(fresh).length != fresh.size()) {
+                        fail("could not save matches for lost IDs up to " + chunkLastId);
+                        return;
+                    }
+                    engine.recordPairs(fresh);
+                }
+
+                lastId = chunkLastId;
+                processedItems += chunk.size();
+                newMatches += fresh.size();
+                writeCheckpoint(new Checkpoint(threshold, lastId, false));
+                SimpleLogger.log(describeProgress());
+
+                if (pauseMs > 0) {
+                    Thread.sleep(pauseMs);
+                }
+            }
+        } catch (InterruptedException e) {
+            cancelRequested = true;
+        } catch (IOException e) {
+            fail("could not write checkpoint " + checkpointFile + ": " + e.getMessage());
+            return;
+        }
+
+        if (cancelRequested) {
+            state = State.CANCELLED;
+            SimpleLogger.log("Rematch cancelled after lost ID " + lastId + "; " + newMatches + " new matches so far");
+            return;
+        }
+
+        tryWriteCheckpoint(new Checkpoint(threshold, lastId, true));
+        state = State.COMPLETED;
+        SimpleLogger.log(describeProgress());
+    }
+
+    private void fail(String reason) {
+        state = State.FAILED;
+        SimpleLogger.error("Rematch stopped: " + reason);
+    }
+
+    private static String formatDuration(long nanos) {
+        long seconds = TimeUnit.NANOSECONDS.toSeconds(nanos);
+        if (seconds < 60) {
+            return seconds + "s";
+        }
+        if (seconds < 3600) {
+            return String.format("%dm %02ds", seconds / 60, seconds % 60);
+        }
+        return String.format("%dh %02dm", seconds / 3600, (seconds % 3600) / 60);
+    }
+
+    // ---- Checkpoint file ----
+
+    private static class Checkpoint {
+        final int threshold;
+        final int lastLostItemId;
+        final boolean completed;
+
+        Checkpoint(int threshold, int lastLostItemId, boolean completed) {
+            this.threshold = threshold;
+            this.lastLostItemId = lastLostItemId;
+            this.completed = completed;
+        }
+    }
+
+    private Checkpoint readCheckpoint() {
+        if (!Files.exists(checkpointFile)) {
+            return null;
+        }
+
+        Properties props = new Properties();
+        try (InputStream in = Files.newInputStream(checkpointFile)) {
+            props.load(in);
+            return new Checkpoint(
+                    Integer.parseInt(props.getProperty("threshold")),
+                    Integer.parseInt(props.getProperty("last.lost.item.id")),
+                    Boolean.parseBoolean(props.getProperty("completed")));
+        } catch (IOException | RuntimeException e) {
+            SimpleLogger.error("Ignoring unreadable rematch checkpoint " + checkpointFile + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Writes the checkpoint to a temporary file and renames it over the old
+     * one, so a crash mid-write never leaves a truncated checkpoint.
+     */
+    private void writeCheckpoint(Checkpoint checkpoint) throws IOException {
+        Properties props = new Properties();
+        props.setProperty("threshold", Integer.toString(checkpoint.threshold));
+        props.setProperty("last.lost.item.id", Integer.toString(checkpoint.lastLostItemId));
+        props.setProperty("completed", Boolean.toString(checkpoint.completed));
+
+        Path dir = checkpointFile.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path tmp = dir.resolve(checkpointFile.getFileName() + ".tmp");
+        try (OutputStream out = Files.newOutputStream(tmp)) {
+            props.store(out, "Rematch progress");
+        }
+        Files.move(tmp, checkpointFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void tryWriteCheckpoint(Checkpoint checkpoint) {
+        try {
+            writeCheckpoint(checkpoint);
+        } catch (IOException e) {
+            SimpleLogger.error("Failed to write rematch checkpoint " + checkpointFile + ": " + e.getMessage());
+        }
+    }
+}
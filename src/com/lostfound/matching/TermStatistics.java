@@ -0,0 +1,143 @@
+package com.lostfound.matching;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Document frequencies of description terms across both item tables, for
+ * TF-IDF weighting of descriptions.
+ *
+ * Every lost and found item is one document, registered with its distinct
+ * term IDs (see TokenDictionary). Registering a document again replaces its
+ * previous terms, so an item may be reported at load time, when the DAO saves
+ * it and when it is indexed without being counted twice.
+ *
+ * idf(t) = ln((N + 1) / (df(t) + 1)) + 1. Once there are enough documents,
+ * terms found in more than maxDocumentRatio of them ("with", "the", ...) are
+ * common: they get weight 0 and their postings are never read.
+ *
+ * Writers synchronize. Scorers read without locking and may see a frequency
+ * that is one update behind, which only nudges a weight. Every change takes
+ * a new stamp, unique across instances, so derived values such as vector
+ * norms can be cached against it.
+ */
+final class TermStatistics {
+
+    static final int LOST = 0;
+    static final int FOUND = 1;
+
+    static final double DEFAULT_MAX_DOCUMENT_RATIO = 0.5;
+    private static final int MIN_DOCUMENTS_FOR_COMMON_TERMS = 20;
+    private static final AtomicInteger stamps = new AtomicInteger();
+
+    private final double maxDocumentRatio;
+
+    private final Map<Long, int[]> documents = new HashMap<>();  // guarded by this
+    private volatile int[] documentFrequency = new int[256];
+    private volatile float[] logDocumentFrequency = new float[256];  // ln(df + 1)
+    private volatile int documentCount;
+    private volatile double logDocumentCount;  // ln(N + 1)
+    private volatile int commonThreshold = Integer.MAX_VALUE;  // df above this is common
+    private volatile int stamp = stamps.incrementAndGet();
+
+    TermStatistics(double maxDocumentRatio) {
+        this.maxDocumentRatio = maxDocumentRatio;
+    }
+
+    /**
+     * Registers (or re-registers) a document with its sorted, distinct term IDs.
+     */
+    synchronized void put(int side, int id, int[] terms) {
+        int[] previous = documents.put(key(side, id), terms);
+        if (previous == terms) {
+            return;
+        }
+        if (previous != null) {
+            adjust(previous, -1);
+        }
+        adjust(terms, 1);
+        setDocumentCount(documents.size());
+    }
+
+    synchronized void remove(int side, int id) {
+        int[] previous = documents.remove(key(side, id));
+        if (previous != null) {
+            adjust(previous, -1);
+            setDocumentCount(documents.size());
+        }
+    }
+
+    synchronized void clear() {
+        documents.clear();
+        documentFrequency = new int[documentFrequency.length];
+        logDocumentFrequency = new float[logDocumentFrequency.length];
+        setDocumentCount(0);
+    }
+
+    /**
+     * Changes whenever any frequency does.
+     */
+    int stamp() {
+        return stamp;
+    }
+
+    int documentCount() {
+        return documentCount;
+    }
+
+    int documentFrequency(int termId) {
+        int[] df = documentFrequency;
+        return termId < df.length ? df[termId] : 0;
+    }
+
+    boolean isCommon(int termId) {
+        return documentFrequency(termId) > commonThreshold;
+    }
+
+    /**
+     * Inverse document frequency of the term, 0 for common terms.
+     */
+    double idf(int termId) {
+        int[] df = documentFrequency;
+        float[] logDf = logDocumentFrequency;
+        if (termId >= df.length || termId >= logDf.length) {
+            return logDocumentCount + 1.0;
+        }
+        if (df[termId] > commonThreshold) {
+            return 0;
+        }
+        return logDocumentCount - logDf[termId] + 1.0;
+    }
+
+    private void adjust(int[] terms, int delta) {
+        if (terms.length > 0 && terms[terms.length - 1] >= documentFrequency.length) {
+            int size = Math.max(terms[terms.length - 1] + 1, documentFrequency.length * 2);
+            // Grow the logs first: a reader that sees the new frequencies also sees logs long enough
+            logDocumentFrequency = Arrays.copyOf(logDocumentFrequency, size);
+            documentFrequency = Arrays.copyOf(documentFrequency, size);
+        }
+
+        int[] df = documentFrequency;
+        float[] logDf = logDocumentFrequency;
+        for (int term : terms) {
+            df[term] += delta;
+            logDf[term] = (float) Math.log(df[term] + 1);
+        }
+    }
+
+    private void setDocumentCount(int count) {
+        documentCount = count;
+        logDocumentCount = Math.log(count + 1);
+        commonThreshold = (count >= MIN_DOCUMENTS_FOR_COMMON_TERMS)
+                ? (int) Math.floor(count * maxDocumentRatio)
+                : Integer.MAX_VALUE;
+        // Last, so a norm cached against the new stamp was computed from the new values
+        stamp = stamps.incrementAndGet();
+    }
+
+    private static long key(int side, int id) {
+        return ((long) side << 32) | (id & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,43 @@
+package com.lostfound.matching;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Process-wide mapping from description keywords to dense int IDs, so keyword
+ * sets can be stored and compared as sorted int arrays.
+ */
+public final class TokenDictionary {
+
+    private static final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+    private static final AtomicInteger nextId = new AtomicInteger();
+
+    private TokenDictionary() {
+    }
+
+    public static int idOf(String token) {
+        Integer id = ids.get(token);
+        if (id != null) {
+            return id;
+        }
+        return ids.computeIfAbsent(token, t -> nextId.getAndIncrement());
+    }
+
+    public static int size() {
+        return nextId.get();
+    }
+
+    /**
+     * The terms indexed by ID, for writing a snapshot. An ID handed out
+     * while this runs may be missing (null).
+     */
+    static String[] terms() {
+        String[] terms = new String[nextId.get()];
+        ids.forEach((term, id) -> {
+            if (id < terms.length) {
+                terms[id] = term;
+            }
+        });
+        return terms;
+    }
+}
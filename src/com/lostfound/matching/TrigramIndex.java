@@ -0,0 +1,131 @@
+package com.lostfound.matching;
+
+import java.util.*;
+import java.util.function.IntConsumer;
+
+/**
+ * Trigram postings over the distinct compact item names, for finding the
+ * names that may be within a similarity bound of a query name without
+ * comparing it to every item.
+ *
+ * Postings point at names rather than items, so their length is bounded by
+ * the name vocabulary however many items share a popular name. A lookup
+ * counts how many trigrams each name shares with the query, then two filters
+ * drop names that cannot be similar enough, leaving the edit distance to the
+ * scorer:
+ * - length: |a| and |b| can differ by at most the allowed number of edits
+ * - count: each edit destroys at most 3 trigrams, so names within d edits
+ *   share at least max(|T(a)|, |T(b)|) - 3d distinct trigrams
+ * When that bound can drop to zero (short names, low similarity settings) a
+ * similar name may share no trigram at all, so every name of such a length is
+ * returned as well.
+ *
+ * Entries list rows of CandidateIndex's columns. Rows are not removed when
+ * their item is; the caller skips deleted rows and rebuilds the index when it
+ * compacts the columns.
+ *
+ * Not thread-safe; CandidateIndex serializes access.
+ */
+class TrigramIndex {
+
+    private static final class NameEntry {
+        final String name;
+        final long[] grams;
+        int[] rows = new int[2];
+        int size;
+        int shared;  // scratch count for the current lookup
+
+        NameEntry(String name, long[] grams) {
+            this.name = name;
+            this.grams = grams;
+        }
+
+        void add(int row) {
+            if (size == rows.length) {
+                rows = Arrays.copyOf(rows, size * 2);
+            }
+            rows[size++] = row;
+        }
+
+        void forEachRow(IntConsumer action) {
+            for (int i = 0; i < size; i++) {
+                action.accept(rows[i]);
+            }
+        }
+    }
+
+    private final Map<String, NameEntry> names = new HashMap<>();
+    private final Map<Long, List<NameEntry>> postings = new HashMap<>();
+    private final Map<Integer, List<NameEntry>> byLength = new HashMap<>();
+    private final List<NameEntry> touched = new ArrayList<>();
+
+    void add(int row, int nameCode) {
+        long[] grams = NameDictionary.trigrams(nameCode);
+        if (grams.length == 0) {
+            return;
+        }
+
+        String name = NameDictionary.compactName(nameCode);
+        NameEntry entry = names.get(name);
+        if (entry == null) {
+            NameEntry created = new NameEntry(name, grams);
+            names.put(name, created);
+            for (long gram : grams) {
+                postings.computeIfAbsent(gram, k -> new ArrayList<>()).add(created);
+            }
+            byLength.computeIfAbsent(name.length(), k -> new ArrayList<>()).add(created);
+            entry = created;
+        }
+        entry.add(row);
+    }
+
+    void clear() {
+        names.clear();
+        postings.clear();
+        byLength.clear();
+    }
+
+    /**
+     * Passes the rows whose names pass the length and count filters for
+     * minSimilarity against the query name to the action: a superset of the
+     * similar names, the caller still computes the actual similarity. A row
+     * may be passed more than once.
+     */
+    void similarTo(int nameCode, double minSimilarity, IntConsumer action) {
+        long[] grams = NameDictionary.trigrams(nameCode);
+        if (grams.length == 0) {
+            return;
+        }
+
+        for (long gram : grams) {
+            for (NameEntry entry : postings.getOrDefault(gram, Collections.emptyList())) {
+                if (entry.shared++ == 0) {
+                    touched.add(entry);
+                }
+            }
+        }
+
+        int queryLength = NameDictionary.compactName(nameCode).length();
+        for (NameEntry entry : touched) {
+            int length = entry.name.length();
+            int maxEdits = NameSimilarity.maxEdits(Math.max(queryLength, length), minSimilarity);
+            if (Math.abs(queryLength - length) <= maxEdits
+                    && entry.shared >= Math.max(grams.length, entry.grams.length) - 3 * maxEdits) {
+                entry.forEachRow(action);
+            }
+            entry.shared = 0;
+        }
+        touched.clear();
+
+        // Lengths at which a similar name need not share any trigram with the query
+        for (Map.Entry<Integer, List<NameEntry>> lengthEntry : byLength.entrySet()) {
+            int length = lengthEntry.getKey();
+            int maxEdits = NameSimilarity.maxEdits(Math.max(queryLength, length), minSimilarity);
+            if (Math.abs(queryLength - length) <= maxEdits && grams.length <= 3 * maxEdits) {
+                for (NameEntry entry : lengthEntry.getValue()) {
+                    entry.forEachRow(action);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.lostfound.matching;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Mapping from the distinct values of one normalized text field (colors,
+ * locations) to dense int codes, so rows can store and compare the field as
+ * an int. Like TokenDictionary, codes are never reused.
+ */
+final class ValueDictionary {
+
+    static final ValueDictionary COLORS = new ValueDictionary();
+    static final ValueDictionary LOCATIONS = new ValueDictionary();
+
+    private final ConcurrentHashMap<String, Integer> codes = new ConcurrentHashMap<>();
+    private final AtomicInteger nextCode = new AtomicInteger();
+
+    private ValueDictionary() {
+    }
+
+    int codeOf(String value) {
+        Integer code = codes.get(value);
+        if (code != null) {
+            return code;
+        }
+        return codes.computeIfAbsent(value, v -> nextCode.getAndIncrement());
+    }
+
+    int size() {
+        return nextCode.get();
+    }
+
+    /**
+     * The values indexed by code, for writing a snapshot. A code handed out
+     * while this runs may be missing (null).
+     */
+    String[] values() {
+        String[] values = new String[nextCode.get()];
+        codes.forEach((value, code) -> {
+            if (code < values.length) {
+                values[code] = value;
+            }
+        });
+        return values;
+    }
+}
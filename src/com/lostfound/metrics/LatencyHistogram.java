@@ -0,0 +1,124 @@
+package com.lostfound.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram in nanoseconds with HdrHistogram-style
+ * log-linear buckets: each power of two is split into 32 equal sub-buckets,
+ * so any recorded value is reported within about 3% of itself whatever its
+ * magnitude, in a fixed 10 KB per histogram.
+ *
+ * Recording is one bucket increment plus count, sum and max updates, all
+ * without locks, so it can sit on the hot path of every DAO call. Values
+ * above about 4.9 hours land in the top bucket.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 44;  // 2^44 ns ~ 4.9 h
+    private static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts.incrementAndGet(bucketOf(value));
+        count.increment();
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * Records the time elapsed since startNanos (a System.nanoTime() value).
+     */
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    public Snapshot snapshot() {
+        long[] copy = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = counts.get(i);
+            total += copy[i];
+        }
+        // Bucket counts are the reference: count and sum may be a record or two ahead
+        return new Snapshot(copy, total, sum.sum(), max.get());
+    }
+
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        if (exponent >= MAX_EXPONENT) {
+            return BUCKETS - 1;
+        }
+        int group = exponent - SUB_BUCKET_BITS + 1;
+        int sub = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return group * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * Largest value that falls into the bucket.
+     */
+    static long highestValueIn(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int group = bucket / SUB_BUCKETS;
+        int sub = bucket % SUB_BUCKETS;
+        long lowest = (long) (SUB_BUCKETS + sub) << (group - 1);
+        return lowest + (1L << (group - 1)) - 1;
+    }
+
+    /**
+     * Point-in-time copy of a histogram.
+     */
+    public static final class Snapshot {
+        private final long[] counts;
+        private final long count;
+        private final long sum;
+        private final long max;
+
+        private Snapshot(long[] counts, long count, long sum, long max) {
+            this.counts = counts;
+            this.count = count;
+            this.sum = sum;
+            this.max = max;
+        }
+
+        public long getCount() { return count; }
+        public long getSumNanos() { return sum; }
+        public long getMaxNanos() { return max; }
+
+        public long getMeanNanos() {
+            return count > 0 ? sum / count : 0;
+        }
+
+        /**
+         * Value at the given quantile (0..1) in nanoseconds: the top of the
+         * bucket holding it, capped at the largest value recorded.
+         */
+        public long valueAt(double quantile) {
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(quantile * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(highestValueIn(i), max);
+                }
+            }
+            return max;
+        }
+    }
+}
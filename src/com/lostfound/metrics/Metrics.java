@@ -0,0 +1,140 @@
+package com.lostfound.metrics;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Process-wide registry of hot-path metrics: latency timers, counters and
+ * gauges, keyed by snake_case names such as "dao_lost_item_add_lost_item".
+ *
+ * Look a metric up once and keep the reference; recording into it is lock
+ * free. Registering a gauge under a name that is already taken replaces it,
+ * so a component that is recreated reports its current instance.
+ *
+ * describe() renders the console table, MetricsReporter the scrape file.
+ */
+public final class Metrics {
+
+    private static final Map<String, LatencyHistogram> timers = new ConcurrentHashMap<>();
+    private static final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+    private static final Map<String, LongSupplier> gauges = new ConcurrentHashMap<>();
+
+    private Metrics() {
+    }
+
+    public static LatencyHistogram timer(String name) {
+        return timers.computeIfAbsent(name, k -> new LatencyHistogram());
+    }
+
+    public static LongAdder counter(String name) {
+        return counters.computeIfAbsent(name, k -> new LongAdder());
+    }
+
+    public static void gauge(String name, LongSupplier value) {
+        gauges.put(name, value);
+    }
+
+    static Map<String, LatencyHistogram> timers() {
+        return new TreeMap<>(timers);
+    }
+
+    static Map<String, LongAdder> counters() {
+        return new TreeMap<>(counters);
+    }
+
+    static Map<String, LongSupplier> gauges() {
+        return new TreeMap<>(gauges);
+    }
+
+    /**
+     * Wraps target so every call to a method of type is timed under
+     * prefix + "_" + the method name in snake_case. Methods inherited from
+     * Object are passed through untimed; exceptions reach the caller unchanged.
+     */
+    public static <T> T timed(Class<T> type, T target, String prefix) {
+        Map<Method, LatencyHistogram> byMethod = new HashMap<>();
+        for (Method method : type.getMethods()) {
+            byMethod.put(method, timer(prefix + "_" + snakeCase(method.getName())));
+        }
+
+        InvocationHandler handler = (proxy, method, args) -> {
+            LatencyHistogram histogram = byMethod.get(method);
+            long start = System.nanoTime();
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            } finally {
+                if (histogram != null) {
+                    histogram.recordSince(start);
+                }
+            }
+        };
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, handler));
+    }
+
+    static String snakeCase(String name) {
+        StringBuilder snake = new StringBuilder(name.length() + 8);
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (Character.isUpperCase(c)) {
+                if (i > 0) {
+                    snake.append('_');
+                }
+                snake.append(Character.toLowerCase(c));
+            } else {
+                snake.append(c);
+            }
+        }
+        return snake.toString();
+    }
+
+    /**
+     * Human-readable table of every timer's percentiles, then the counters
+     * and gauges.
+     */
+    public static String describe() {
+        StringBuilder out = new StringBuilder("Performance Metrics\n");
+        out.append(String.format("  %-44s %8s %9s %9s %9s %9s %9s%n",
+                "Timer", "Count", "p50", "p90", "p99", "p99.9", "Max"));
+        for (Map.Entry<String, LatencyHistogram> entry : timers().entrySet()) {
+            LatencyHistogram.Snapshot s = entry.getValue().snapshot();
+            if (s.getCount() == 0) {
+                continue;
+            }
+            out.append(String.format("  %-44s %8d %9s %9s %9s %9s %9s%n", entry.getKey(), s.getCount(),
+                    formatNanos(s.valueAt(0.5)), formatNanos(s.valueAt(0.9)), formatNanos(s.valueAt(0.99)),
+                    formatNanos(s.valueAt(0.999)), formatNanos(s.getMaxNanos())));
+        }
+
+        Map<String, Long> values = new TreeMap<>();
+        counters().forEach((name, counter) -> values.put(name, counter.sum()));
+        gauges().forEach((name, gauge) -> values.put(name, gauge.getAsLong()));
+        if (!values.isEmpty()) {
+            out.append("  Counters and gauges\n");
+            values.forEach((name, value) -> out.append(String.format("  %-44s %8d%n", name, value)));
+        }
+        return out.toString().stripTrailing();
+    }
+
+    static String formatNanos(long nanos) {
+        if (nanos < 1_000) {
+            return nanos + " ns";
+        }
+        if (nanos < 1_000_000) {
+            return String.format("%.1f us", nanos / 1e3);
+        }
+        if (nanos < 1_000_000_000) {
+            return String.format("%.1f ms", nanos / 1e6);
+        }
+        return String.format("%.2f s", nanos / 1e9);
+    }
+}
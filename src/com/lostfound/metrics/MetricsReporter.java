@@ -0,0 +1,122 @@
+package com.lostfound.metrics;
+
+import com.lostfound.db.DbConnection;
+import com.lostfound.util.SimpleLogger;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Writes every metric to a local file at a fixed interval, in the
+ * Prometheus text exposition format, so a node exporter textfile collector
+ * (or anything that reads that format) can scrape it.
+ *
+ * Timers become summaries in seconds with 0.5/0.9/0.99/0.999 quantiles,
+ * counters get a _total suffix, all names a "lostfound_" prefix. The file is
+ * written to a temporary file and renamed over the old one, so a reader never
+ * sees a partial write.
+ */
+public class MetricsReporter {
+
+    private static final String PREFIX = "lostfound_";
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private final Path file;
+    private final ScheduledExecutorService timer;
+
+    public MetricsReporter(Path file, long intervalMs) {
+        if (intervalMs <= 0) {
+            throw new IllegalArgumentException("Invalid metrics interval: " + intervalMs + " ms");
+        }
+
+        this.file = file;
+        this.timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "metrics-reporter");
+            t.setDaemon(true);
+            return t;
+        });
+        timer.scheduleAtFixedRate(this::tryWrite, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+
+        SimpleLogger.log("Metrics written to " + file + " every " + intervalMs + " ms");
+    }
+
+    /**
+     * Starts a reporter for metrics.file every metrics.interval.ms, or
+     * returns null if no file is configured.
+     */
+    public static MetricsReporter fromConfig() {
+        String path = DbConnection.getProperty("metrics.file");
+        if (path == null || path.trim().isEmpty()) {
+            return null;
+        }
+        return new MetricsReporter(Paths.get(path.trim()), DbConnection.getLongProperty("metrics.interval.ms", 60_000));
+    }
+
+    /**
+     * All metrics in the Prometheus text exposition format.
+     */
+    public static String format() {
+        StringBuilder out = new StringBuilder();
+        for (Map.Entry<String, LatencyHistogram> entry : Metrics.timers().entrySet()) {
+            String name = PREFIX + entry.getKey() + "_seconds";
+            LatencyHistogram.Snapshot s = entry.getValue().snapshot();
+            out.append("# TYPE ").append(name).append(" summary\n");
+            for (double q : QUANTILES) {
+                out.append(name).append("{quantile=\"").append(q).append("\"} ")
+                        .append(seconds(s.valueAt(q))).append('\n');
+            }
+            out.append(name).append("_sum ").append(seconds(s.getSumNanos())).append('\n');
+            out.append(name).append("_count ").append(s.getCount()).append('\n');
+        }
+        for (Map.Entry<String, LongAdder> entry : Metrics.counters().entrySet()) {
+            String name = PREFIX + entry.getKey() + "_total";
+            out.append("# TYPE ").append(name).append(" counter\n");
+            out.append(name).append(' ').append(entry.getValue().sum()).append('\n');
+        }
+        for (Map.Entry<String, LongSupplier> entry : Metrics.gauges().entrySet()) {
+            String name = PREFIX + entry.getKey();
+            out.append("# TYPE ").append(name).append(" gauge\n");
+            out.append(name).append(' ').append(entry.getValue().getAsLong()).append('\n');
+        }
+        return out.toString();
+    }
+
+    private static String seconds(long nanos) {
+        return String.format(Locale.ROOT, "%.9f", nanos / 1e9);
+    }
+
+    public void write() throws IOException {
+        Path dir = file.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path tmp = dir.resolve(file.getFileName() + ".tmp");
+        Files.write(tmp, format().getBytes(StandardCharsets.UTF_8));
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void tryWrite() {
+        try {
+            write();
+        } catch (IOException | RuntimeException e) {
+            SimpleLogger.error("Failed to write metrics to " + file + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Stops the timer and writes the file one last time.
+     */
+    public void shutdown() {
+        timer.shutdownNow();
+        tryWrite();
+    }
+}
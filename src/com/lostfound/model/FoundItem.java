@@ -1,5 +1,6 @@
 package com.lostfound.model;
 
+import com.lostfound.matching.ItemFeatures;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 
@@ -11,6 +12,7 @@ public class FoundItem {
     private String description;
     private String finderInfo;
     private LocalDateTime foundDate;
+    private ItemFeatures features; // derived from the fields above, reset when they change
 
     public FoundItem(int id, String itemName, String color, String location,
                      String description, String finderInfo, LocalDateTime foundDate) {
@@ -33,26 +35,54 @@ public class FoundItem {
         this.foundDate = LocalDateTime.now();
     }
 
+    /**
+     * Copies the item, sharing its (immutable) matching features.
+     */
+    public FoundItem(FoundItem other) {
+        this.id = other.id;
+        this.itemName = other.itemName;
+        this.color = other.color;
+        this.location = other.location;
+        this.description = other.description;
+        this.finderInfo = other.finderInfo;
+        this.foundDate = other.foundDate;
+        this.features = other.features;
+    }
+
     // Getters and Setters
     public int getId() { return id; }
     public void setId(int id) { this.id = id; }
     public String getItemName() { return itemName; }
-    public void setItemName(String itemName) { this.itemName = itemName; }
+    public void setItemName(String itemName) { this.itemName = itemName; this.features = null; }
     public String getColor() { return color; }
-    public void setColor(String color) { this.color = color; }
+    public void setColor(String color) { this.color = color; this.features = null; }
     public String getLocation() { return location; }
-    public void setLocation(String location) { this.location = location; }
+    public void setLocation(String location) { this.location = location; this.features = null; }
     public String getDescription() { return description; }
-    public void setDescription(String description) { this.description = description; }
+    public void setDescription(String description) { this.description = description; this.features = null; }
     public String getFinderInfo() { return finderInfo; }
     public void setFinderInfo(String finderInfo) { this.finderInfo = finderInfo; }
     public LocalDateTime getFoundDate() { return foundDate; }
     public void setFoundDate(LocalDateTime foundDate) { this.foundDate = foundDate; }
 
+    /**
+     * Normalized matching features, computed on first use and cached.
+     */
+    public ItemFeatures getFeatures() {
+        ItemFeatures f = features;
+        if (f == null) {
+            f = ItemFeatures.of(itemName, color, location, description);
+            features = f;
+        }
+        return f;
+    }
+
     @Override
     public String toString() {
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-        return String.format("Found Item [ID: %d]\n  Name: %s\n  Color: %s\n  Location: %s\n  Description: %s\n  Finder: %s\n  Found: %s",
-                id, itemName, color, location, description, finderInfo, foundDate.format(formatter));
+        // Items loaded for a list page carry no description
+        return String.format("Found Item [ID: %d]\n  Name: %s\n  Color: %s\n  Location: %s\n%s  Finder: %s\n  Found: %s",
+                id, itemName, color, location, (description != null) ? "  Description: " + description + "\n" : "",
+                finderInfo, foundDate.format(formatter));
     }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.lostfound.model;
 
+import com.lostfound.matching.ItemFeatures;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 
@@ -11,6 +12,7 @@ public class LostItem {
     private String description;
     private String contactInfo;
     private LocalDateTime reportedDate;
+    private ItemFeatures features; // derived from the fields above, reset when they change
 
     public LostItem(int id, String itemName, String color, String location,
                     String description, String contactInfo, LocalDateTime reportedDate) {
@@ -33,26 +35,54 @@ public class LostItem {
         this.reportedDate = LocalDateTime.now();
     }
 
+    /**
+     * Copies the item, sharing its (immutable) matching features.
+     */
+    public LostItem(LostItem other) {
+        this.id = other.id;
+        this.itemName = other.itemName;
+        this.color = other.color;
+        this.location = other.location;
+        this.description = other.description;
+        this.contactInfo = other.contactInfo;
+        this.reportedDate = other.reportedDate;
+        this.features = other.features;
+    }
+
     // Getters and Setters
     public int getId() { return id; }
     public void setId(int id) { this.id = id; }
     public String getItemName() { return itemName; }
-    public void setItemName(String itemName) { this.itemName = itemName; }
+    public void setItemName(String itemName) { this.itemName = itemName; this.features = null; }
     public String getColor() { return color; }
-    public void setColor(String color) { this.color = color; }
+    public void setColor(String color) { this.color = color; this.features = null; }
     public String getLocation() { return location; }
-    public void setLocation(String location) { this.location = location; }
+    public void setLocation(String location) { this.location = location; this.features = null; }
     public String getDescription() { return description; }
-    public void setDescription(String description) { this.description = description; }
+    public void setDescription(String description) { this.description = description; this.features = null; }
     public String getContactInfo() { return contactInfo; }
     public void setContactInfo(String contactInfo) { this.contactInfo = contactInfo; }
     public LocalDateTime getReportedDate() { return reportedDate; }
     public void setReportedDate(LocalDateTime reportedDate) { this.reportedDate = reportedDate; }
 
+    /**
+     * Normalized matching features, computed on first use and cached.
+     */
+    public ItemFeatures getFeatures() {
+        ItemFeatures f = features;
+        if (f == null) {
+            f = ItemFeatures.of(itemName, color, location, description);
+            features = f;
+        }
+        return f;
+    }
+
     @Override
     public String toString() {
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-        return String.format("Lost Item [ID: %d]\n  Name: %s\n  Color: %s\n  Location: %s\n  Description: %s\n  Contact: %s\n  Reported: %s",
-                id, itemName, color, location, description, contactInfo, reportedDate.format(formatter));
+        // Items loaded for a list page carry no description
+        return String.format("Lost Item [ID: %d]\n  Name: %s\n  Color: %s\n  Location: %s\n%s  Contact: %s\n  Reported: %s",
+                id, itemName, color, location, (description != null) ? "  Description: " + description + "\n" : "",
+                contactInfo, reportedDate.format(formatter));
     }
 }
\ No newline at end of file
@@ -29,6 +29,13 @@ public class Match {
         this.status = status;
     }
 
+    /**
+     * Packs a (lost item, found item) pair into one long; MATCHES holds at most one row per pair.
+     */
+    public static long pairKey(int lostItemId, int foundItemId) {
+        return ((long) lostItemId << 32) | (foundItemId & 0xFFFFFFFFL);
+    }
+
     // Getters and Setters
     public int getMatchId() { return matchId; }
     public void setMatchId(int matchId) { this.matchId = matchId; }
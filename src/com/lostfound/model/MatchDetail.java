@@ -0,0 +1,48 @@
+package com.lostfound.model;
+
+/**
+ * Read-only view of a match joined with summary fields of both items,
+ * as returned by a single joined query.
+ */
+public class MatchDetail {
+    private final Match match;
+    private final String lostItemName;
+    private final String lostItemColor;
+    private final String lostItemLocation;
+    private final String contactInfo;
+    private final String foundItemName;
+    private final String foundItemColor;
+    private final String foundItemLocation;
+    private final String finderInfo;
+
+    public MatchDetail(Match match, String lostItemName, String lostItemColor, String lostItemLocation,
+                       String contactInfo, String foundItemName, String foundItemColor,
+                       String foundItemLocation, String finderInfo) {
+        this.match = match;
+        this.lostItemName = lostItemName;
+        this.lostItemColor = lostItemColor;
+        this.lostItemLocation = lostItemLocation;
+        this.contactInfo = contactInfo;
+        this.foundItemName = foundItemName;
+        this.foundItemColor = foundItemColor;
+        this.foundItemLocation = foundItemLocation;
+        this.finderInfo = finderInfo;
+    }
+
+    // Getters
+    public Match getMatch() { return match; }
+    public String getLostItemName() { return lostItemName; }
+    public String getLostItemColor() { return lostItemColor; }
+    public String getLostItemLocation() { return lostItemLocation; }
+    public String getContactInfo() { return contactInfo; }
+    public String getFoundItemName() { return foundItemName; }
+    public String getFoundItemColor() { return foundItemColor; }
+    public String getFoundItemLocation() { return foundItemLocation; }
+    public String getFinderInfo() { return finderInfo; }
+
+    @Override
+    public String toString() {
+        return match + "\n\nLost Item: " + lostItemName + " (" + lostItemColor + ")" +
+                "\nFound Item: " + foundItemName + " (" + foundItemColor + ")";
+    }
+}
@@ -0,0 +1,51 @@
+package com.lostfound.model;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Aggregate counters for the statistics screen, computed in SQL.
+ */
+public class Statistics {
+    public static final int SCORE_BUCKET_WIDTH = 10;
+
+    private final long totalLost;
+    private final long totalFound;
+    private final Map<String, Long> matchesByStatus;
+    private final long[] scoreHistogram;
+    private final LocalDateTime computedAt;
+
+    public Statistics(long totalLost, long totalFound, Map<String, Long> matchesByStatus,
+                      long[] scoreHistogram, LocalDateTime computedAt) {
+        this.totalLost = totalLost;
+        this.totalFound = totalFound;
+        this.matchesByStatus = matchesByStatus;
+        this.scoreHistogram = scoreHistogram;
+        this.computedAt = computedAt;
+    }
+
+    // Getters
+    public long getTotalLost() { return totalLost; }
+    public long getTotalFound() { return totalFound; }
+    public LocalDateTime getComputedAt() { return computedAt; }
+
+    public long getTotalMatches() {
+        long total = 0;
+        for (long count : matchesByStatus.values()) {
+            total += count;
+        }
+        return total;
+    }
+
+    public long getMatchCount(String status) {
+        return matchesByStatus.getOrDefault(status, 0L);
+    }
+
+    /**
+     * Match counts per score bucket; bucket i covers scores
+     * [i * SCORE_BUCKET_WIDTH, (i + 1) * SCORE_BUCKET_WIDTH).
+     */
+    public long[] getScoreHistogram() {
+        return scoreHistogram.clone();
+    }
+}
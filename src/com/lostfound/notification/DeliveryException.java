@@ -0,0 +1,27 @@
+package com.lostfound.notification;
+
+import java.io.IOException;
+
+/**
+ * A failed delivery. Permanent failures (such as an address the server
+ * rejects) are not worth retrying; everything else is.
+ */
+public class DeliveryException extends IOException {
+    private static final long serialVersionUID = 1L;
+
+    private final boolean permanent;
+
+    public DeliveryException(String message, boolean permanent) {
+        super(message);
+        this.permanent = permanent;
+    }
+
+    public DeliveryException(String message, Throwable cause) {
+        super(message, cause);
+        this.permanent = false;
+    }
+
+    public boolean isPermanent() {
+        return permanent;
+    }
+}
@@ -0,0 +1,151 @@
+package com.lostfound.notification;
+
+import com.lostfound.db.DbConnection;
+import com.lostfound.model.FoundItem;
+import com.lostfound.model.LostItem;
+import com.lostfound.model.Match;
+import com.lostfound.notification.MatchEmailRenderer.Notice;
+import com.lostfound.util.SimpleLogger;
+
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Collects match notifications per recipient and sends one digest instead of
+ * a message per match, so a busy contact (say, the campus security desk that
+ * hands in most found items) gets one email per burst.
+ *
+ * A recipient's buffer is flushed when the window has passed since its first
+ * notice, or as soon as it holds maxCount notices. A buffer holding a single
+ * notice is sent as the regular message. Flushed messages go to the queued
+ * dispatcher, which takes care of delivery and retries.
+ */
+public class DigestNotificationService implements NotificationService {
+
+    private final MatchEmailRenderer renderer;
+    private final QueuedNotificationDispatcher dispatcher;
+    private final long windowMs;
+    private final int maxCount;
+
+    private final Map<String, Buffer> buffers = new HashMap<>();  // guarded by this
+    private final ScheduledExecutorService timer;
+
+    // Metrics
+    private final AtomicLong notices = new AtomicLong();
+    private final AtomicLong messages = new AtomicLong();
+
+    private static final class Buffer {
+        final List<Notice> notices = new ArrayList<>();
+        ScheduledFuture<?> flushTask;
+    }
+
+    public DigestNotificationService(QueuedNotificationDispatcher dispatcher) {
+        this(new MatchEmailRenderer(), dispatcher,
+                DbConnection.getLongProperty("notification.digest.window.ms", 0),
+                DbConnection.getIntProperty("notification.digest.max.count", 20));
+    }
+
+    public DigestNotificationService(MatchEmailRenderer renderer, QueuedNotificationDispatcher dispatcher,
+                                     long windowMs, int maxCount) {
+        if (windowMs <= 0 || maxCount < 1) {
+            throw new IllegalArgumentException("Invalid digest settings: window=" + windowMs + " ms, maxCount=" + maxCount);
+        }
+
+        this.renderer = renderer;
+        this.dispatcher = dispatcher;
+        this.windowMs = windowMs;
+        this.maxCount = maxCount;
+        this.timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "notification-digest");
+            t.setDaemon(true);
+            return t;
+        });
+
+        SimpleLogger.log("Notification digests enabled (window " + windowMs + " ms, max " + maxCount + " per message)");
+    }
+
+    @Override
+    public void notifyMatch(Match match, LostItem lostItem, FoundItem foundItem) {
+        for (Notice notice : renderer.noticesFor(match, lostItem, foundItem)) {
+            notices.incrementAndGet();
+            List<Notice> full = add(notice);
+            if (full != null) {
+                send(full);
+            }
+        }
+    }
+
+    /**
+     * Buffers the notice; returns the recipient's notices if that filled the
+     * buffer, in which case they are no longer buffered.
+     */
+    private synchronized List<Notice> add(Notice notice) {
+        String recipient = notice.getRecipient();
+        Buffer buffer = buffers.get(recipient);
+        if (buffer == null) {
+            Buffer created = new Buffer();
+            created.flushTask = timer.schedule(() -> flushIfCurrent(recipient, created), windowMs, TimeUnit.MILLISECONDS);
+            buffers.put(recipient, created);
+            buffer = created;
+        }
+
+        buffer.notices.add(notice);
+        if (buffer.notices.size() < maxCount) {
+            return null;
+        }
+
+        buffers.remove(recipient);
+        buffer.flushTask.cancel(false);
+        return buffer.notices;
+    }
+
+    private void flushIfCurrent(String recipient, Buffer buffer) {
+        synchronized (this) {
+            // The buffer may have been flushed by count and replaced since this was scheduled
+            if (buffers.get(recipient) != buffer) {
+                return;
+            }
+            buffers.remove(recipient);
+        }
+        send(buffer.notices);
+    }
+
+    private void send(List<Notice> batch) {
+        messages.incrementAndGet();
+        dispatcher.enqueue(renderer.renderDigest(batch));
+        if (batch.size() > 1) {
+            SimpleLogger.log("Digest of " + batch.size() + " matches queued for " + batch.get(0).getRecipient());
+        }
+    }
+
+    /**
+     * Sends everything still buffered, then shuts the dispatcher down.
+     */
+    @Override
+    public void shutdown() {
+        timer.shutdownNow();
+        List<List<Notice>> remaining = new ArrayList<>();
+        synchronized (this) {
+            for (Buffer buffer : buffers.values()) {
+                remaining.add(buffer.notices);
+            }
+            buffers.clear();
+        }
+        for (List<Notice> batch : remaining) {
+            send(batch);
+        }
+        dispatcher.shutdown();
+    }
+
+    @Override
+    public String describeStats() {
+        long noticeCount = notices.get();
+        long messageCount = messages.get();
+        return String.format("Digests\n  Notices: %d | Messages: %d | Saved: %d\n",
+                noticeCount, messageCount, noticeCount - messageCount) + dispatcher.describeStats();
+    }
+}
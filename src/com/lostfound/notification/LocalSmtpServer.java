@@ -0,0 +1,168 @@
+package com.lostfound.notification;
+
+import java.io.*;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Stand-in SMTP server for trying out email notifications locally. It accepts
+ * every message, prints a line per message and, if given a directory, saves
+ * each one there as an .eml file. Nothing is relayed.
+ *
+ * Usage: java -cp ... com.lostfound.notification.LocalSmtpServer [port] [outbox-dir]
+ * then set notification.mode=smtp, smtp.host=localhost and smtp.port to match.
+ */
+public class LocalSmtpServer implements Closeable {
+
+    private final ServerSocket serverSocket;
+    private final Path outbox;
+    private final AtomicInteger received = new AtomicInteger();
+    private volatile boolean running = true;
+
+    public LocalSmtpServer(int port, Path outbox) throws IOException {
+        this.serverSocket = new ServerSocket(port);
+        this.outbox = outbox;
+        if (outbox != null) {
+            Files.createDirectories(outbox);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 2525;
+        Path outbox = args.length > 1 ? Paths.get(args[1]) : null;
+
+        LocalSmtpServer server = new LocalSmtpServer(port, outbox);
+        System.out.println("Local SMTP server listening on port " + server.getPort()
+                + (outbox != null ? ", saving messages to " + outbox : ""));
+        server.serve();
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public int getReceivedCount() {
+        return received.get();
+    }
+
+    /**
+     * Accepts connections until closed, one thread per connection.
+     */
+    public void serve() throws IOException {
+        while (running) {
+            Socket client;
+            try {
+                client = serverSocket.accept();
+            } catch (SocketException e) {
+                if (!running) {
+                    return;
+                }
+                throw e;
+            }
+            Thread handler = new Thread(() -> handle(client), "smtp-session");
+            handler.setDaemon(true);
+            handler.start();
+        }
+    }
+
+    /**
+     * Starts serving on a background daemon thread.
+     */
+    public LocalSmtpServer start() {
+        Thread acceptor = new Thread(() -> {
+            try {
+                serve();
+            } catch (IOException e) {
+                System.err.println("Local SMTP server stopped: " + e.getMessage());
+            }
+        }, "smtp-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        return this;
+    }
+
+    private void handle(Socket client) {
+        try (Socket socket = client;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             Writer out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8)) {
+
+            reply(out, "220 localhost LocalSmtpServer ready");
+            String recipient = null;
+            String line;
+            while ((line = in.readLine()) != null) {
+                String verb = line.length() >= 4 ? line.substring(0, 4).toUpperCase() : line.toUpperCase();
+                switch (verb) {
+                    case "EHLO":
+                    case "HELO":
+                        reply(out, "250 localhost");
+                        break;
+                    case "MAIL":
+                    case "RSET":
+                    case "NOOP":
+                        reply(out, "250 OK");
+                        break;
+                    case "RCPT":
+                        recipient = line.substring(line.indexOf(':') + 1).trim();
+                        reply(out, "250 OK");
+                        break;
+                    case "DATA":
+                        reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                        store(recipient, readData(in));
+                        reply(out, "250 OK: queued as " + received.get());
+                        break;
+                    case "QUIT":
+                        reply(out, "221 Bye");
+                        return;
+                    default:
+                        reply(out, "502 Command not implemented");
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("SMTP session error: " + e.getMessage());
+        }
+    }
+
+    private static String readData(BufferedReader in) throws IOException {
+        StringBuilder data = new StringBuilder();
+        String line;
+        while ((line = in.readLine()) != null && !line.equals(".")) {
+            data.append(line.startsWith("..") ? line.substring(1) : line).append("\r\n");
+        }
+        return data.toString();
+    }
+
+    private void store(String recipient, String data) throws IOException {
+        int number = received.incrementAndGet();
+        String subject = "";
+        for (String header : data.split("\r\n")) {
+            if (header.isEmpty()) {
+                break;
+            }
+            if (header.startsWith("Subject: ")) {
+                subject = header.substring(9);
+            }
+        }
+        System.out.println("[smtp] #" + number + " to " + recipient + ": " + subject);
+
+        if (outbox != null) {
+            Files.write(outbox.resolve(String.format("message-%05d.eml", number)), data.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static void reply(Writer out, String line) throws IOException {
+        out.write(line + "\r\n");
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        serverSocket.close();
+    }
+}
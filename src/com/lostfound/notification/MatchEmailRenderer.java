@@ -0,0 +1,180 @@
+package com.lostfound.notification;
+
+import com.lostfound.model.FoundItem;
+import com.lostfound.model.LostItem;
+import com.lostfound.model.Match;
+import com.lostfound.util.SimpleLogger;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Renders the match emails: one to the person who lost the item and one to
+ * the finder, or a digest covering several matches for one recipient.
+ * Contacts that are not email addresses (phone numbers, ...) are skipped.
+ *
+ * The bodies are precompiled MessageTemplates; every match template takes
+ * the values of MATCH_FIELDS.
+ */
+public class MatchEmailRenderer {
+
+    /**
+     * One match to tell one recipient about, from the point of view of
+     * either the owner of the lost item or the finder.
+     */
+    public static final class Notice {
+        private final String recipient;
+        private final Match match;
+        private final LostItem lostItem;
+        private final FoundItem foundItem;
+        private final boolean forLostOwner;
+
+        Notice(String recipient, Match match, LostItem lostItem, FoundItem foundItem, boolean forLostOwner) {
+            this.recipient = recipient;
+            this.match = match;
+            this.lostItem = lostItem;
+            this.foundItem = foundItem;
+            this.forLostOwner = forLostOwner;
+        }
+
+        public String getRecipient() { return recipient; }
+        public Match getMatch() { return match; }
+        public boolean isForLostOwner() { return forLostOwner; }
+    }
+
+    private static final String[] MATCH_FIELDS = {
+            "index", "score", "status",
+            "lostName", "lostColor", "lostLocation", "lostContact",
+            "foundName", "foundColor", "foundLocation", "finderContact"
+    };
+
+    private static final String GREETING = "Dear User,\n\n";
+    private static final String SIGNATURE = "Please contact each other to verify the match.\n\n"
+            + "Thank you,\nLost & Found System";
+
+    private static final MessageTemplate LOST_OWNER_BODY = MessageTemplate.compile(GREETING
+            + "A potential match has been found!\n\n"
+            + "Match Score: {{score}}/100\n"
+            + "Status: {{status}}\n\n"
+            + "Your Lost Item:\n"
+            + "  - Item: {{lostName}}\n"
+            + "  - Color: {{lostColor}}\n"
+            + "  - Location: {{lostLocation}}\n\n"
+            + "Found Item Details:\n"
+            + "  - Item: {{foundName}}\n"
+            + "  - Color: {{foundColor}}\n"
+            + "  - Location: {{foundLocation}}\n"
+            + "  - Finder Contact: {{finderContact}}\n\n"
+            + SIGNATURE, MATCH_FIELDS);
+
+    private static final MessageTemplate FINDER_BODY = MessageTemplate.compile(GREETING
+            + "A potential match has been found!\n\n"
+            + "Match Score: {{score}}/100\n"
+            + "Status: {{status}}\n\n"
+            + "Item You Found:\n"
+            + "  - Item: {{foundName}}\n"
+            + "  - Color: {{foundColor}}\n"
+            + "  - Location: {{foundLocation}}\n\n"
+            + "Lost Item Details:\n"
+            + "  - Item: {{lostName}}\n"
+            + "  - Color: {{lostColor}}\n"
+            + "  - Location: {{lostLocation}}\n"
+            + "  - Owner Contact: {{lostContact}}\n\n"
+            + SIGNATURE, MATCH_FIELDS);
+
+    private static final MessageTemplate DIGEST_HEADER = MessageTemplate.compile(GREETING
+            + "{{count}} potential matches have been found!\n\n", "count");
+
+    private static final MessageTemplate DIGEST_LOST_OWNER_ENTRY = MessageTemplate.compile(
+            "{{index}}. Your lost {{lostName}} ({{lostColor}}, {{lostLocation}})\n"
+                    + "   may be the {{foundName}} ({{foundColor}}) found at {{foundLocation}}\n"
+                    + "   Score: {{score}}/100 | Status: {{status}} | Finder Contact: {{finderContact}}\n\n",
+            MATCH_FIELDS);
+
+    private static final MessageTemplate DIGEST_FINDER_ENTRY = MessageTemplate.compile(
+            "{{index}}. The {{foundName}} ({{foundColor}}) you found at {{foundLocation}}\n"
+                    + "   may be the lost {{lostName}} ({{lostColor}}, {{lostLocation}})\n"
+                    + "   Score: {{score}}/100 | Status: {{status}} | Owner Contact: {{lostContact}}\n\n",
+            MATCH_FIELDS);
+
+    private static final MessageTemplate DIGEST_SUBJECT = MessageTemplate.compile(
+            "{{count}} Matches Found - Lost & Found", "count");
+
+    /**
+     * Returns one notice per party that has an email address.
+     */
+    public List<Notice> noticesFor(Match match, LostItem lostItem, FoundItem foundItem) {
+        List<Notice> notices = new ArrayList<>(2);
+
+        if (isEmailAddress(lostItem.getContactInfo())) {
+            notices.add(new Notice(lostItem.getContactInfo().trim(), match, lostItem, foundItem, true));
+        } else {
+            SimpleLogger.debug("No email address for lost item ID " + lostItem.getId());
+        }
+
+        if (isEmailAddress(foundItem.getFinderInfo())) {
+            notices.add(new Notice(foundItem.getFinderInfo().trim(), match, lostItem, foundItem, false));
+        } else {
+            SimpleLogger.debug("No email address for found item ID " + foundItem.getId());
+        }
+
+        return notices;
+    }
+
+    public List<NotificationMessage> render(Match match, LostItem lostItem, FoundItem foundItem) {
+        List<NotificationMessage> messages = new ArrayList<>(2);
+        for (Notice notice : noticesFor(match, lostItem, foundItem)) {
+            messages.add(render(notice));
+        }
+        return messages;
+    }
+
+    public NotificationMessage render(Notice notice) {
+        Object[] values = fieldValues(notice, 1);
+        return notice.forLostOwner
+                ? new NotificationMessage(notice.recipient, "Match Found - Your Lost Item", LOST_OWNER_BODY.render(values))
+                : new NotificationMessage(notice.recipient, "Match Found - Item You Found", FINDER_BODY.render(values));
+    }
+
+    /**
+     * Renders several notices for the same recipient as one message; a single
+     * notice gets the regular message.
+     */
+    public NotificationMessage renderDigest(List<Notice> notices) {
+        if (notices.size() == 1) {
+            return render(notices.get(0));
+        }
+
+        StringBuilder body = new StringBuilder(256 + notices.size() * 256);
+        DIGEST_HEADER.appendTo(body, notices.size());
+        int index = 1;
+        for (Notice notice : notices) {
+            MessageTemplate entry = notice.forLostOwner ? DIGEST_LOST_OWNER_ENTRY : DIGEST_FINDER_ENTRY;
+            entry.appendTo(body, fieldValues(notice, index++));
+        }
+        body.append(SIGNATURE);
+
+        return new NotificationMessage(notices.get(0).recipient, DIGEST_SUBJECT.render(notices.size()), body.toString());
+    }
+
+    private static Object[] fieldValues(Notice notice, int index) {
+        Match match = notice.match;
+        LostItem lost = notice.lostItem;
+        FoundItem found = notice.foundItem;
+        return new Object[]{
+                index, match.getScore(), match.getStatus(),
+                lost.getItemName(), lost.getColor(), lost.getLocation(), lost.getContactInfo(),
+                found.getItemName(), found.getColor(), found.getLocation(), found.getFinderInfo()
+        };
+    }
+
+    static boolean isEmailAddress(String contact) {
+        if (contact == null) {
+            return false;
+        }
+        String trimmed = contact.trim();
+        int at = trimmed.indexOf('@');
+        return at > 0 && at == trimmed.lastIndexOf('@') && at < trimmed.length() - 1
+                && trimmed.chars().noneMatch(c -> Character.isWhitespace(c) || c == '<' || c == '>');
+    }
+}
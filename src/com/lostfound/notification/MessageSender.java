@@ -0,0 +1,18 @@
+package com.lostfound.notification;
+
+import java.util.List;
+
+/**
+ * Delivers rendered messages over some channel (SMTP, SMS gateway, ...).
+ */
+public interface MessageSender {
+
+    /**
+     * Delivers all messages to one recipient, in order, ideally over a single
+     * connection. Each message is removed from the list once the channel has
+     * accepted it, so after a failure the list holds exactly what is left.
+     *
+     * @throws DeliveryException if delivery failed; see {@link DeliveryException#isPermanent()}
+     */
+    void send(String recipient, List<NotificationMessage> messages) throws DeliveryException;
+}
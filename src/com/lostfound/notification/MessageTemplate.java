@@ -0,0 +1,92 @@
+package com.lostfound.notification;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A text template with {{name}} placeholders, parsed once.
+ *
+ * compile() splits the text into literal segments and resolves every
+ * placeholder to a position in the field list, so rendering is a single pass
+ * of appends with no parsing, lookups or intermediate strings. Values are
+ * passed in field order; null renders as an empty string.
+ */
+public final class MessageTemplate {
+
+    private final String[] literals;   // literals[i] precedes placeholder i; one extra at the end
+    private final int[] slots;         // field index of each placeholder
+    private final int fieldCount;
+    private final int literalLength;
+
+    private MessageTemplate(String[] literals, int[] slots, int fieldCount) {
+        this.literals = literals;
+        this.slots = slots;
+        this.fieldCount = fieldCount;
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    /**
+     * Parses the template. Every placeholder must name one of the fields.
+     */
+    public static MessageTemplate compile(String text, String... fields) {
+        List<String> literals = new ArrayList<>();
+        List<Integer> slots = new ArrayList<>();
+
+        int pos = 0;
+        while (true) {
+            int open = text.indexOf("{{", pos);
+            if (open < 0) {
+                literals.add(text.substring(pos));
+                break;
+            }
+            int close = text.indexOf("}}", open + 2);
+            if (close < 0) {
+                throw new IllegalArgumentException("Unclosed placeholder at offset " + open);
+            }
+
+            String name = text.substring(open + 2, close).trim();
+            int slot = Arrays.asList(fields).indexOf(name);
+            if (slot < 0) {
+                throw new IllegalArgumentException("Unknown placeholder {{" + name + "}}, expected one of "
+                        + Arrays.toString(fields));
+            }
+
+            literals.add(text.substring(pos, open));
+            slots.add(slot);
+            pos = close + 2;
+        }
+
+        int[] slotArray = new int[slots.size()];
+        for (int i = 0; i < slotArray.length; i++) {
+            slotArray[i] = slots.get(i);
+        }
+        return new MessageTemplate(literals.toArray(new String[0]), slotArray, fields.length);
+    }
+
+    public String render(Object... values) {
+        return appendTo(new StringBuilder(literalLength + slots.length * 16), values).toString();
+    }
+
+    /**
+     * Renders into an existing builder, e.g. one digest entry after another.
+     */
+    public StringBuilder appendTo(StringBuilder out, Object... values) {
+        if (values.length != fieldCount) {
+            throw new IllegalArgumentException("Expected " + fieldCount + " values, got " + values.length);
+        }
+
+        for (int i = 0; i < slots.length; i++) {
+            out.append(literals[i]);
+            Object value = values[slots[i]];
+            if (value != null) {
+                out.append(value);
+            }
+        }
+        return out.append(literals[slots.length]);
+    }
+}
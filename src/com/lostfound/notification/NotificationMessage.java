@@ -0,0 +1,30 @@
+package com.lostfound.notification;
+
+import java.time.LocalDateTime;
+
+/**
+ * One rendered message for one recipient, ready to hand to a MessageSender.
+ */
+public final class NotificationMessage {
+    private final String recipient;
+    private final String subject;
+    private final String body;
+    private final LocalDateTime createdAt;
+
+    public NotificationMessage(String recipient, String subject, String body) {
+        this.recipient = recipient;
+        this.subject = subject;
+        this.body = body;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public String getRecipient() { return recipient; }
+    public String getSubject() { return subject; }
+    public String getBody() { return body; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+
+    @Override
+    public String toString() {
+        return "NotificationMessage[to=" + recipient + ", subject=" + subject + "]";
+    }
+}
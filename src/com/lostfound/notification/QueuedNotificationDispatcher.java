@@ -0,0 +1,345 @@
+package com.lostfound.notification;
+
+import com.lostfound.db.DbConnection;
+import com.lostfound.metrics.LatencyHistogram;
+import com.lostfound.metrics.Metrics;
+import com.lostfound.model.FoundItem;
+import com.lostfound.model.LostItem;
+import com.lostfound.model.Match;
+import com.lostfound.util.SimpleLogger;
+
+import java.util.*;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Sends match notifications in the background so reporting an item never
+ * waits on the network.
+ *
+ * notifyMatch renders the messages and queues them per recipient. Workers
+ * take one recipient at a time and send everything queued for it over a
+ * single session, so a burst of matches for the same person costs one
+ * connection. Messages queued while that session is running (or waiting to
+ * retry) are picked up by it or by the recipient's next turn. Failed sends
+ * are retried with exponential backoff and jitter, permanent failures are
+ * dropped immediately. The backlog is bounded; when it is full new messages
+ * are dropped and counted rather than blocking the caller.
+ *
+ * Workers run on virtual threads when the JVM supports them (Java 21+), so
+ * a worker sleeping between retries costs nothing; otherwise on daemon
+ * platform threads.
+ */
+public class QueuedNotificationDispatcher implements NotificationService {
+
+    private final MatchEmailRenderer renderer;
+    private final MessageSender sender;
+    private final int capacity;
+    private final int maxAttempts;
+    private final long initialBackoffMs;
+    private final long maxBackoffMs;
+    private long shutdownTimeoutMs = 10_000;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition ready = lock.newCondition();
+    private final Condition drained = lock.newCondition();
+    // Guarded by lock
+    private final Map<String, List<NotificationMessage>> pending = new HashMap<>();
+    private final ArrayDeque<String> readyRecipients = new ArrayDeque<>();
+    private final Set<String> inFlight = new HashSet<>();
+    private int backlog;
+    private boolean accepting = true;
+
+    private final List<Thread> workers = new ArrayList<>();
+
+    // Metrics
+    private final AtomicLong queued = new AtomicLong();
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong sessions = new AtomicLong();
+    private static final LatencyHistogram sendTimer = Metrics.timer("notification_send_session");
+
+    public QueuedNotificationDispatcher(MessageSender sender) {
+        this(new MatchEmailRenderer(), sender,
+                DbConnection.getIntProperty("notification.queue.capacity", 1000),
+                DbConnection.getIntProperty("notification.workers", 4),
+                DbConnection.getIntProperty("notification.max.attempts", 5),
+                DbConnection.getLongProperty("notification.retry.initial.ms", 1_000),
+                DbConnection.getLongProperty("notification.retry.max.ms", 60_000));
+        this.shutdownTimeoutMs = DbConnection.getLongProperty("notification.shutdown.timeout.ms", 10_000);
+    }
+
+    public QueuedNotificationDispatcher(MatchEmailRenderer renderer, MessageSender sender, int capacity,
+                                        int workerCount, int maxAttempts, long initialBackoffMs, long maxBackoffMs) {
+        if (capacity < 1 || workerCount < 1 || maxAttempts < 1) {
+            throw new IllegalArgumentException("Invalid dispatcher settings: capacity=" + capacity
+                    + ", workers=" + workerCount + ", maxAttempts=" + maxAttempts);
+        }
+
+        this.renderer = renderer;
+        this.sender = sender;
+        this.capacity = capacity;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMs = initialBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+
+        ThreadFactory factory = virtualThreadFactory();
+        boolean virtual = factory != null;
+        if (!virtual) {
+            AtomicInteger counter = new AtomicInteger();
+            factory = r -> {
+                Thread t = new Thread(r, "notification-" + counter.getAndIncrement());
+                t.setDaemon(true);
+                return t;
+            };
+        }
+        for (int i = 0; i < workerCount; i++) {
+            Thread worker = factory.newThread(this::workLoop);
+            workers.add(worker);
+            worker.start();
+        }
+
+        Metrics.gauge("notification_queued", queued::get);
+        Metrics.gauge("notification_sent", sent::get);
+        Metrics.gauge("notification_failed", failed::get);
+        Metrics.gauge("notification_dropped", dropped::get);
+        Metrics.gauge("notification_backlog", this::getBacklog);
+
+        SimpleLogger.log("Notification dispatcher started (" + workerCount + " "
+                + (virtual ? "virtual" : "platform") + " workers, capacity " + capacity + ")");
+    }
+
+    @Override
+    public void notifyMatch(Match match, LostItem lostItem, FoundItem foundItem) {
+        for (NotificationMessage message : renderer.render(match, lostItem, foundItem)) {
+            enqueue(message);
+        }
+    }
+
+    /**
+     * Queues one message; returns false if it was dropped because the backlog
+     * is full or the dispatcher is shutting down.
+     */
+    public boolean enqueue(NotificationMessage message) {
+        lock.lock();
+        try {
+            if (!accepting || backlog >= capacity) {
+                dropped.incrementAndGet();
+                SimpleLogger.error("Notification dropped (" + (accepting ? "backlog full" : "shutting down")
+                        + "): " + message);
+                return false;
+            }
+
+            String recipient = message.getRecipient();
+            List<NotificationMessage> queue = pending.get(recipient);
+            if (queue == null) {
+                queue = new ArrayList<>();
+                pending.put(recipient, queue);
+                if (!inFlight.contains(recipient)) {
+                    readyRecipients.addLast(recipient);
+                    ready.signal();
+                }
+            }
+            queue.add(message);
+            backlog++;
+            queued.incrementAndGet();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void workLoop() {
+        try {
+            while (true) {
+                String recipient;
+                List<NotificationMessage> batch;
+
+                lock.lock();
+                try {
+                    while (readyRecipients.isEmpty()) {
+                        ready.await();
+                    }
+                    recipient = readyRecipients.pollFirst();
+                    batch = pending.remove(recipient);
+                    inFlight.add(recipient);
+                } finally {
+                    lock.unlock();
+                }
+
+                int settled = 0;
+                try {
+                    settled = deliver(recipient, batch);
+                } finally {
+                    // Even if the worker dies, the recipient's later messages must stay deliverable
+                    lock.lock();
+                    try {
+                        inFlight.remove(recipient);
+                        backlog -= settled;
+                        if (pending.containsKey(recipient)) {
+                            readyRecipients.addLast(recipient);
+                            ready.signal();
+                        }
+                        if (backlog == 0) {
+                            drained.signalAll();
+                        }
+                    } finally {
+                        lock.unlock();
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            // Shutting down
+        }
+    }
+
+    /**
+     * Sends the batch, retrying transient failures with backoff. Messages
+     * queued for the same recipient in the meantime join the next attempt.
+     * An unexpected exception from the sender counts as a permanent failure.
+     * Returns how many messages left the backlog (sent or given up on).
+     */
+    private int deliver(String recipient, List<NotificationMessage> batch) throws InterruptedException {
+        int settled = 0;
+
+        for (int attempt = 1; ; attempt++) {
+            int before = batch.size();
+            sessions.incrementAndGet();
+            long start = System.nanoTime();
+            try {
+                sender.send(recipient, batch);
+                sendTimer.recordSince(start);
+                sent.addAndGet(before);
+                settled += before;
+                if (before > 1) {
+                    SimpleLogger.log("Sent " + before + " notifications to " + recipient + " in one session");
+                } else {
+                    SimpleLogger.log("Notification sent to " + recipient);
+                }
+                return settled;
+            } catch (DeliveryException e) {
+                sendTimer.recordSince(start);
+                int delivered = before - batch.size();
+                sent.addAndGet(delivered);
+                settled += delivered;
+
+                if (e.isPermanent() || attempt >= maxAttempts) {
+                    failed.addAndGet(batch.size());
+                    settled += batch.size();
+                    SimpleLogger.error("Giving up on " + batch.size() + " notification(s) to " + recipient
+                            + " after " + attempt + " attempt(s): " + e.getMessage());
+                    return settled;
+                }
+
+                long delay = backoffMs(attempt);
+                retries.incrementAndGet();
+                SimpleLogger.error("Notification to " + recipient + " failed (attempt " + attempt + "/"
+                        + maxAttempts + "), retrying in " + delay + " ms: " + e.getMessage());
+                Thread.sleep(delay);
+            } catch (RuntimeException e) {
+                sendTimer.recordSince(start);
+                int delivered = before - batch.size();
+                sent.addAndGet(delivered);
+                failed.addAndGet(batch.size());
+                settled += delivered + batch.size();
+                SimpleLogger.error("Giving up on " + batch.size() + " notification(s) to " + recipient
+                        + " after an unexpected error: " + e);
+                return settled;
+            }
+
+            // Fold in anything queued for this recipient while we were busy
+            lock.lock();
+            try {
+                List<NotificationMessage> more = pending.remove(recipient);
+                if (more != null) {
+                    readyRecipients.remove(recipient);
+                    batch.addAll(more);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private long backoffMs(int attempt) {
+        long base = initialBackoffMs << Math.min(attempt - 1, 20);
+        long capped = Math.min(maxBackoffMs, base);
+        // +/-20% jitter so recipients failing together do not retry in lockstep
+        return Math.max(1, (long) (capped * (0.8 + ThreadLocalRandom.current().nextDouble() * 0.4)));
+    }
+
+    /**
+     * Stops accepting messages and waits up to timeoutMs for the backlog to
+     * drain, then stops the workers. Returns the number of messages left unsent.
+     */
+    public int shutdown(long timeoutMs) {
+        int left;
+        lock.lock();
+        try {
+            accepting = false;
+            long remainingNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+            while (backlog > 0 && remainingNanos > 0) {
+                remainingNanos = drained.awaitNanos(remainingNanos);
+            }
+            left = backlog;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            left = backlog;
+        } finally {
+            lock.unlock();
+        }
+
+        for (Thread worker : workers) {
+            worker.interrupt();
+        }
+        if (left > 0) {
+            SimpleLogger.error("Notification dispatcher stopped with " + left + " unsent message(s)");
+        } else {
+            SimpleLogger.log("Notification dispatcher stopped");
+        }
+        return left;
+    }
+
+    @Override
+    public void shutdown() {
+        shutdown(shutdownTimeoutMs);
+    }
+
+    public int getBacklog() {
+        lock.lock();
+        try {
+            return backlog;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public String describeStats() {
+        return String.format("Notifications\n  Queued: %d | Sent: %d | Failed: %d | Dropped: %d\n" +
+                        "  Backlog: %d/%d | Sessions: %d | Retries: %d",
+                queued.get(), sent.get(), failed.get(), dropped.get(),
+                getBacklog(), capacity, sessions.get(), retries.get());
+    }
+
+    /**
+     * Returns a virtual thread factory, or null if the running JVM has none.
+     * Looked up reflectively so the code still builds for and runs on Java 17.
+     */
+    private static ThreadFactory virtualThreadFactory() {
+        try {
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, "notification-", 0L);
+            return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
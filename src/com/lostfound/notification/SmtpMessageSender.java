@@ -0,0 +1,150 @@
+package com.lostfound.notification;
+
+import com.lostfound.db.DbConnection;
+import com.lostfound.util.SimpleLogger;
+
+import java.io.*;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Minimal SMTP client: plain-text mail over one connection per recipient.
+ *
+ * It speaks just enough of RFC 5321 to hand messages to a local relay or a
+ * development mail catcher (see LocalSmtpServer); there is no STARTTLS or
+ * AUTH, so point it at a relay that takes care of onward delivery.
+ */
+public class SmtpMessageSender implements MessageSender {
+
+    private final String host;
+    private final int port;
+    private final String from;
+    private final String heloName;
+    private final int timeoutMs;
+
+    public SmtpMessageSender() {
+        this(Optional.ofNullable(DbConnection.getProperty("smtp.host")).orElse("localhost"),
+                DbConnection.getIntProperty("smtp.port", 25),
+                Optional.ofNullable(DbConnection.getProperty("smtp.from")).orElse("lostfound@localhost"),
+                DbConnection.getIntProperty("smtp.timeout.ms", 10_000));
+    }
+
+    public SmtpMessageSender(String host, int port, String from, int timeoutMs) {
+        this.host = host;
+        this.port = port;
+        this.from = from;
+        this.heloName = from.contains("@") ? from.substring(from.indexOf('@') + 1) : "localhost";
+        this.timeoutMs = timeoutMs;
+    }
+
+    @Override
+    public void send(String recipient, List<NotificationMessage> messages) throws DeliveryException {
+        if (messages.isEmpty()) {
+            return;
+        }
+
+        try (Socket socket = new Socket()) {
+            socket.connect(new InetSocketAddress(host, port), timeoutMs);
+            socket.setSoTimeout(timeoutMs);
+
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            Writer out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+
+            expect(in, 220);
+            command(in, out, "EHLO " + heloName, 250);
+
+            Iterator<NotificationMessage> pending = messages.iterator();
+            while (pending.hasNext()) {
+                NotificationMessage message = pending.next();
+                command(in, out, "MAIL FROM:<" + from + ">", 250);
+                command(in, out, "RCPT TO:<" + recipient + ">", 250);
+                command(in, out, "DATA", 354);
+                writeData(out, recipient, message);
+                expect(in, 250);
+                pending.remove();
+            }
+
+            try {
+                command(in, out, "QUIT", 221);
+            } catch (IOException e) {
+                // Everything was accepted already
+            }
+        } catch (DeliveryException e) {
+            throw e;
+        } catch (IOException e) {
+            throw new DeliveryException("SMTP " + host + ":" + port + ": " + e.getMessage(), e);
+        }
+
+        SimpleLogger.debug(() -> "SMTP session to " + recipient + " completed");
+    }
+
+    private void writeData(Writer out, String recipient, NotificationMessage message) throws IOException {
+        StringBuilder data = new StringBuilder(message.getBody().length() + 256);
+        data.append("From: ").append(from).append("\r\n");
+        data.append("To: ").append(recipient).append("\r\n");
+        data.append("Subject: ").append(encodeHeader(message.getSubject())).append("\r\n");
+        data.append("Date: ").append(DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now())).append("\r\n");
+        data.append("MIME-Version: 1.0\r\n");
+        data.append("Content-Type: text/plain; charset=UTF-8\r\n");
+        data.append("Content-Transfer-Encoding: 8bit\r\n\r\n");
+
+        // CRLF line endings, and a leading '.' doubled so it cannot end the DATA section
+        for (String line : message.getBody().split("\r?\n", -1)) {
+            if (line.startsWith(".")) {
+                data.append('.');
+            }
+            data.append(line).append("\r\n");
+        }
+        data.append(".\r\n");
+
+        out.write(data.toString());
+        out.flush();
+    }
+
+    private static String encodeHeader(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > 126) {
+                return "=?UTF-8?B?" + Base64.getEncoder().encodeToString(value.getBytes(StandardCharsets.UTF_8)) + "?=";
+            }
+        }
+        return value;
+    }
+
+    private static void command(BufferedReader in, Writer out, String line, int expectedCode) throws IOException {
+        out.write(line + "\r\n");
+        out.flush();
+        expect(in, expectedCode);
+    }
+
+    /**
+     * Reads a (possibly multi-line) reply and checks its code. 5xx replies
+     * are permanent failures, anything else unexpected is worth a retry.
+     */
+    private static void expect(BufferedReader in, int expectedCode) throws IOException {
+        String line;
+        do {
+            line = in.readLine();
+            if (line == null) {
+                throw new EOFException("connection closed by server");
+            }
+        } while (line.length() > 3 && line.charAt(3) == '-');
+
+        int code;
+        try {
+            code = Integer.parseInt(line.substring(0, 3));
+        } catch (RuntimeException e) {
+            throw new DeliveryException("Malformed SMTP reply: " + line, false);
+        }
+
+        if (code != expectedCode && !(expectedCode == 250 && code == 251)) {
+            throw new DeliveryException("SMTP error: " + line, code >= 500);
+        }
+    }
+}
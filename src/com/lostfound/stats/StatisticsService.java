@@ -0,0 +1,39 @@
+package com.lostfound.stats;
+
+import com.lostfound.dao.StatisticsDAO;
+import com.lostfound.model.Statistics;
+
+/**
+ * Serves statistics from a cached snapshot that is recomputed once it is
+ * older than the configured TTL. A TTL of 0 disables caching.
+ */
+public class StatisticsService {
+    private final StatisticsDAO statisticsDAO;
+    private final long ttlMillis;
+
+    private Statistics cached;
+    private long cachedAtMillis;
+
+    public StatisticsService(StatisticsDAO statisticsDAO, long ttlMillis) {
+        this.statisticsDAO = statisticsDAO;
+        this.ttlMillis = ttlMillis;
+    }
+
+    public synchronized Statistics getStatistics() {
+        long now = System.currentTimeMillis();
+        if (cached != null && now - cachedAtMillis < ttlMillis) {
+            return cached;
+        }
+
+        Statistics fresh = statisticsDAO.loadStatistics();
+        if (fresh != null) {
+            cached = fresh;
+            cachedAtMillis = now;
+        }
+        return fresh;
+    }
+
+    public synchronized void invalidate() {
+        cached = null;
+    }
+}
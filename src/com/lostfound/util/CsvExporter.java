@@ -1,22 +1,47 @@
 package com.lostfound.util;
 
+import com.lostfound.db.DbConnection;
 import com.lostfound.model.LostItem;
 import com.lostfound.model.FoundItem;
 import com.lostfound.model.Match;
 
 import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.sql.*;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 
 /**
  * Utility class for exporting data to CSV files.
+ *
+ * The export* methods write an already loaded list. The stream* methods read
+ * straight from the database with a forward-only cursor and write through a
+ * buffered file channel, so memory use does not grow with the table size.
  */
 public class CsvExporter {
 
     private static final DateTimeFormatter DATE_FORMATTER =
             DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+    private static final int FLUSH_THRESHOLD = 16 * 1024;
+
+    /**
+     * Writes one CSV line for the current row into the builder.
+     */
+    private interface RowWriter {
+        void write(ResultSet rs, StringBuilder line) throws SQLException;
+    }
+
     public static boolean exportLostItems(List<LostItem> items, String filename) {
         try (FileWriter writer = new FileWriter(filename)) {
             writer.write("ID,Item Name,Color,Location,Description,Contact Info,Reported Date\n");
@@ -88,6 +113,182 @@ public class CsvExporter {
         }
     }
 
+    public static boolean streamLostItems(String filename) {
+        String sql = "SELECT id, item_name, color, location, description, contact_info, reported_date " +
+                "FROM LOST_ITEMS ORDER BY reported_date DESC";
+        return streamQuery(sql, "ID,Item Name,Color,Location,Description,Contact Info,Reported Date\n",
+                (rs, line) -> {
+                    line.append(rs.getInt(1)).append(',');
+                    appendCsv(line, rs.getString(2)).append(',');
+                    appendCsv(line, rs.getString(3)).append(',');
+                    appendCsv(line, rs.getString(4)).append(',');
+                    appendCsv(line, rs.getString(5)).append(',');
+                    appendCsv(line, rs.getString(6)).append(',');
+                    appendDateTime(line, rs.getTimestamp(7)).append('\n');
+                }, filename, "lost items");
+    }
+
+    public static boolean streamFoundItems(String filename) {
+        String sql = "SELECT id, item_name, color, location, description, finder_info, found_date " +
+                "FROM FOUND_ITEMS ORDER BY found_date DESC";
+        return streamQuery(sql, "ID,Item Name,Color,Location,Description,Finder Info,Found Date\n",
+                (rs, line) -> {
+                    line.append(rs.getInt(1)).append(',');
+                    appendCsv(line, rs.getString(2)).append(',');
+                    appendCsv(line, rs.getString(3)).append(',');
+                    appendCsv(line, rs.getString(4)).append(',');
+                    appendCsv(line, rs.getString(5)).append(',');
+                    appendCsv(line, rs.getString(6)).append(',');
+                    appendDateTime(line, rs.getTimestamp(7)).append('\n');
+                }, filename, "found items");
+    }
+
+    public static boolean streamMatches(String filename) {
+        String sql = "SELECT match_id, lost_item_id, found_item_id, score, match_date, status " +
+                "FROM MATCHES ORDER BY match_date DESC";
+        return streamQuery(sql, "Match ID,Lost Item ID,Found Item ID,Score,Match Date,Status\n",
+                (rs, line) -> {
+                    line.append(rs.getInt(1)).append(',');
+                    line.append(rs.getInt(2)).append(',');
+                    line.append(rs.getInt(3)).append(',');
+                    line.append(rs.getInt(4)).append(',');
+                    appendDateTime(line, rs.getTimestamp(5)).append(',');
+                    line.append(rs.getString(6)).append('\n');
+                }, filename, "matches");
+    }
+
+    private static boolean streamQuery(String sql, String header, RowWriter rowWriter,
+                                       String filename, String label) {
+        // The default streams rows: Integer.MIN_VALUE for MySQL Connector/J (with
+        // useCursorFetch=true in db.url a positive value fetches in chunks of that size)
+        int fetchSize = DbConnection.getIntProperty("export.fetch.size",
+                DbConnection.getDialect().getStreamingFetchSize());
+
+        long start = System.nanoTime();
+        long rows = 0;
+        long bytes = 0;
+
+        try (Connection conn = DbConnection.getConnection();
+             Statement stmt = conn.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+             FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.CREATE,
+                     StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+
+            stmt.setFetchSize(fetchSize);
+
+            CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+            ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE);
+            StringBuilder pending = new StringBuilder(FLUSH_THRESHOLD * 2);
+            pending.append(header);
+
+            try (ResultSet rs = stmt.executeQuery(sql)) {
+                while (rs.next()) {
+                    rowWriter.write(rs, pending);
+                    rows++;
+                    if (pending.length() >= FLUSH_THRESHOLD) {
+                        bytes += encodeAndWrite(pending, encoder, buffer, channel);
+                    }
+                }
+            }
+
+            bytes += encodeAndWrite(pending, encoder, buffer, channel);
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (SQLException | IOException e) {
+            SimpleLogger.error("Failed to export " + label + ": " + e.getMessage());
+            return false;
+        }
+
+        double seconds = Math.max(System.nanoTime() - start, 1) / 1_000_000_000.0;
+        SimpleLogger.log(String.format("Exported %d %s to %s in %.2f s (%.0f rows/s, %.2f MB/s)",
+                rows, label, filename, seconds, rows / seconds, bytes / seconds / (1024 * 1024)));
+        return true;
+    }
+
+    /**
+     * Encodes the pending text into the byte buffer, writing the buffer to the
+     * channel whenever it fills up, and clears the builder for reuse.
+     * Returns the number of bytes produced.
+     */
+    private static long encodeAndWrite(StringBuilder pending, CharsetEncoder encoder,
+                                       ByteBuffer buffer, FileChannel channel) throws IOException {
+        CharBuffer chars = CharBuffer.wrap(pending);
+        long bytes = 0;
+
+        encoder.reset();
+        while (true) {
+            int before = buffer.position();
+            CoderResult result = encoder.encode(chars, buffer, true);
+            bytes += buffer.position() - before;
+
+            if (result.isOverflow()) {
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                buffer.clear();
+            } else if (result.isUnderflow()) {
+                break;
+            } else {
+                result.throwException();
+            }
+        }
+
+        pending.setLength(0);
+        return bytes;
+    }
+
+    private static StringBuilder appendCsv(StringBuilder line, String field) {
+        if (field == null) {
+            return line;
+        }
+
+        boolean quote = false;
+        for (int i = 0; i < field.length() && !quote; i++) {
+            char c = field.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n';
+        }
+
+        if (!quote) {
+            return line.append(field);
+        }
+
+        line.append('"');
+        for (int i = 0; i < field.length(); i++) {
+            char c = field.charAt(i);
+            if (c == '"') {
+                line.append('"');
+            }
+            line.append(c);
+        }
+        return line.append('"');
+    }
+
+    /**
+     * Appends a timestamp as yyyy-MM-dd HH:mm:ss without going through a formatter.
+     */
+    private static StringBuilder appendDateTime(StringBuilder line, Timestamp timestamp) {
+        if (timestamp == null) {
+            return line;
+        }
+
+        LocalDateTime dt = timestamp.toLocalDateTime();
+        line.append(dt.getYear()).append('-');
+        appendTwoDigits(line, dt.getMonthValue()).append('-');
+        appendTwoDigits(line, dt.getDayOfMonth()).append(' ');
+        appendTwoDigits(line, dt.getHour()).append(':');
+        appendTwoDigits(line, dt.getMinute()).append(':');
+        return appendTwoDigits(line, dt.getSecond());
+    }
+
+    private static StringBuilder appendTwoDigits(StringBuilder line, int value) {
+        if (value < 10) {
+            line.append('0');
+        }
+        return line.append(value);
+    }
+
     private static String escapeCsv(String field) {
         if (field == null) {
             return "";
@@ -0,0 +1,101 @@
+package com.lostfound.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded lock-free ring buffer for log entries with many producers and a
+ * single consumer.
+ *
+ * Each slot carries a sequence number: a producer claims the slot at the
+ * tail with a CAS, fills it and then publishes it by advancing the slot's
+ * sequence; the consumer only reads slots whose sequence shows they were
+ * published, and hands them back by advancing the sequence one lap further.
+ */
+class LogRingBuffer {
+
+    private final int mask;
+    private final AtomicLongArray sequences;
+    private final long[] timestamps;
+    private final int[] levels;
+    private final Object[] messages;
+
+    private final AtomicLong tail = new AtomicLong();
+    private long head = 0; // only touched by the consumer thread
+
+    LogRingBuffer(int requestedCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(2, requestedCapacity - 1)) << 1;
+        this.mask = capacity - 1;
+        this.sequences = new AtomicLongArray(capacity);
+        this.timestamps = new long[capacity];
+        this.levels = new int[capacity];
+        this.messages = new Object[capacity];
+
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Tries to append an entry; returns false if the buffer is full.
+     * The message is either a String or a Supplier evaluated by the consumer.
+     */
+    boolean offer(int level, long timestamp, Object message) {
+        long pos = tail.get();
+        while (true) {
+            int index = (int) (pos & mask);
+            long diff = sequences.get(index) - pos;
+
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    timestamps[index] = timestamp;
+                    levels[index] = level;
+                    messages[index] = message;
+                    sequences.set(index, pos + 1);
+                    return true;
+                }
+                pos = tail.get();
+            } else if (diff < 0) {
+                return false;
+            } else {
+                pos = tail.get();
+            }
+        }
+    }
+
+    /**
+     * True if poll would find an entry. Consumer thread only.
+     */
+    boolean hasEntry() {
+        return sequences.get((int) (head & mask)) == head + 1;
+    }
+
+    /**
+     * Hands the next published entry to the sink and frees its slot.
+     * Returns false if there is nothing to read. Consumer thread only.
+     */
+    boolean poll(EntrySink sink) {
+        int index = (int) (head & mask);
+        if (sequences.get(index) != head + 1) {
+            return false;
+        }
+
+        long timestamp = timestamps[index];
+        int level = levels[index];
+        Object message = messages[index];
+        messages[index] = null;
+        sequences.set(index, head + mask + 1);
+        head++;
+
+        sink.accept(level, timestamp, message);
+        return true;
+    }
+
+    interface EntrySink {
+        void accept(int level, long timestamp, Object message);
+    }
+}
@@ -1,25 +1,262 @@
 package com.lostfound.util;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
 
+/**
+ * Console logger.
+ *
+ * By default every call writes synchronously. After {@link #startAsync} calls
+ * only enqueue into a bounded ring buffer and a background thread formats and
+ * writes them in batches, sleeping while there is nothing to write until a
+ * producer wakes it. After {@link #shutdown} calls write synchronously again.
+ * Supplier overloads defer building the message until it is actually written.
+ */
 public class SimpleLogger {
 
+    public enum OverflowPolicy { DROP, BLOCK }
+
     private static final DateTimeFormatter FORMATTER =
             DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
+    private static final int INFO = 0;
+    private static final int ERROR = 1;
+    private static final int DEBUG = 2;
+    private static final String[] LEVEL_NAMES = {"INFO", "ERROR", "DEBUG"};
+
+    private static final int BATCH_SIZE = 256;
+    private static final long FULL_PARK_NANOS = 100_000;
+
+    private static volatile CachedTimestamp lastTimestamp = new CachedTimestamp(Long.MIN_VALUE, "");
+
+    private static volatile LogRingBuffer ringBuffer;
+    private static volatile OverflowPolicy overflowPolicy = OverflowPolicy.DROP;
+    private static volatile Thread writerThread;
+    private static volatile boolean running;
+    // Set by the writer thread before it parks on an empty buffer; producers unpark it
+    private static volatile boolean writerIdle;
+    private static final AtomicLong dropped = new AtomicLong();
+
     public static void log(String message) {
-        String timestamp = LocalDateTime.now().format(FORMATTER);
-        System.out.println("[" + timestamp + "] INFO: " + message);
+        write(INFO, message);
     }
 
     public static void error(String message) {
-        String timestamp = LocalDateTime.now().format(FORMATTER);
-        System.err.println("[" + timestamp + "] ERROR: " + message);
+        write(ERROR, message);
     }
 
     public static void debug(String message) {
-        String timestamp = LocalDateTime.now().format(FORMATTER);
-        System.out.println("[" + timestamp + "] DEBUG: " + message);
+        write(DEBUG, message);
+    }
+
+    public static void log(Supplier<String> message) {
+        write(INFO, message);
+    }
+
+    public static void error(Supplier<String> message) {
+        write(ERROR, message);
+    }
+
+    public static void debug(Supplier<String> message) {
+        write(DEBUG, message);
+    }
+
+    /**
+     * Switches to asynchronous logging through a ring buffer of the given size
+     * (rounded up to a power of two). Does nothing if already started.
+     */
+    public static synchronized void startAsync(int bufferSize, OverflowPolicy policy) {
+        if (running) {
+            return;
+        }
+
+        ringBuffer = new LogRingBuffer(bufferSize);
+        overflowPolicy = policy;
+        running = true;
+
+        Thread thread = new Thread(SimpleLogger::drainLoop, "async-logger");
+        thread.setDaemon(true);
+        thread.start();
+        writerThread = thread;
+
+        Runtime.getRuntime().addShutdownHook(new Thread(SimpleLogger::shutdown, "async-logger-shutdown"));
+        log("Async logging enabled (buffer: " + ringBuffer.capacity() + ", overflow: " + policy + ")");
+    }
+
+    /**
+     * Stops the background writer after flushing everything still buffered.
+     * Messages logged from then on, including by threads that were already
+     * past the running check, are still written.
+     */
+    public static synchronized void shutdown() {
+        if (!running) {
+            return;
+        }
+
+        running = false;
+        Thread thread = writerThread;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(5000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writerThread = null;
+
+        // Producers that saw running still set may enqueue after this; they drain
+        // their entry themselves (drainStopped), so the buffer stays in place
+        drainStopped(ringBuffer);
+
+        if (dropped.get() > 0) {
+            error("Dropped " + dropped.get() + " log messages because the buffer was full");
+        }
+    }
+
+    public static boolean isAsync() {
+        return running;
+    }
+
+    public static long getDroppedCount() {
+        return dropped.get();
+    }
+
+    private static void write(int level, Object message) {
+        long now = System.currentTimeMillis();
+        LogRingBuffer buffer = ringBuffer;
+
+        if (buffer == null || !running) {
+            writeNow(level, now, message);
+            return;
+        }
+
+        while (!buffer.offer(level, now, message)) {
+            if (!running) {
+                writeNow(level, now, message);
+                return;
+            }
+            if (overflowPolicy == OverflowPolicy.DROP) {
+                dropped.incrementAndGet();
+                return;
+            }
+            LockSupport.parkNanos(FULL_PARK_NANOS);
+        }
+
+        if (writerIdle) {
+            writerIdle = false;
+            LockSupport.unpark(writerThread);
+        }
+        if (!running) {
+            // Shutdown began after the check above and may have drained already
+            drainStopped(buffer);
+        }
+    }
+
+    private static void writeNow(int level, long timestamp, Object message) {
+        StringBuilder line = format(new StringBuilder(), level, timestamp, message);
+        if (level == ERROR) {
+            System.err.print(line);
+        } else {
+            System.out.print(line);
+        }
+    }
+
+    /**
+     * Writes out what is left in a buffer whose writer thread has stopped.
+     * Holding the class lock, this waits for a running shutdown and is the
+     * buffer's only consumer.
+     */
+    private static synchronized void drainStopped(LogRingBuffer buffer) {
+        if (buffer == ringBuffer && running) {
+            return;
+        }
+        StringBuilder out = new StringBuilder();
+        StringBuilder err = new StringBuilder();
+        while (buffer.poll((level, timestamp, message) -> format(level == ERROR ? err : out, level, timestamp, message))) {
+            // drain whatever was enqueued after the writer stopped
+        }
+        flush(out, err);
+    }
+
+    private static void drainLoop() {
+        LogRingBuffer buffer = ringBuffer;
+        StringBuilder out = new StringBuilder();
+        StringBuilder err = new StringBuilder();
+        LogRingBuffer.EntrySink sink = (level, timestamp, message) ->
+                format(level == ERROR ? err : out, level, timestamp, message);
+
+        while (running) {
+            int written = 0;
+            while (written < BATCH_SIZE && buffer.poll(sink)) {
+                written++;
+            }
+
+            flush(out, err);
+            if (written == 0) {
+                // Announce the park before the last look, so a producer either
+                // sees the flag and unparks or published before that look
+                writerIdle = true;
+                if (!buffer.hasEntry() && running) {
+                    LockSupport.park();
+                }
+                writerIdle = false;
+            }
+        }
+    }
+
+    private static void flush(StringBuilder out, StringBuilder err) {
+        if (out.length() > 0) {
+            System.out.print(out);
+            System.out.flush();
+            out.setLength(0);
+        }
+        if (err.length() > 0) {
+            System.err.print(err);
+            System.err.flush();
+            err.setLength(0);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static StringBuilder format(StringBuilder line, int level, long timestamp, Object message) {
+        String text;
+        try {
+            text = (message instanceof Supplier) ? ((Supplier<String>) message).get() : (String) message;
+        } catch (RuntimeException e) {
+            text = "<failed to build log message: " + e + ">";
+        }
+
+        return line.append('[').append(timestamp(timestamp)).append("] ")
+                .append(LEVEL_NAMES[level]).append(": ").append(text).append('\n');
+    }
+
+    /**
+     * Formats a timestamp, reusing the previous result while we are still in
+     * the same second (the pattern has no finer field).
+     */
+    private static String timestamp(long millis) {
+        long second = Math.floorDiv(millis, 1000);
+        CachedTimestamp cached = lastTimestamp;
+        if (cached.second == second) {
+            return cached.text;
+        }
+
+        String text = LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault()).format(FORMATTER);
+        lastTimestamp = new CachedTimestamp(second, text);
+        return text;
+    }
+
+    private static class CachedTimestamp {
+        final long second;
+        final String text;
+
+        CachedTimestamp(long second, String text) {
+            this.second = second;
+            this.text = text;
+        }
     }
-}
\ No newline at end of file
+}